@@ -0,0 +1,165 @@
+package com.productmanagement.dataprovider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic feeds of any size, made by repeating the bundled sample feeds
+ * {@code products-100.json} and {@code products-150.xml}.
+ * <p>
+ * Row {@code r} is a copy of sample product {@code r % n}. The first copy of each sample product
+ * is unchanged, so it still matches the sample InternalProducts; later copies get the external ID
+ * {@code <id>-<copy>} and, in JSON, the GTIN {@code 2} followed by {@code r} in twelve digits, from
+ * the GS1 range for in-store numbers, so that they match nothing.
+ * <p>
+ * Feeds are written as they are generated, so 10M rows need no more memory than 10k. Run with:
+ * {@code mvn -Pbenchmark test-compile exec:java@feeds -Dfeed.args="json 10000000 target/feeds/products-10m.json"}
+ */
+public final class FeedGenerator {
+
+    private static final String JSON_SAMPLE = "sample-data/products-100.json";
+    private static final String BMECAT_SAMPLE = "sample-data/products-150.xml";
+    private static final String PRODUCT_START = "<PRODUCT ";
+    private static final String PRODUCT_END = "</PRODUCT>\n";
+    private static final String SUPPLIER_PID_END = "</SUPPLIER_PID>";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private FeedGenerator() {
+    }
+
+    /**
+     * Usage: {@code FeedGenerator <json|bmecat> <products> <output file>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: FeedGenerator <json|bmecat> <products> <output file>");
+            System.exit(2);
+        }
+        long products = Long.parseLong(args[1].replace("_", ""));
+        Path output = Path.of(args[2]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            switch (args[0]) {
+                case "json" -> writeJson(products, out);
+                case "bmecat" -> writeBmecat(products, out);
+                default -> throw new IllegalArgumentException("Unknown format " + args[0]);
+            }
+        }
+        System.out.printf("Wrote %d products to %s (%d bytes)%n", products, output, Files.size(output));
+    }
+
+    public static byte[] json(int products) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeJson(products, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] bmecat(int products) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeBmecat(products, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a JSON feed in the format of {@link JsonDataProvider}. The stream is not closed.
+     */
+    public static void writeJson(long products, OutputStream out) throws IOException {
+        List<ObjectNode> templates = new ArrayList<>();
+        try (InputStream sample = resource(JSON_SAMPLE)) {
+            for (JsonNode product : OBJECT_MAPPER.readTree(sample)) {
+                templates.add((ObjectNode) product);
+            }
+        }
+        List<String> ids = templates.stream().map(product -> product.get("internalId").asText()).toList();
+        List<String> gtins = templates.stream().map(product -> product.path("globalTradeIdentifier").asText(null)).toList();
+
+        try (SequenceWriter writer = OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+                .without(com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValuesAsArray(out)) {
+            for (long row = 0; row < products; row++) {
+                int index = (int) (row % templates.size());
+                long copy = row / templates.size();
+                ObjectNode product = templates.get(index);
+                product.put("internalId", copy == 0 ? ids.get(index) : ids.get(index) + "-" + copy);
+                product.put("globalTradeIdentifier", copy == 0 ? gtins.get(index) : String.format("2%012d", row));
+                writer.write(product);
+            }
+        }
+    }
+
+    /**
+     * Write a BMEcat catalog in the format of {@link BmecatDataProvider}. The stream is not closed.
+     */
+    public static void writeBmecat(long products, OutputStream out) throws IOException {
+        String catalog;
+        try (InputStream sample = resource(BMECAT_SAMPLE)) {
+            catalog = new String(sample.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int start = catalog.lastIndexOf('\n', catalog.indexOf(PRODUCT_START)) + 1;
+        int end = catalog.lastIndexOf(PRODUCT_END) + PRODUCT_END.length();
+
+        // Products are split at their start tags, as one product of the sample is not closed.
+        // Each template is split after the SUPPLIER_PID value, where copies append "-<copy>".
+        List<String[]> templates = new ArrayList<>();
+        for (int from = start; from < end; ) {
+            int next = catalog.indexOf(PRODUCT_START, from + PRODUCT_START.length());
+            int to = next < 0 || next > end ? end : catalog.lastIndexOf('\n', next) + 1;
+            String product = catalog.substring(from, to);
+            if (!product.endsWith(PRODUCT_END)) {
+                product += "    " + PRODUCT_END;
+            }
+            int split = product.indexOf(SUPPLIER_PID_END);
+            templates.add(new String[]{product.substring(0, split), product.substring(split)});
+            from = to;
+        }
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(catalog, 0, start);
+        for (long row = 0; row < products; row++) {
+            String[] template = templates.get((int) (row % templates.size()));
+            long copy = row / templates.size();
+            writer.write(template[0]);
+            if (copy > 0) {
+                writer.write("-" + copy);
+            }
+            writer.write(template[1]);
+        }
+        writer.write(catalog, end, catalog.length() - end);
+        writer.flush();
+    }
+
+    private static InputStream resource(String path) {
+        InputStream stream = FeedGenerator.class.getClassLoader().getResourceAsStream(path);
+        if (stream == null) {
+            throw new IllegalStateException("Sample feed not on the classpath: " + path);
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,174 @@
+package com.productmanagement.dataprovider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.domain.InternalProductAttribute;
+import com.productmanagement.repository.InternalProductBatchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-record cost of the import stages that run for every product, on {@value #RECORDS} products
+ * scaled from {@code products-100.json} by {@link FeedGenerator}:
+ * <ul>
+ *   <li>{@code normalizeAndHash}: the process stage of the {@link ImportPipeline} as run by
+ *   {@link ImportEngine}, from parsed tree to hashed DataProviderProduct</li>
+ *   <li>{@code associateByGtin}: {@link GlobalTradeIdAssociationStrategy} answering from the GTIN
+ *   index of the {@link AssociationIndex}, which holds every other product</li>
+ *   <li>{@code associateByAllStrategies}: every strategy in priority order, as the associate stage
+ *   runs them; products missing from the index fall through to the fuzzy attribute match</li>
+ *   <li>{@code categoryUnchanged} and {@code categoryChanged}: the Category mapping of the
+ *   {@link ImportWriter}</li>
+ *   <li>{@code resultAccumulation}: the {@link ImportResult} counters updated per record</li>
+ * </ul>
+ * Database access is left out. Run with {@code -prof gc} to see the bytes allocated per record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportHotPathBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    private final JsonDataProvider provider = new JsonDataProvider();
+    private final ProductBuffer buffer =
+            new ProductBuffer(new AttributeInterner(new ImportProperties().getAttributeInternCacheSize()));
+
+    private JsonNode[] trees;
+    private DataProviderProduct[] products;
+    private InternalProduct[] internalProducts;
+    private String[] changedCategories;
+    private AssociationIndex associationIndex;
+    private GlobalTradeIdAssociationStrategy strategy;
+    private List<AssociationStrategy> strategies;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonNode feed = new ObjectMapper().readTree(FeedGenerator.json(RECORDS));
+        trees = new JsonNode[RECORDS];
+        products = new DataProviderProduct[RECORDS];
+        internalProducts = new InternalProduct[RECORDS];
+        changedCategories = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            trees[i] = feed.get(i);
+            products[i] = provider.normalize(trees[i]);
+
+            Set<InternalProductAttribute> attributes = new HashSet<>();
+            for (DataProviderAttribute attribute : products[i].getAttributes()) {
+                attributes.add(InternalProductAttribute.of(attribute.getName(), attribute.getValue()));
+            }
+            internalProducts[i] = InternalProduct.builder()
+                    .internalId(products[i].getExternalId())
+                    .globalTradeIdentifier(products[i].getGlobalTradeIdentifier())
+                    .attributes(attributes)
+                    .build();
+            changedCategories[i] = products[i].getCategory() + " (new)";
+        }
+
+        AssociationProperties associationProperties = new AssociationProperties();
+        associationIndex = new AssociationIndex(new InternalProductBatchRepository(null) {
+            @Override
+            public long forEachProductKeys(String partNumberAttribute, Collection<String> textAttributes,
+                                           Consumer<ProductKeys> consumer) {
+                for (int i = 0; i < RECORDS; i += 2) {
+                    List<String> texts = internalProducts[i].getAttributes().stream()
+                            .filter(attribute -> attribute.getName().equals(AttributeNames.BRAND))
+                            .map(InternalProductAttribute::getValue)
+                            .toList();
+                    consumer.accept(new ProductKeys(products[i].getExternalId(),
+                            products[i].getGlobalTradeIdentifier(), List.of(), texts));
+                }
+                return RECORDS / 2;
+            }
+        }, associationProperties);
+        strategy = new GlobalTradeIdAssociationStrategy(null, associationIndex);
+        strategies = List.of(strategy,
+                new InternalIdAssociationStrategy(null, associationIndex),
+                new ManufacturerPidAssociationStrategy(null, associationIndex, associationProperties),
+                new AttributeAssociationStrategy(null, associationIndex, associationProperties));
+        associationIndex.prepare();
+    }
+
+    @TearDown
+    public void tearDown() {
+        associationIndex.release();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void normalizeAndHash(Blackhole blackhole) {
+        for (JsonNode tree : trees) {
+            blackhole.consume(provider.normalize(tree, buffer));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void associateByGtin(Blackhole blackhole) {
+        for (DataProviderProduct product : products) {
+            blackhole.consume(strategy.findMatchingInternalId(product));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void associateByAllStrategies(Blackhole blackhole) {
+        for (DataProviderProduct product : products) {
+            for (AssociationStrategy candidate : strategies) {
+                AssociationResult result = candidate.associate(product);
+                if (result.hasMatch()) {
+                    blackhole.consume(result);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void categoryUnchanged(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(ImportWriter.mapCategoryToInternalProduct(products[i].getCategory(), internalProducts[i]));
+        }
+    }
+
+    /**
+     * Every call changes the Category: the product is switched to the changed value and back.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * RECORDS)
+    public void categoryChanged(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(ImportWriter.mapCategoryToInternalProduct(changedCategories[i], internalProducts[i]));
+            blackhole.consume(ImportWriter.mapCategoryToInternalProduct(products[i].getCategory(), internalProducts[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public ImportResult resultAccumulation() {
+        ImportResult result = new ImportResult();
+        for (int i = 0; i < RECORDS; i++) {
+            result.recordProcessed(i * 256L);
+            result.incrementTotal();
+            if ((i & 1) == 0) {
+                result.incrementNotAssociated();
+            }
+        }
+        return result;
+    }
+}
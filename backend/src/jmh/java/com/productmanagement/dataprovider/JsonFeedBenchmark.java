@@ -0,0 +1,55 @@
+package com.productmanagement.dataprovider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a whole JSON feed as one tree with {@code readTree} compared to the streaming read of
+ * {@link JsonDataProvider}, which builds one tree per product. The feed is scaled from
+ * {@code products-100.json} by {@link FeedGenerator}.
+ * <p>
+ * {@code readTree} also holds the whole feed in memory at once; add {@code -prof gc} to see the
+ * allocation rates. For the 1M row feed run with {@code -p products=1000000} and a heap large
+ * enough for {@code readTree}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFeedBenchmark {
+
+    @Param({"10000"})
+    public int products;
+
+    private byte[] json;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonDataProvider provider = new JsonDataProvider();
+
+    @Setup
+    public void generate() {
+        json = FeedGenerator.json(products);
+    }
+
+    @Benchmark
+    public int readTree(Blackhole blackhole) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        for (JsonNode product : root) {
+            blackhole.consume(product);
+        }
+        return root.size();
+    }
+
+    @Benchmark
+    public long streaming(Blackhole blackhole) throws IOException {
+        return provider.read(new ByteArrayInputStream(json), 0, (product, offset) -> blackhole.consume(product));
+    }
+}
@@ -0,0 +1,82 @@
+package com.productmanagement.dataprovider;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse stage throughput on a local feed file: the stream read of the provider, which is what
+ * compressed and uploaded feeds still use, compared to the {@link MappedFeedReader}, which maps the
+ * file and parses its splits on {@code workers} threads from the mapped pages.
+ * <p>
+ * The feed is written to a temporary file by {@link FeedGenerator}; the second and later iterations
+ * read it from the page cache, as imports of recently written feeds do. Both readers deliver records
+ * in file order to a single consumer, so the records are only consumed, not normalized.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MappedFeedBenchmark {
+
+    @Param({"json", "bmecat"})
+    public String format;
+
+    @Param({"200000"})
+    public int products;
+
+    @Param({"2", "4"})
+    public int workers;
+
+    private Path feed;
+    private SplittableDataProvider<?> provider;
+
+    @Setup
+    public void generate() throws IOException {
+        feed = Files.createTempFile("mapped-feed-", "json".equals(format) ? ".json" : ".xml");
+        try (OutputStream out = Files.newOutputStream(feed)) {
+            if ("json".equals(format)) {
+                FeedGenerator.writeJson(products, out);
+                provider = new JsonDataProvider();
+            } else {
+                FeedGenerator.writeBmecat(products, out);
+                provider = new BmecatDataProvider();
+            }
+        }
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(feed);
+    }
+
+    @Benchmark
+    public long stream(Blackhole blackhole) throws Exception {
+        return stream(provider, blackhole);
+    }
+
+    @Benchmark
+    public long mapped(Blackhole blackhole) throws Exception {
+        return mapped(provider, blackhole);
+    }
+
+    private <T> long stream(DataProvider<T> reader, Blackhole blackhole) throws Exception {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(feed), ImportSource.STREAM_BUFFER_SIZE)) {
+            return reader.read(in, 0, (record, offset) -> blackhole.consume(record));
+        }
+    }
+
+    private <T> long mapped(SplittableDataProvider<T> reader, Blackhole blackhole) throws Exception {
+        return new MappedFeedReader<>(reader, feed, workers, 1024)
+                .read(0, (record, offset) -> blackhole.consume(record));
+    }
+}
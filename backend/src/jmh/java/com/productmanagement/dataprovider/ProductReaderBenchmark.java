@@ -0,0 +1,124 @@
+package com.productmanagement.dataprovider;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parse and normalize stages of the JSON, CSV and BMEcat providers on equivalent
+ * data: the same products with the same GTINs and attributes, as a JSON array, a CSV file and a
+ * BMEcat catalog. Association and persistence are shared by both providers and left out.
+ * <p>
+ * The {@code *Parse} benchmarks measure the parse stage alone. It is the only stage of
+ * the {@link ImportPipeline} that runs on a single thread, so it bounds import throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductReaderBenchmark {
+
+    private static final String[][] FEATURES = {
+            {"Brand", "TechPro"}, {"Category", "Electronics"}, {"Color", "Black"},
+            {"Storage", "256GB"}, {"Screen Size", "6.1 inch"}
+    };
+
+    @Param({"10000"})
+    public int products;
+
+    private byte[] json;
+    private byte[] csv;
+    private byte[] bmecat;
+
+    private final JsonDataProvider jsonReader = new JsonDataProvider();
+    private final CsvDataProvider csvReader = new CsvDataProvider();
+    private final BmecatDataProvider bmecatReader = new BmecatDataProvider();
+
+    @Setup
+    public void generate() {
+        StringBuilder jsonFeed = new StringBuilder("[\n");
+        StringBuilder csvFeed = new StringBuilder("externalId,globalTradeIdentifier");
+        for (String[] feature : FEATURES) {
+            csvFeed.append(',').append(feature[0]);
+        }
+        csvFeed.append('\n');
+        StringBuilder catalog = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<BMECAT version=\"2005.1\">\n  <T_NEW_CATALOG>\n");
+
+        for (int i = 0; i < products; i++) {
+            String id = "PROD_" + i;
+            String gtin = String.format("%013d", 4000000000000L + i);
+
+            jsonFeed.append(i == 0 ? "" : ",\n")
+                    .append("  {\"internalId\": \"").append(id)
+                    .append("\", \"globalTradeIdentifier\": \"").append(gtin)
+                    .append("\", \"attributes\": [");
+            for (int f = 0; f < FEATURES.length; f++) {
+                jsonFeed.append(f == 0 ? "" : ", ")
+                        .append("{\"name\": \"").append(FEATURES[f][0])
+                        .append("\", \"value\": \"").append(FEATURES[f][1]).append("\"}");
+            }
+            jsonFeed.append("]}");
+
+            csvFeed.append(id).append(',').append(gtin);
+            for (String[] feature : FEATURES) {
+                csvFeed.append(',').append(feature[1]);
+            }
+            csvFeed.append('\n');
+
+            catalog.append("    <PRODUCT mode=\"new\">\n")
+                    .append("      <SUPPLIER_PID>").append(id).append("</SUPPLIER_PID>\n")
+                    .append("      <PRODUCT_DETAILS>\n")
+                    .append("        <INTERNATIONAL_PID type=\"gtin\">").append(gtin).append("</INTERNATIONAL_PID>\n")
+                    .append("      </PRODUCT_DETAILS>\n")
+                    .append("      <PRODUCT_FEATURES>\n");
+            for (String[] feature : FEATURES) {
+                catalog.append("        <FEATURE><FNAME>").append(feature[0])
+                        .append("</FNAME><FVALUE>").append(feature[1]).append("</FVALUE></FEATURE>\n");
+            }
+            catalog.append("      </PRODUCT_FEATURES>\n    </PRODUCT>\n");
+        }
+
+        json = jsonFeed.append("\n]\n").toString().getBytes(StandardCharsets.UTF_8);
+        csv = csvFeed.toString().getBytes(StandardCharsets.UTF_8);
+        bmecat = catalog.append("  </T_NEW_CATALOG>\n</BMECAT>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long jsonParse(Blackhole blackhole) throws Exception {
+        return jsonReader.read(new ByteArrayInputStream(json), 0, (element, offset) -> blackhole.consume(element));
+    }
+
+    @Benchmark
+    public long csvParse(Blackhole blackhole) throws Exception {
+        return csvReader.read(new ByteArrayInputStream(csv), 0, (element, offset) -> blackhole.consume(element));
+    }
+
+    @Benchmark
+    public long bmecatParse(Blackhole blackhole) throws Exception {
+        return bmecatReader.read(new ByteArrayInputStream(bmecat), 0, (element, offset) -> blackhole.consume(element));
+    }
+
+    @Benchmark
+    public long json(Blackhole blackhole) throws Exception {
+        return jsonReader.read(new ByteArrayInputStream(json), 0,
+                (element, offset) -> blackhole.consume(jsonReader.normalize(element)));
+    }
+
+    @Benchmark
+    public long csv(Blackhole blackhole) throws Exception {
+        return csvReader.read(new ByteArrayInputStream(csv), 0,
+                (element, offset) -> blackhole.consume(csvReader.normalize(element)));
+    }
+
+    @Benchmark
+    public long bmecat(Blackhole blackhole) throws Exception {
+        return bmecatReader.read(new ByteArrayInputStream(bmecat), 0,
+                (element, offset) -> blackhole.consume(bmecatReader.normalize(element)));
+    }
+}
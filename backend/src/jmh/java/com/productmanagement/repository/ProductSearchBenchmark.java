@@ -0,0 +1,163 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.schema.SchemaBootstrap;
+import com.productmanagement.schema.SchemaProperties;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.testcontainers.containers.Neo4jContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the product search against a database of {@link #products} InternalProducts with
+ * four attributes each. The target is a p99 below 50 ms at 1M products, read from the
+ * {@code p0.99} line JMH prints per benchmark.
+ * <p>
+ * Starts a Neo4j Testcontainer, or uses the database at {@code -Dneo4j.uri}
+ * ({@code -Dneo4j.username}, {@code -Dneo4j.password}). The products are generated once and
+ * reused by later runs against the same database. Each product has one of 500 brands, 50
+ * categories, 16 colors and 10 sizes, so a brand filter matches 0.2% and a category filter 2%
+ * of the products.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark clean test-compile exec:exec -Djmh.args="ProductSearchBenchmark"}
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int FACET_SAMPLE_SIZE = 2_000;
+    private static final int LIMIT = 100;
+
+    private static final String CREATE_PRODUCTS =
+            "UNWIND range($from, $to - 1) AS i " +
+            "CREATE (p:InternalProduct {internalId: 'BENCH_' + right('000000' + toString(i), 7), " +
+            "                           globalTradeId: toString(4000000000000 + i)}) " +
+            "CREATE (p)-[:HAS_ATTRIBUTE]->(:InternalProductAttribute {name: 'Brand', value: 'Brand ' + (i % 500)}) " +
+            "CREATE (p)-[:HAS_ATTRIBUTE]->(:InternalProductAttribute {name: 'Category', value: 'Category ' + ((i / 7) % 50)}) " +
+            "CREATE (p)-[:HAS_ATTRIBUTE]->(:InternalProductAttribute {name: 'Color', value: 'Color ' + ((i / 3) % 16)}) " +
+            "CREATE (p)-[:HAS_ATTRIBUTE]->(:InternalProductAttribute {name: 'Size', value: 'Size ' + ((i / 11) % 10)})";
+
+    @Param({"1000000"})
+    public int products;
+
+    private Neo4jContainer<?> container;
+    private Driver driver;
+    private ProductSearchRepository repository;
+
+    @Setup
+    public void setUp() {
+        String uri = System.getProperty("neo4j.uri");
+        if (uri == null) {
+            container = new Neo4jContainer<>("neo4j:5.15-community").withoutAuthentication();
+            container.start();
+            driver = GraphDatabase.driver(container.getBoltUrl(), AuthTokens.none());
+        } else {
+            driver = GraphDatabase.driver(uri, AuthTokens.basic(
+                    System.getProperty("neo4j.username", "neo4j"),
+                    System.getProperty("neo4j.password", "password123")));
+        }
+
+        SchemaProperties schema = new SchemaProperties();
+        schema.setOnLabelScan(SchemaProperties.LabelScanPolicy.IGNORE);
+        new SchemaBootstrap(driver, null, schema).run(null);
+
+        try (Session session = driver.session()) {
+            long existing = session.run("MATCH (p:InternalProduct) WHERE p.internalId STARTS WITH 'BENCH_' RETURN count(p) AS c")
+                    .single().get("c").asLong();
+            for (long from = existing; from < products; from += BATCH_SIZE) {
+                session.run(CREATE_PRODUCTS, Map.of("from", from, "to", Math.min(from + BATCH_SIZE, products))).consume();
+            }
+        }
+        repository = new ProductSearchRepository(Neo4jClient.create(driver));
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    /**
+     * GTIN substring matching a single product.
+     */
+    @Benchmark
+    public List<InternalProductSummary> searchGtinSubstring() {
+        long product = ThreadLocalRandom.current().nextLong(products);
+        ProductFilter filter = new ProductFilter();
+        filter.setTerm(Long.toString(4000000000000L + product).substring(4));
+        return repository.search(filter, LIMIT);
+    }
+
+    /**
+     * internalId prefix matching ten products.
+     */
+    @Benchmark
+    public List<InternalProductSummary> searchIdPrefix() {
+        int prefix = ThreadLocalRandom.current().nextInt(products / 10);
+        ProductFilter filter = new ProductFilter();
+        filter.setTerm("BENCH_" + String.format("%06d", prefix));
+        return repository.search(filter, LIMIT);
+    }
+
+    @Benchmark
+    public List<InternalProductSummary> filterBrand() {
+        return repository.search(filter(brand()), LIMIT);
+    }
+
+    /**
+     * The broader filter comes first, so the search has to pick the brand to start from.
+     */
+    @Benchmark
+    public List<InternalProductSummary> filterCategoryAndBrand() {
+        return repository.search(filter(category(), brand()), LIMIT);
+    }
+
+    /**
+     * Matches 2% of the products, more than the facet sample.
+     */
+    @Benchmark
+    public ProductFacets facetsCategory() {
+        return repository.findFacets(filter(category()), FACET_SAMPLE_SIZE, 10);
+    }
+
+    @Benchmark
+    public ProductFacets facetsCategoryAndBrand() {
+        return repository.findFacets(filter(category(), brand()), FACET_SAMPLE_SIZE, 10);
+    }
+
+    /**
+     * No filter: every product matches.
+     */
+    @Benchmark
+    public ProductFacets facetsUnfiltered() {
+        return repository.findFacets(new ProductFilter(), FACET_SAMPLE_SIZE, 10);
+    }
+
+    private static AttributeFilter brand() {
+        return new AttributeFilter("Brand", "Brand " + ThreadLocalRandom.current().nextInt(500), AttributeFilter.Operator.EQ);
+    }
+
+    private static AttributeFilter category() {
+        return new AttributeFilter("Category", "Category " + ThreadLocalRandom.current().nextInt(50), AttributeFilter.Operator.EQ);
+    }
+
+    private static ProductFilter filter(AttributeFilter... attributeFilters) {
+        ProductFilter filter = new ProductFilter();
+        filter.setAttributeFilters(List.of(attributeFilters));
+        return filter;
+    }
+}
@@ -0,0 +1,59 @@
+package com.productmanagement.loadtest;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the Bolt round-trips of the application by wrapping its {@link Driver}.
+ * <p>
+ * Every {@code beginTransaction}, {@code run} and {@code commit} or {@code rollback} of a session
+ * or transaction counts as one round-trip: the driver sends RUN and PULL together and waits once.
+ * Results larger than the fetch size need further PULLs, which are not counted.
+ */
+class BoltRoundTrips implements BeanPostProcessor {
+
+    private static final Set<String> ROUND_TRIPS = Set.of("beginTransaction", "run", "commit", "rollback");
+
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof Driver driver ? wrap(Driver.class, driver) : bean;
+    }
+
+    long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+
+    private <T> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (ROUND_TRIPS.contains(method.getName())) {
+                count.increment();
+            }
+            if (result instanceof Session session) {
+                return wrap(Session.class, session);
+            }
+            if (result instanceof Transaction transaction) {
+                return wrap(Transaction.class, transaction);
+            }
+            return result;
+        }));
+    }
+}
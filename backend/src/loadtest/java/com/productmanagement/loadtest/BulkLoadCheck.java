@@ -0,0 +1,199 @@
+package com.productmanagement.loadtest;
+
+import com.productmanagement.ProductManagementApplication;
+import com.productmanagement.dataprovider.ImportEngine;
+import com.productmanagement.dataprovider.ImportResult;
+import com.productmanagement.dataprovider.ImportSource;
+import com.productmanagement.dataprovider.JsonDataProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.cli.AdminTool;
+import org.neo4j.cli.ExecutionContext;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.dbms.api.DatabaseManagementServiceBuilder;
+import org.neo4j.driver.Driver;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Checks that a bulk load builds the same graph as an online import, against an in-process Neo4j.
+ * <p>
+ * Seeds InternalProducts like the {@link ImportLoadTest} and writes its JSON feed, with fewer
+ * InternalProducts than feed products by default so that several products match the same
+ * InternalProduct and some of them change its Category. The feed is first bulk loaded into CSV
+ * files, which only reads the database, and then imported online. The files are imported with
+ * {@code neo4j-admin database import full} into a second database, and both graphs are compared
+ * product by product, ignoring timestamps.
+ * <p>
+ * Takes the options of the {@link ImportLoadTest} except {@code runs} and {@code report};
+ * {@code --loadtest.internal-products} defaults to two thirds of the feed.
+ */
+@Slf4j
+public final class BulkLoadCheck {
+
+    private static final Set<String> TIMESTAMPS = Set.of("importedAt", "lastUpdatedAt", "unassociatedSince");
+
+    private static final String INTERNAL_PRODUCTS =
+            "MATCH (p:InternalProduct) " +
+            "RETURN p.internalId AS internalId, p.globalTradeId AS gtin, " +
+            "       [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) | a.name + '=' + a.value] AS attributes " +
+            "ORDER BY internalId";
+
+    private static final String DATAPROVIDER_PRODUCTS =
+            "MATCH (dp:DataProviderProduct) " +
+            "RETURN properties(dp) AS properties, " +
+            "       [(dp)-[:ASSOCIATED_WITH]->(p:InternalProduct) | p.internalId] AS associated, " +
+            "       [(dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) | a.name + '=' + a.value] AS attributes " +
+            "ORDER BY dp.dataProviderId, dp.externalId";
+
+    private static final String COUNTS =
+            "CALL { MATCH (n:InternalProduct) RETURN 'InternalProduct' AS element, count(n) AS count " +
+            "  UNION ALL MATCH (n:InternalProductAttribute) RETURN 'InternalProductAttribute' AS element, count(n) AS count " +
+            "  UNION ALL MATCH (n:DataProviderProduct) RETURN 'DataProviderProduct' AS element, count(n) AS count " +
+            "  UNION ALL MATCH (n:DataproviderAttribute) RETURN 'DataproviderAttribute' AS element, count(n) AS count " +
+            "  UNION ALL MATCH ()-[r:HAS_ATTRIBUTE]->() RETURN 'HAS_ATTRIBUTE' AS element, count(r) AS count " +
+            "  UNION ALL MATCH ()-[r:HAS_DATAPROVIDERATTRIBUTE]->() RETURN 'HAS_DATAPROVIDERATTRIBUTE' AS element, count(r) AS count " +
+            "  UNION ALL MATCH ()-[r:ASSOCIATED_WITH]->() RETURN 'ASSOCIATED_WITH' AS element, count(r) AS count } " +
+            "RETURN element, count";
+
+    private BulkLoadCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path workDirectory = Files.createTempDirectory("bulkload-");
+        try (Neo4j neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build()) {
+            System.setProperty("spring.neo4j.uri", neo4j.boltURI().toString());
+            System.setProperty("logging.level.com.productmanagement", "INFO");
+            System.setProperty("logging.level.org.springframework.data.neo4j", "WARN");
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductManagementApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(args)) {
+                Environment environment = context.getEnvironment();
+                long products = environment.getProperty("loadtest.products", Long.class, 100_000L);
+                long internalProducts = environment.getProperty("loadtest.internal-products", Long.class, products * 2 / 3);
+                double matchRatio = environment.getProperty("loadtest.match-ratio", Double.class, 0.8);
+
+                ImportLoadTest.seed(context.getBean(Driver.class), internalProducts);
+                Path feed = workDirectory.resolve("feed.json");
+                ImportLoadTest.writeFeed(feed, products, internalProducts, matchRatio);
+                ImportEngine engine = context.getBean(ImportEngine.class);
+                JsonDataProvider provider = context.getBean(JsonDataProvider.class);
+
+                ImportResult bulkLoad = new ImportResult();
+                engine.bulkLoad(provider, ImportSource.of(feed), workDirectory.resolve("csv"), bulkLoad);
+                check(bulkLoad, "Bulk load");
+                ImportResult online = engine.importProducts(provider, ImportSource.of(feed));
+                check(online, "Import");
+
+                Path home = workDirectory.resolve("neo4j");
+                Path conf = Files.createDirectories(home.resolve("conf"));
+                long start = System.nanoTime();
+                int exitCode = AdminTool.execute(new ExecutionContext(home, conf), "database", "import", "full",
+                        "@" + bulkLoad.getBulkLoadArguments(), "--report-file=" + workDirectory.resolve("import.report"),
+                        GraphDatabaseSettings.DEFAULT_DATABASE_NAME);
+                if (exitCode != 0) {
+                    throw new IllegalStateException("neo4j-admin database import failed with exit code " + exitCode);
+                }
+                long adminMillis = (System.nanoTime() - start) / 1_000_000;
+
+                DatabaseManagementService imported = new DatabaseManagementServiceBuilder(home).build();
+                try {
+                    compare(neo4j.defaultDatabaseService(),
+                            imported.database(GraphDatabaseSettings.DEFAULT_DATABASE_NAME));
+                } finally {
+                    imported.shutdown();
+                }
+                System.out.printf("Bulk loaded graph matches the imported one: %d products (%d associated, %d not associated)%n" +
+                                "  online import: %.1f s, bulk load: %.1f s writing CSV + %.1f s neo4j-admin import%n",
+                        online.getTotalProducts(), online.getAssociatedProducts(), online.getNotAssociatedProducts(),
+                        seconds(online), seconds(bulkLoad), adminMillis / 1000.0);
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(workDirectory);
+        }
+    }
+
+    private static void check(ImportResult result, String name) {
+        if (result.isFailed()) {
+            throw new IllegalStateException(name + " failed: " + result.getErrors());
+        }
+        log.info("{}: {}", name, result);
+    }
+
+    private static double seconds(ImportResult result) {
+        return Duration.between(result.getStartTime(), result.getEndTime()).toMillis() / 1000.0;
+    }
+
+    private static void compare(GraphDatabaseService expected, GraphDatabaseService actual) {
+        compare("counts", dumpCounts(expected), dumpCounts(actual));
+        compare("InternalProducts", dumpInternalProducts(expected), dumpInternalProducts(actual));
+        compare("DataProviderProducts", dumpDataProviderProducts(expected), dumpDataProviderProducts(actual));
+    }
+
+    private static void compare(String what, List<String> expected, List<String> actual) {
+        for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+            if (!expected.get(i).equals(actual.get(i))) {
+                throw new IllegalStateException(String.format("%s differ at %d:%n  imported:    %s%n  bulk loaded: %s",
+                        what, i, expected.get(i), actual.get(i)));
+            }
+        }
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException(String.format("%s differ: %d imported, %d bulk loaded",
+                    what, expected.size(), actual.size()));
+        }
+        log.info("{} match: {} lines", what, expected.size());
+    }
+
+    private static List<String> dumpCounts(GraphDatabaseService database) {
+        return database.executeTransactionally(COUNTS, Map.of(), result -> {
+            List<String> lines = new ArrayList<>();
+            result.forEachRemaining(row -> lines.add(row.get("element") + ": " + row.get("count")));
+            return lines;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> dumpInternalProducts(GraphDatabaseService database) {
+        return database.executeTransactionally(INTERNAL_PRODUCTS, Map.of(), result -> {
+            List<String> lines = new ArrayList<>();
+            result.forEachRemaining(row -> lines.add(row.get("internalId") + " " + row.get("gtin") + " "
+                    + sorted((List<String>) row.get("attributes"))));
+            return lines;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> dumpDataProviderProducts(GraphDatabaseService database) {
+        return database.executeTransactionally(DATAPROVIDER_PRODUCTS, Map.of(), result -> {
+            List<String> lines = new ArrayList<>();
+            result.forEachRemaining(row -> {
+                Map<String, Object> properties = new TreeMap<>((Map<String, Object>) row.get("properties"));
+                properties.replaceAll((key, value) -> TIMESTAMPS.contains(key) ? "<set>" : value);
+                lines.add(properties + " -> " + row.get("associated") + " " + sorted((List<String>) row.get("attributes")));
+            });
+            return lines;
+        });
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+}
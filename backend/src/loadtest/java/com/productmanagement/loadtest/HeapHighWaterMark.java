@@ -0,0 +1,48 @@
+package com.productmanagement.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Highest used heap seen while sampling every 10 ms. The in-process database shares the heap,
+ * so its page cache and transaction state are included.
+ */
+class HeapHighWaterMark implements AutoCloseable {
+
+    private static final long INTERVAL_MILLIS = 10;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong highWaterMark = new AtomicLong();
+    private final Thread sampler;
+
+    HeapHighWaterMark() {
+        sampler = Thread.ofPlatform().daemon().name("heap-sampler").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                highWaterMark.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Collect garbage and restart from the heap used now.
+     */
+    void reset() {
+        System.gc();
+        highWaterMark.set(memory.getHeapMemoryUsage().getUsed());
+    }
+
+    long get() {
+        return highWaterMark.get();
+    }
+
+    @Override
+    public void close() {
+        sampler.interrupt();
+    }
+}
@@ -0,0 +1,210 @@
+package com.productmanagement.loadtest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.ProductManagementApplication;
+import com.productmanagement.dataprovider.ImportEngine;
+import com.productmanagement.dataprovider.ImportResult;
+import com.productmanagement.dataprovider.ImportSource;
+import com.productmanagement.dataprovider.JsonDataProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end import load test against an in-process Neo4j, no external services needed.
+ * <p>
+ * Starts the database and the application without its web layer, so {@code SchemaBootstrap}
+ * creates the project's constraints and indexes. Then seeds InternalProducts, writes a JSON feed
+ * and imports it with the {@link JsonDataProvider} through the {@link ImportEngine}, reporting
+ * products/s, Bolt round-trips per product, transaction sizes and the heap high-water mark.
+ * <p>
+ * Options are passed as properties on the command line:
+ * <ul>
+ *   <li>{@code --loadtest.products=100000}: products in the feed</li>
+ *   <li>{@code --loadtest.internal-products}: InternalProducts to seed, as many as the feed by default</li>
+ *   <li>{@code --loadtest.match-ratio=0.8}: share of feed products whose GTIN matches an InternalProduct</li>
+ *   <li>{@code --loadtest.runs=2}: imports of the same feed; later runs import unchanged products</li>
+ *   <li>{@code --loadtest.report=target/loadtest-result.json}: where the results are written as JSON</li>
+ * </ul>
+ * Application properties can be set the same way, e.g. {@code --dataprovider.import.batch-size=5000}.
+ */
+@Slf4j
+public final class ImportLoadTest {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int CATEGORIES = 50;
+
+    private static final String SEED =
+            "UNWIND $rows AS row " +
+            "CREATE (p:InternalProduct {internalId: row.internalId, globalTradeId: row.gtin}) " +
+            "CREATE (p)-[:HAS_ATTRIBUTE]->(:InternalProductAttribute {name: 'Category', value: row.category})";
+
+    private ImportLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        TransactionSizes transactionSizes = new TransactionSizes();
+        BoltRoundTrips roundTrips = new BoltRoundTrips();
+
+        try (Neo4j neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+             HeapHighWaterMark heap = new HeapHighWaterMark()) {
+            neo4j.databaseManagementService()
+                    .registerTransactionEventListener(GraphDatabaseSettings.DEFAULT_DATABASE_NAME, transactionSizes);
+
+            // System properties rank above application.yml and below the command line
+            System.setProperty("spring.neo4j.uri", neo4j.boltURI().toString());
+            System.setProperty("logging.level.com.productmanagement", "INFO");
+            System.setProperty("logging.level.org.springframework.data.neo4j", "WARN");
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductManagementApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(roundTrips))
+                    .run(args)) {
+                Environment environment = context.getEnvironment();
+                long products = environment.getProperty("loadtest.products", Long.class, 100_000L);
+                long internalProducts = environment.getProperty("loadtest.internal-products", Long.class, products);
+                double matchRatio = environment.getProperty("loadtest.match-ratio", Double.class, 0.8);
+                int runs = environment.getProperty("loadtest.runs", Integer.class, 2);
+                Path reportFile = Path.of(environment.getProperty("loadtest.report", "target/loadtest-result.json"));
+
+                seed(context.getBean(Driver.class), internalProducts);
+                Path feed = Files.createTempFile("loadtest-", ".json");
+                try {
+                    writeFeed(feed, products, internalProducts, matchRatio);
+                    log.info("Wrote feed of {} products ({} MB), {} of them matching",
+                            products, Files.size(feed) / (1024 * 1024), (long) Math.floor(products * matchRatio));
+
+                    ImportEngine engine = context.getBean(ImportEngine.class);
+                    JsonDataProvider provider = context.getBean(JsonDataProvider.class);
+                    List<LoadTestRun> results = new ArrayList<>();
+                    for (int run = 1; run <= runs; run++) {
+                        roundTrips.reset();
+                        transactionSizes.reset();
+                        heap.reset();
+
+                        ImportResult result = engine.importProducts(provider, ImportSource.of(feed));
+                        if (result.isFailed()) {
+                            throw new IllegalStateException("Import failed: " + result.getErrors());
+                        }
+                        LoadTestRun measured = measure(run, result, roundTrips, transactionSizes, heap);
+                        results.add(measured);
+                        System.out.println(measured.format());
+                    }
+
+                    Map<String, Object> report = new LinkedHashMap<>();
+                    report.put("products", products);
+                    report.put("internalProducts", internalProducts);
+                    report.put("matchRatio", matchRatio);
+                    report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+                    report.put("runs", results);
+                    if (reportFile.getParent() != null) {
+                        Files.createDirectories(reportFile.getParent());
+                    }
+                    context.getBean(ObjectMapper.class).writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+                    log.info("Results written to {}", reportFile);
+                } finally {
+                    Files.deleteIfExists(feed);
+                }
+            }
+        }
+    }
+
+    private static LoadTestRun measure(int run, ImportResult result, BoltRoundTrips roundTrips,
+                                       TransactionSizes transactionSizes, HeapHighWaterMark heap) {
+        long total = result.getTotalProducts();
+        return LoadTestRun.builder()
+                .run(run)
+                .products(total)
+                .associated(result.getAssociatedProducts())
+                .unchanged(result.getUnchangedProducts())
+                .notAssociated(result.getNotAssociatedProducts())
+                .millis(Duration.between(result.getStartTime(), result.getEndTime()).toMillis())
+                .productsPerSecond(result.getProductsPerSecond())
+                .boltRoundTrips(roundTrips.get())
+                .roundTripsPerProduct(total > 0 ? (double) roundTrips.get() / total : 0)
+                .chunksCommitted(result.getChunksCommitted())
+                .averageBatchRows(result.getAverageBatchSize())
+                .writeTransactions(transactionSizes.getTransactions())
+                .averageTransactionChanges(transactionSizes.getAverageChanges())
+                .maxTransactionChanges(transactionSizes.getMaxChanges())
+                .heapHighWaterMarkBytes(heap.get())
+                .build();
+    }
+
+    /**
+     * Create InternalProducts {@code LOAD_<i>} with GTIN {@link #gtin(long)} and a Category.
+     */
+    static void seed(Driver driver, long internalProducts) {
+        long start = System.nanoTime();
+        try (Session session = driver.session()) {
+            for (long from = 0; from < internalProducts; from += SEED_BATCH_SIZE) {
+                List<Map<String, Object>> rows = new ArrayList<>(SEED_BATCH_SIZE);
+                for (long i = from; i < Math.min(from + SEED_BATCH_SIZE, internalProducts); i++) {
+                    rows.add(Map.of(
+                            "internalId", String.format("LOAD_%09d", i),
+                            "gtin", gtin(i),
+                            "category", "Category " + i % CATEGORIES));
+                }
+                session.executeWriteWithoutResult(tx -> tx.run(SEED, Map.of("rows", rows)).consume());
+            }
+        }
+        log.info("Seeded {} InternalProducts in {} ms", internalProducts, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Write the feed. Matching products are spread evenly: product {@code r} matches when
+     * {@code floor((r + 1) * ratio)} moves past {@code floor(r * ratio)}, and then carries the GTIN of
+     * InternalProduct {@code r % internalProducts}. The others get GTINs no InternalProduct has.
+     */
+    static void writeFeed(Path feed, long products, long internalProducts, double matchRatio) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (OutputStream out = Files.newOutputStream(feed);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (long r = 0; r < products; r++) {
+                boolean matches = internalProducts > 0 && Math.floor((r + 1) * matchRatio) > Math.floor(r * matchRatio);
+                generator.writeStartObject();
+                generator.writeStringField("internalId", String.format("FEED_%09d", r));
+                generator.writeStringField("globalTradeIdentifier", matches ? gtin(r % internalProducts) : String.format("3%012d", r));
+                generator.writeArrayFieldStart("attributes");
+                attribute(generator, "Brand", "Brand " + r % 20);
+                attribute(generator, "Category", "Category " + r % CATEGORIES);
+                attribute(generator, "Color", "Color " + r % 8);
+                attribute(generator, "Weight", r % 1000 + " g");
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void attribute(JsonGenerator generator, String name, String value) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", name);
+        generator.writeStringField("value", value);
+        generator.writeEndObject();
+    }
+
+    private static String gtin(long internalProduct) {
+        return String.format("2%012d", internalProduct);
+    }
+}
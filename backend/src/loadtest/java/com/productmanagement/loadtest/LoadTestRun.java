@@ -0,0 +1,39 @@
+package com.productmanagement.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Measurements of one import of the load test feed.
+ */
+@Value
+@Builder
+class LoadTestRun {
+    int run;
+    long products;
+    long associated;
+    long unchanged;
+    long notAssociated;
+    long millis;
+    double productsPerSecond;
+    long boltRoundTrips;
+    double roundTripsPerProduct;
+    long chunksCommitted;
+    double averageBatchRows;
+    long writeTransactions;
+    double averageTransactionChanges;
+    long maxTransactionChanges;
+    long heapHighWaterMarkBytes;
+
+    String format() {
+        return String.format("run %d: %d products (%d associated, %d unchanged, %d not associated) in %.1f s, %.0f products/s%n" +
+                        "  Bolt round-trips: %d, %.3f per product%n" +
+                        "  transactions: %d chunks, %.0f rows per batch statement, %d write transactions, " +
+                        "%.0f changes on average, %d at most%n" +
+                        "  heap high-water mark: %d MB",
+                run, products, associated, unchanged, notAssociated, millis / 1000.0, productsPerSecond,
+                boltRoundTrips, roundTripsPerProduct,
+                chunksCommitted, averageBatchRows, writeTransactions, averageTransactionChanges, maxTransactionChanges,
+                heapHighWaterMarkBytes / (1024 * 1024));
+    }
+}
@@ -0,0 +1,246 @@
+package com.productmanagement.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.ProductManagementApplication;
+import com.productmanagement.dataprovider.ImportEngine;
+import com.productmanagement.dataprovider.ImportResult;
+import com.productmanagement.dataprovider.ImportSource;
+import com.productmanagement.dataprovider.JsonDataProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.neo4j.driver.Driver;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Read path load test: the blocking list endpoints and their reactive counterparts under the same
+ * concurrent load, against an in-process Neo4j.
+ * <p>
+ * Starts the database and the application with its web server on a free port and
+ * {@code product.reactive.enabled}, seeds InternalProducts and imports a feed of DataProviderProducts
+ * like the {@link ImportLoadTest}. Then each endpoint is called by a fixed number of clients in a closed
+ * loop, each requesting the page after a random cursor as soon as its previous response has arrived.
+ * Reported are requests/s, latency percentiles, errors and the most Tomcat request threads busy at once.
+ * <p>
+ * Options are passed as properties on the command line:
+ * <ul>
+ *   <li>{@code --loadtest.products=20000}: InternalProducts to seed and products in the feed</li>
+ *   <li>{@code --loadtest.concurrency=16,64,256}: concurrent clients, one measurement per value</li>
+ *   <li>{@code --loadtest.duration=20s}: length of each measurement, after a warmup of {@code --loadtest.warmup=5s}</li>
+ *   <li>{@code --loadtest.page-size=100}: {@code limit} of the requests</li>
+ *   <li>{@code --loadtest.background-import=false}: re-import the feed over and over while measuring,
+ *       so that the reads compete with an import for the database and the driver's connections</li>
+ *   <li>{@code --loadtest.report=target/read-path-result.json}: where the results are written as JSON</li>
+ * </ul>
+ * Application properties can be set the same way. Tomcat gets {@code server.tomcat.threads.max=32} request
+ * threads unless set otherwise, so that the blocking endpoints run out of them at moderate concurrency.
+ */
+@Slf4j
+public final class ReadPathLoadTest {
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(100);
+
+    private ReadPathLoadTest() {
+    }
+
+    /**
+     * A list endpoint and how to build a cursor into its key space from a product number.
+     */
+    @Value
+    private static class Endpoint {
+        String path;
+        boolean reactive;
+        LongFunction<String> cursor;
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (Neo4j neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build()) {
+            // System properties rank above application.yml and below the command line
+            System.setProperty("spring.neo4j.uri", neo4j.boltURI().toString());
+            System.setProperty("server.port", "0");
+            System.setProperty("server.tomcat.threads.max", "32");
+            System.setProperty("server.tomcat.mbeanregistry.enabled", "true");
+            System.setProperty("product.reactive.enabled", "true");
+            System.setProperty("logging.level.com.productmanagement", "INFO");
+            System.setProperty("logging.level.com.productmanagement.controller", "WARN");
+            System.setProperty("logging.level.org.springframework.data.neo4j", "WARN");
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductManagementApplication.class)
+                    .run(args)) {
+                Environment environment = context.getEnvironment();
+                long products = environment.getProperty("loadtest.products", Long.class, 20_000L);
+                int[] concurrencies = environment.getProperty("loadtest.concurrency", int[].class, new int[]{16, 64, 256});
+                Duration duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(20));
+                Duration warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(5));
+                int pageSize = environment.getProperty("loadtest.page-size", Integer.class, 100);
+                boolean backgroundImport = environment.getProperty("loadtest.background-import", Boolean.class, false);
+                Path reportFile = Path.of(environment.getProperty("loadtest.report", "target/read-path-result.json"));
+                URI base = URI.create("http://localhost:" + environment.getRequiredProperty("local.server.port"));
+
+                ImportLoadTest.seed(context.getBean(Driver.class), products);
+                ImportEngine engine = context.getBean(ImportEngine.class);
+                JsonDataProvider provider = context.getBean(JsonDataProvider.class);
+                Path feed = Files.createTempFile("loadtest-", ".json");
+                try {
+                    ImportLoadTest.writeFeed(feed, products, products, 0.8);
+                    importFeed(engine, provider, feed);
+
+                    String providerId = provider.getProviderId();
+                    List<Endpoint> endpoints = new ArrayList<>();
+                    for (boolean reactive : new boolean[]{false, true}) {
+                        String prefix = reactive ? "/api/reactive" : "/api";
+                        endpoints.add(new Endpoint(prefix + "/products", reactive,
+                                i -> cursor(String.format("LOAD_%09d", i))));
+                        endpoints.add(new Endpoint(prefix + "/dataprovider-products", reactive,
+                                i -> cursor(providerId, String.format("FEED_%09d", i))));
+                    }
+
+                    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    AtomicBoolean importing = new AtomicBoolean(backgroundImport);
+                    Thread importer = Thread.ofPlatform().name("loadtest-import").start(() -> {
+                        while (importing.get()) {
+                            importFeed(engine, provider, feed);
+                        }
+                    });
+
+                    List<ReadPathRun> results = new ArrayList<>();
+                    try {
+                        for (Endpoint endpoint : endpoints) {
+                            measure(client, base, endpoint, concurrencies[0], warmup, products, pageSize, registry);
+                        }
+                        for (int concurrency : concurrencies) {
+                            for (Endpoint endpoint : endpoints) {
+                                ReadPathRun measured = measure(client, base, endpoint, concurrency, duration,
+                                        products, pageSize, registry);
+                                results.add(measured);
+                                System.out.println(measured.format());
+                            }
+                        }
+                    } finally {
+                        importing.set(false);
+                        importer.join();
+                    }
+
+                    Map<String, Object> report = new LinkedHashMap<>();
+                    report.put("products", products);
+                    report.put("pageSize", pageSize);
+                    report.put("requestThreads", environment.getProperty("server.tomcat.threads.max"));
+                    report.put("driverConnections", environment.getProperty("spring.neo4j.pool.max-connection-pool-size", "100"));
+                    report.put("backgroundImport", backgroundImport);
+                    report.put("runs", results);
+                    if (reportFile.getParent() != null) {
+                        Files.createDirectories(reportFile.getParent());
+                    }
+                    context.getBean(ObjectMapper.class).writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+                    log.info("Results written to {}", reportFile);
+                } finally {
+                    Files.deleteIfExists(feed);
+                }
+            }
+        }
+    }
+
+    private static void importFeed(ImportEngine engine, JsonDataProvider provider, Path feed) {
+        ImportResult result = engine.importProducts(provider, ImportSource.of(feed));
+        if (result.isFailed()) {
+            throw new IllegalStateException("Import failed: " + result.getErrors());
+        }
+    }
+
+    /**
+     * Call the endpoint from {@code concurrency} clients for the given time, sampling the busy
+     * request threads meanwhile.
+     */
+    private static ReadPathRun measure(HttpClient client, URI base, Endpoint endpoint, int concurrency,
+                                       Duration duration, long products, int pageSize,
+                                       MeterRegistry registry) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        int peakBusyThreads = 0;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long product = ThreadLocalRandom.current().nextLong(products);
+                        HttpRequest request = HttpRequest.newBuilder(base.resolve(endpoint.getPath()
+                                + "?limit=" + pageSize + "&cursor=" + endpoint.getCursor().apply(product))).build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.recordValue((System.nanoTime() - sent) / 1000);
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+            Gauge busyThreads = registry.find("tomcat.threads.busy").gauge();
+            while (System.nanoTime() < deadline) {
+                if (busyThreads != null) {
+                    peakBusyThreads = Math.max(peakBusyThreads, (int) busyThreads.value());
+                }
+                Thread.sleep(SAMPLE_INTERVAL);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return ReadPathRun.builder()
+                .endpoint(endpoint.getPath())
+                .reactive(endpoint.isReactive())
+                .concurrency(concurrency)
+                .requests(latencies.getTotalCount())
+                .errors(errors.sum())
+                .requestsPerSecond(latencies.getTotalCount() / seconds)
+                .p50Millis(latencies.getValueAtPercentile(50) / 1000.0)
+                .p95Millis(latencies.getValueAtPercentile(95) / 1000.0)
+                .p99Millis(latencies.getValueAtPercentile(99) / 1000.0)
+                .maxMillis(latencies.getMaxValue() / 1000.0)
+                .peakBusyRequestThreads(peakBusyThreads)
+                .build();
+    }
+
+    /**
+     * Cursor of the keyset-paginated endpoints for the given sort key.
+     */
+    private static String cursor(String... key) {
+        byte[] bytes = String.join("\u0000", key).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,30 @@
+package com.productmanagement.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Measurements of one endpoint of the read path load test at one concurrency.
+ */
+@Value
+@Builder
+class ReadPathRun {
+    String endpoint;
+    boolean reactive;
+    int concurrency;
+    long requests;
+    long errors;
+    double requestsPerSecond;
+    double p50Millis;
+    double p95Millis;
+    double p99Millis;
+    double maxMillis;
+    int peakBusyRequestThreads;
+
+    String format() {
+        return String.format("%-40s %4d clients: %6d requests, %d errors, %7.0f requests/s, " +
+                        "latency p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms, %d request threads busy at most",
+                endpoint, concurrency, requests, errors, requestsPerSecond,
+                p50Millis, p95Millis, p99Millis, maxMillis, peakBusyRequestThreads);
+    }
+}
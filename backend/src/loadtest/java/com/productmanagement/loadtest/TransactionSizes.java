@@ -0,0 +1,57 @@
+package com.productmanagement.loadtest;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Size of the write transactions committed by the database, in changed entities: created and
+ * deleted nodes and relationships plus assigned and removed properties.
+ */
+class TransactionSizes extends TransactionEventListenerAdapter<Object> {
+
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final LongAccumulator maxChanges = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void afterCommit(TransactionData data, Object state, GraphDatabaseService databaseService) {
+        long size = count(data.createdNodes()) + count(data.deletedNodes())
+                + count(data.createdRelationships()) + count(data.deletedRelationships())
+                + count(data.assignedNodeProperties()) + count(data.removedNodeProperties())
+                + count(data.assignedRelationshipProperties()) + count(data.removedRelationshipProperties());
+        transactions.incrementAndGet();
+        changes.addAndGet(size);
+        maxChanges.accumulate(size);
+    }
+
+    long getTransactions() {
+        return transactions.get();
+    }
+
+    double getAverageChanges() {
+        long count = transactions.get();
+        return count > 0 ? (double) changes.get() / count : 0;
+    }
+
+    long getMaxChanges() {
+        return maxChanges.get();
+    }
+
+    void reset() {
+        transactions.set(0);
+        changes.set(0);
+        maxChanges.reset();
+    }
+
+    private static long count(Iterable<?> entities) {
+        long count = 0;
+        for (Object ignored : entities) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -2,10 +2,12 @@ package com.productmanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.neo4j.Neo4jReactiveRepositoriesAutoConfiguration;
 import org.springframework.data.neo4j.repository.config.EnableNeo4jRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
-@SpringBootApplication
+// Reactive repositories are only created with product.reactive.enabled, see ReactiveRepositoryConfiguration
+@SpringBootApplication(exclude = Neo4jReactiveRepositoriesAutoConfiguration.class)
 @EnableNeo4jRepositories
 @EnableTransactionManagement
 public class ProductManagementApplication {
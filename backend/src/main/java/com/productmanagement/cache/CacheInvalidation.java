@@ -0,0 +1,19 @@
+package com.productmanagement.cache;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Products to drop from the caches of all backend instances, by internalId and by GTIN.
+ */
+@Value
+public class CacheInvalidation {
+
+    /**
+     * Instance that sent the invalidation; it has applied it already.
+     */
+    String origin;
+    Set<String> internalIds;
+    Set<String> globalTradeIdentifiers;
+}
@@ -0,0 +1,22 @@
+package com.productmanagement.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between backend instances, so that each instance can keep a
+ * near cache of products that other instances change.
+ * Delivery may be delayed and repeated; applying an invalidation twice is harmless.
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * Send an invalidation to the other instances.
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Register a listener for invalidations. Listeners may also receive invalidations
+     * they published themselves and should ignore those by their origin.
+     */
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
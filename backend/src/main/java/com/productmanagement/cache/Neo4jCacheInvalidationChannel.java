@@ -0,0 +1,144 @@
+package com.productmanagement.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Exchanges invalidations between backend instances through the database, so that no
+ * additional infrastructure is needed. Each invalidation is written as a
+ * {@code :CacheInvalidation} node, and every instance polls for nodes created since its last poll.
+ * <p>
+ * Invalidations are written in their own auto-commit transaction after the change committed, so
+ * their creation times arrive nearly in order. Each poll re-reads an overlap window to catch
+ * stragglers and skips nodes it already delivered. Nodes older than
+ * {@link ProductCacheProperties#getInvalidationRetention()} are deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.invalidation-channel", havingValue = "neo4j")
+@Slf4j
+public class Neo4jCacheInvalidationChannel implements CacheInvalidationChannel, DisposableBean {
+
+    private static final String PUBLISH =
+            "CREATE (:CacheInvalidation {origin: $origin, internalIds: $internalIds, " +
+            "globalTradeIdentifiers: $globalTradeIdentifiers, createdAt: datetime.realtime()})";
+
+    private static final String POLL =
+            "MATCH (i:CacheInvalidation) " +
+            "WHERE i.createdAt > $since " +
+            "RETURN elementId(i) AS id, i.origin AS origin, i.internalIds AS internalIds, " +
+            "       i.globalTradeIdentifiers AS globalTradeIdentifiers, i.createdAt AS createdAt " +
+            "ORDER BY i.createdAt";
+
+    private static final String PURGE =
+            "MATCH (i:CacheInvalidation) " +
+            "WHERE i.createdAt < datetime.realtime() - $retention " +
+            "WITH i LIMIT 10000 " +
+            "DELETE i";
+
+    /**
+     * How far each poll looks back before the newest invalidation it has seen.
+     */
+    private static final Duration OVERLAP = Duration.ofSeconds(5);
+    private static final int POLLS_PER_PURGE = 60;
+
+    private final Driver driver;
+    private final ProductCacheProperties properties;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ZonedDateTime newestSeen;
+    private Map<String, ZonedDateTime> delivered = new HashMap<>();
+    private int polls;
+
+    public Neo4jCacheInvalidationChannel(Driver driver, ProductCacheProperties properties) {
+        this.driver = driver;
+        this.properties = properties;
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        try (Session session = driver.session()) {
+            session.run(PUBLISH, Map.of(
+                    "origin", invalidation.getOrigin(),
+                    "internalIds", List.copyOf(invalidation.getInternalIds()),
+                    "globalTradeIdentifiers", List.copyOf(invalidation.getGlobalTradeIdentifiers()))).consume();
+        }
+    }
+
+    /**
+     * Start polling with the first listener. Invalidations created before that are not delivered.
+     */
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        boolean first = listeners.isEmpty();
+        listeners.add(listener);
+        if (first) {
+            long interval = properties.getPollInterval().toMillis();
+            poller.scheduleWithFixedDelay(this::poll, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+    }
+
+    private void poll() {
+        try (Session session = driver.session()) {
+            if (newestSeen == null) {
+                newestSeen = session.run("RETURN datetime.realtime() AS now").single().get("now").asZonedDateTime();
+            }
+            ZonedDateTime since = newestSeen.minus(OVERLAP);
+            Map<String, ZonedDateTime> seen = new HashMap<>();
+            for (Record record : session.run(POLL, Map.of("since", since)).list()) {
+                String id = record.get("id").asString();
+                ZonedDateTime createdAt = record.get("createdAt").asZonedDateTime();
+                seen.put(id, createdAt);
+                if (createdAt.isAfter(newestSeen)) {
+                    newestSeen = createdAt;
+                }
+                if (!delivered.containsKey(id)) {
+                    deliver(new CacheInvalidation(
+                            record.get("origin").asString(),
+                            Set.copyOf(record.get("internalIds").asList(value -> value.asString())),
+                            Set.copyOf(record.get("globalTradeIdentifiers").asList(value -> value.asString()))));
+                }
+            }
+            delivered = seen;
+
+            if (++polls % POLLS_PER_PURGE == 0) {
+                session.run(PURGE, Map.of("retention", properties.getInvalidationRetention())).consume();
+            }
+        } catch (RuntimeException e) {
+            // Keep polling; the caches fall back to expire-after-write meanwhile.
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+}
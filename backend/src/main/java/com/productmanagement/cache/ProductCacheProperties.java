@@ -0,0 +1,54 @@
+package com.productmanagement.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the InternalProduct cache, bound from {@code product.cache.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "product.cache")
+@Data
+public class ProductCacheProperties {
+
+    /**
+     * Whether lookups by internalId and GTIN are cached. When disabled, every lookup queries the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound for the estimated heap size of the cached products, in bytes.
+     */
+    private long maximumWeight = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of cached GTIN to internalId mappings.
+     */
+    private long gtinMaximumSize = 1_000_000;
+
+    /**
+     * Entries are reloaded after this time even without an invalidation. Bounds how long an
+     * instance can serve a product changed by another instance whose invalidation it missed.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * How invalidations reach the other backend instances: {@code none} for a single instance,
+     * {@code neo4j} to exchange them through the database, or {@code in-process} to deliver
+     * them between caches in the same JVM.
+     */
+    private String invalidationChannel = "none";
+
+    /**
+     * How often the {@code neo4j} channel polls for invalidations of other instances.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long the {@code neo4j} channel keeps invalidations in the database.
+     */
+    private Duration invalidationRetention = Duration.ofMinutes(10);
+}
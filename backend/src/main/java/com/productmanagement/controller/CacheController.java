@@ -0,0 +1,32 @@
+package com.productmanagement.controller;
+
+import com.productmanagement.service.ProductCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:4200")
+public class CacheController {
+
+    private final ProductCache productCache;
+
+    /**
+     * Hit, miss and eviction counts of the product cache and its GTIN mapping since startup.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, ProductCache.Statistics>> getStatistics() {
+        log.info("GET /api/cache/stats - Getting cache statistics");
+        Map<String, ProductCache.Statistics> statistics = new LinkedHashMap<>();
+        statistics.put("products", productCache.getProductStatistics());
+        statistics.put("productsByGtin", productCache.getGtinStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+}
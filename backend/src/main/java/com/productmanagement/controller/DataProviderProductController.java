@@ -1,29 +1,67 @@
 package com.productmanagement.controller;
 
-import com.productmanagement.domain.DataProviderProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.repository.DataProviderProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ProductExportRepository;
 import com.productmanagement.service.DataProviderProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/dataprovider-products")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = KeysetPage.NEXT_CURSOR_HEADER)
 public class DataProviderProductController {
     
+    private static final Set<ProductExpansion> EXPANSIONS =
+            EnumSet.of(ProductExpansion.ATTRIBUTES, ProductExpansion.ASSOCIATED_PRODUCT);
+
     private final DataProviderProductService dataProviderProductService;
+    private final ProductExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
     
+    /**
+     * One page of data provider product summaries ordered by (dataProviderId, externalId).
+     * @param cursor value of the X-Next-Cursor header of the previous page; omit for the first page
+     * @param limit page size, capped at {@value KeysetPage#MAX_LIMIT}
+     * @param expand related data to include: {@code attributes}, {@code associatedProduct}
+     */
     @GetMapping
-    public ResponseEntity<List<DataProviderProduct>> getAllDataProviderProducts() {
-        log.info("GET /api/dataprovider-products - Getting all data provider products");
-        List<DataProviderProduct> products = dataProviderProductService.findAll();
-        log.info("Found {} data provider products", products.size());
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<DataProviderProductSummary>> getAllDataProviderProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        log.info("GET /api/dataprovider-products - Getting data provider products after cursor {}", cursor);
+        try {
+            String[] after = KeysetPage.decode(cursor, 2);
+            int pageSize = KeysetPage.limit(limit);
+            Set<ProductExpansion> expansions = ProductExpansion.parse(expand, EXPANSIONS);
+            List<DataProviderProductSummary> products =
+                    dataProviderProductService.findSummaryPage(after[0], after[1], pageSize, expansions);
+            return KeysetPage.response(products, pageSize,
+                    product -> KeysetPage.encode(product.getDataProviderId(), product.getExternalId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * All data provider products as NDJSON, streamed from the database without loading them into memory.
+     * The associated product is exported as its internalId.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDataProviderProducts() {
+        log.info("GET /api/dataprovider-products/export - Exporting all data provider products");
+        return NdjsonExport.of(objectMapper, exportRepository::exportDataProviderProducts);
     }
 }
 
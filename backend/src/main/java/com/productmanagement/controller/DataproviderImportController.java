@@ -1,49 +1,311 @@
 package com.productmanagement.controller;
 
+import com.productmanagement.dataprovider.Compression;
+import com.productmanagement.dataprovider.DataProvider;
+import com.productmanagement.dataprovider.ImportEngine;
+import com.productmanagement.dataprovider.ImportJob;
+import com.productmanagement.dataprovider.ImportJobService;
+import com.productmanagement.dataprovider.ImportJobStatus;
+import com.productmanagement.dataprovider.ImportProperties;
 import com.productmanagement.dataprovider.ImportResult;
-import com.productmanagement.dataprovider.JsonDataProvider;
-import lombok.RequiredArgsConstructor;
+import com.productmanagement.dataprovider.ImportSource;
+import com.productmanagement.dataprovider.ReconciliationWorker;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 /**
  * REST controller for importing products from data providers.
+ * Imports run as background jobs; the import endpoints return the job right away
+ * and its progress can be polled under {@code /jobs/{id}}.
  */
 @RestController
 @RequestMapping("/api/dataprovider/import")
-@RequiredArgsConstructor
 @Slf4j
 @CrossOrigin(origins = "http://localhost:4200")
 public class DataproviderImportController {
 
-    private final JsonDataProvider jsonDataProvider;
+    private static final DateTimeFormatter BULK_LOAD_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ImportEngine importEngine;
+    private final ImportJobService importJobService;
+    private final ImportProperties importProperties;
+    private final ReconciliationWorker reconciliationWorker;
+    private final Map<String, DataProvider<?>> providersByFormat;
+
+    public DataproviderImportController(ImportEngine importEngine,
+                                        ImportJobService importJobService,
+                                        ImportProperties importProperties,
+                                        ReconciliationWorker reconciliationWorker,
+                                        List<DataProvider<?>> providers) {
+        this.importEngine = importEngine;
+        this.importJobService = importJobService;
+        this.importProperties = importProperties;
+        this.reconciliationWorker = reconciliationWorker;
+        this.providersByFormat = new HashMap<>();
+        for (DataProvider<?> provider : providers) {
+            providersByFormat.put(provider.getFormat(), provider);
+        }
+    }
+
+    /**
+     * Start an import of products in one of the supported formats ({@code json}, {@code csv}, {@code bmecat}).
+     * Imports an uploaded file if {@code file} is given, files below the configured import directory if
+     * {@code path} is given, and the provider's sample data otherwise. A {@code path} naming a directory
+     * imports its files of the format, a glob such as {@code feeds/*.json.gz} the matching files; several
+     * files are imported as shards in parallel. gzip and zstd compressed input is detected.
+     * @return 202 with the queued job, 400 if the path matches no file, 404 for an unknown format,
+     * 429 if too many imports are queued
+     */
+    @PostMapping("/{format}")
+    public ResponseEntity<ImportJobStatus> importProducts(
+            @PathVariable String format,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "path", required = false) String path) throws IOException {
+        return submit(format, file, path, true, (provider, sources, result) -> {
+            if (sources.size() == 1) {
+                importEngine.importProducts(provider, sources.get(0), result);
+            } else {
+                importEngine.importShards(provider, sources, result);
+            }
+        });
+    }
 
     /**
-     * Import products from a JSON file.
-     * @return import result
+     * Import a feed sent as the request body, e.g. with
+     * {@code curl -H 'Content-Type: application/octet-stream' --data-binary @feed.json.gz}.
+     * The body is parsed while it arrives instead of being buffered like a multipart upload, so its
+     * size is not limited. The import runs as a job like the others, but the response is only sent
+     * once it finished. gzip and zstd compressed bodies are detected. The import cannot be resumed.
+     * @return 200 with the finished job, 404 for an unknown format, 429 if too many imports are queued
      */
-    @PostMapping("/json")
-    public ResponseEntity<ImportResult> importJson() {
-        log.info("Import request received for JSON data provider");
+    @PostMapping(value = "/{format}/stream", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<ImportJobStatus> importStream(@PathVariable String format, InputStream body)
+            throws InterruptedException {
+        DataProvider<?> provider = providersByFormat.get(format);
+        if (provider == null) {
+            return ResponseEntity.notFound().build();
+        }
+        log.info("Streamed import request received for {}", provider.getProviderId());
 
+        ImportJob job;
+        try {
+            job = importJobService.submit(provider.getProviderId(), "request body", -1,
+                    result -> importEngine.importProducts(provider, Compression.decompress(body), "request body", result),
+                    () -> { });
+        } catch (RejectedExecutionException e) {
+            log.warn("Import rejected, too many imports queued");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
         try {
-            ImportResult result = jsonDataProvider.importProducts();
+            // The body can only be read while the request is open
+            job.awaitFinished();
+        } catch (InterruptedException e) {
+            importJobService.cancel(job.getId());
+            throw e;
+        }
+        return ResponseEntity.ok()
+                .location(URI.create("/api/dataprovider/import/jobs/" + job.getId()))
+                .body(ImportJobStatus.of(job));
+    }
 
-            if (result.hasErrors()) {
-                log.warn("Import completed with errors: {}", result);
-                return ResponseEntity.status(207).body(result);
+    /**
+     * Start a bulk load: like an import, but the products are written together with all InternalProducts
+     * as CSV files for {@code neo4j-admin database import full}, in a new directory below the configured
+     * bulk load directory. The finished job's result names the arguments file to pass to neo4j-admin.
+     * Takes a single file only.
+     * @return 202 with the queued job, 400 if the path matches no or several files, 404 for an unknown format,
+     * 429 if too many imports are queued
+     */
+    @PostMapping("/{format}/bulk-load")
+    public ResponseEntity<ImportJobStatus> bulkLoad(
+            @PathVariable String format,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "path", required = false) String path) throws IOException {
+        return submit(format, file, path, false, (provider, sources, result) -> {
+            String name = provider.getProviderId() + "-" + LocalDateTime.now().format(BULK_LOAD_NAME);
+            Path outputDirectory = Path.of(importProperties.getBulkLoadDirectory()).resolve(name);
+            importEngine.bulkLoad(provider, sources.get(0), outputDirectory, result);
+        });
+    }
+
+    /**
+     * Work of a job on the resolved sources.
+     */
+    @FunctionalInterface
+    private interface SourceTask {
+        void run(DataProvider<?> provider, List<ImportSource> sources, ImportResult result);
+    }
+
+    private ResponseEntity<ImportJobStatus> submit(String format, MultipartFile file, String path,
+                                                   boolean shards, SourceTask task) throws IOException {
+        DataProvider<?> provider = providersByFormat.get(format);
+        if (provider == null) {
+            return ResponseEntity.notFound().build();
+        }
+        log.info("Import request received for {}", provider.getProviderId());
+
+        List<ImportSource> sources;
+        String sourceName;
+        long sourceSize;
+        Runnable cleanup = () -> { };
+        if (file != null && !file.isEmpty()) {
+            // The multipart file is deleted when the request ends, so keep a copy for the job.
+            Path spooled = Files.createTempFile("import-", provider.getFileExtension());
+            file.transferTo(spooled);
+            sources = List.of(ImportSource.of(spooled));
+            sourceName = "upload:" + file.getOriginalFilename();
+            sourceSize = sources.get(0).size();
+            cleanup = () -> deleteQuietly(spooled);
+        } else if (path != null && !path.isBlank()) {
+            List<Path> importFiles = resolveImportPaths(path, provider.getFileExtension());
+            if (importFiles.isEmpty() || (!shards && importFiles.size() > 1)) {
+                return ResponseEntity.badRequest().build();
+            }
+            sources = importFiles.stream().map(ImportSource::of).toList();
+            sourceName = importFiles.size() == 1
+                    ? importFiles.get(0).toString()
+                    : path + " (" + importFiles.size() + " shards)";
+            sourceSize = 0;
+            for (ImportSource source : sources) {
+                long size = source.size();
+                sourceSize = size < 0 || sourceSize < 0 ? -1 : sourceSize + size;
             }
+        } else {
+            sources = List.of(provider.getSampleSource());
+            sourceName = sources.get(0).getName();
+            sourceSize = sources.get(0).size();
+        }
 
-            log.info("Import successful: {}", result);
-            return ResponseEntity.ok(result);
+        try {
+            ImportJob job = importJobService.submit(provider.getProviderId(), sourceName, sourceSize,
+                    result -> task.run(provider, sources, result), cleanup);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/dataprovider/import/jobs/" + job.getId()))
+                    .body(ImportJobStatus.of(job));
+        } catch (RejectedExecutionException e) {
+            log.warn("Import rejected, too many imports queued");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Import failed", e);
-            ImportResult errorResult = new ImportResult();
-            errorResult.addError("Import failed: " + e.getMessage());
-            return ResponseEntity.status(500).body(errorResult);
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ImportJobStatus>> getJobs() {
+        return ResponseEntity.ok(importJobService.findAll().stream()
+                .map(ImportJobStatus::of)
+                .toList());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobStatus> getJob(@PathVariable String id) {
+        return importJobService.find(id)
+                .map(job -> ResponseEntity.ok(ImportJobStatus.of(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancel a queued or running import job.
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobStatus> cancelJob(@PathVariable String id) {
+        log.info("DELETE /api/dataprovider/import/jobs/{} - Cancelling import job", id);
+        if (!importJobService.cancel(id)) {
+            return importJobService.find(id)
+                    .map(job -> ResponseEntity.status(HttpStatus.CONFLICT).body(ImportJobStatus.of(job)))
+                    .orElse(ResponseEntity.notFound().build());
         }
+        return ResponseEntity.accepted().body(ImportJobStatus.of(importJobService.find(id).orElseThrow()));
+    }
+
+    /**
+     * Queue InternalProducts created or changed outside the application for reconciliation with
+     * the unassociated products; products saved through the application are queued automatically.
+     * @return 202, or 409 if reconciliation is disabled
+     */
+    @PostMapping("/reconciliation")
+    public ResponseEntity<Void> reconcile(@RequestBody List<String> internalIds) {
+        log.info("POST /api/dataprovider/import/reconciliation - Queueing {} products", internalIds.size());
+        return reconciliationWorker.enqueue(internalIds)
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * Resolve a client supplied path against the import directory: a file, the files of a directory
+     * whose names end in the format's extension (optionally followed by {@code .gz} or {@code .zst}),
+     * or the files matching a glob.
+     * @return the files in name order; empty if none exist or the path lies outside the import directory
+     */
+    private List<Path> resolveImportPaths(String path, String extension) throws IOException {
+        Path baseDirectory = Path.of(importProperties.getBaseDirectory()).toAbsolutePath().normalize();
+        if (isGlob(path)) {
+            // Only walk below the part of the pattern without wildcards
+            Path start = baseDirectory;
+            for (String segment : path.split("/")) {
+                if (isGlob(segment)) {
+                    break;
+                }
+                start = start.resolve(segment);
+            }
+            start = start.normalize();
+            if (!start.startsWith(baseDirectory) || !Files.isDirectory(start)) {
+                return List.of();
+            }
+            PathMatcher matcher = baseDirectory.getFileSystem().getPathMatcher("glob:" + path);
+            try (Stream<Path> files = Files.walk(start)) {
+                return files.filter(Files::isRegularFile)
+                        .filter(file -> matcher.matches(baseDirectory.relativize(file)))
+                        .sorted()
+                        .toList();
+            }
+        }
+
+        Path resolved = baseDirectory.resolve(path).normalize();
+        if (!resolved.startsWith(baseDirectory)) {
+            return List.of();
+        }
+        if (Files.isDirectory(resolved)) {
+            try (Stream<Path> files = Files.list(resolved)) {
+                return files.filter(Files::isRegularFile)
+                        .filter(file -> isFeedFile(file, extension))
+                        .sorted()
+                        .toList();
+            }
+        }
+        return Files.isRegularFile(resolved) ? List.of(resolved) : List.of();
     }
-}
 
+    private static boolean isGlob(String path) {
+        return path.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    private static boolean isFeedFile(Path file, String extension) {
+        String name = file.getFileName().toString();
+        return name.endsWith(extension) || name.endsWith(extension + ".gz") || name.endsWith(extension + ".zst");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", file, e.getMessage());
+        }
+    }
+}
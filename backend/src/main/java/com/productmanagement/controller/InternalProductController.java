@@ -1,29 +1,118 @@
 package com.productmanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.domain.DataProviderProduct;
 import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.repository.InternalProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ProductFacets;
+import com.productmanagement.repository.ProductFilter;
+import com.productmanagement.repository.ProductExportRepository;
+import com.productmanagement.service.DataProviderProductService;
 import com.productmanagement.service.InternalProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = KeysetPage.NEXT_CURSOR_HEADER)
 public class InternalProductController {
     
+    private static final Set<ProductExpansion> EXPANSIONS = EnumSet.of(ProductExpansion.ATTRIBUTES);
+
     private final InternalProductService productService;
+    private final DataProviderProductService dataProviderProductService;
+    private final ProductExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
     
+    /**
+     * One page of product summaries ordered by internalId.
+     * @param cursor value of the X-Next-Cursor header of the previous page; omit for the first page
+     * @param limit page size, capped at {@value KeysetPage#MAX_LIMIT}
+     * @param expand related data to include: {@code attributes}
+     */
     @GetMapping
-    public ResponseEntity<List<InternalProduct>> getAllProducts() {
-        log.info("GET /api/products - Getting all products");
-        List<InternalProduct> products = productService.findAll();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<InternalProductSummary>> getAllProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        log.info("GET /api/products - Getting products after cursor {}", cursor);
+        try {
+            String after = KeysetPage.decode(cursor, 1)[0];
+            int pageSize = KeysetPage.limit(limit);
+            Set<ProductExpansion> expansions = ProductExpansion.parse(expand, EXPANSIONS);
+            List<InternalProductSummary> products = productService.findSummaryPage(after, pageSize, expansions);
+            return KeysetPage.response(products, pageSize, product -> KeysetPage.encode(product.getInternalId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * All products as NDJSON, streamed from the database without loading them into memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        log.info("GET /api/products/export - Exporting all products");
+        return NdjsonExport.of(objectMapper, exportRepository::exportProducts);
     }
     
+    /**
+     * Products whose internalId or GTIN contains the term.
+     * @param limit maximum number of products, capped at {@value KeysetPage#MAX_LIMIT}
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<InternalProductSummary>> searchProducts(
+            @RequestParam("term") String term,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        log.info("GET /api/products/search - Searching products for term {}", term);
+        if (term.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ProductFilter filter = new ProductFilter();
+        filter.setTerm(term);
+        return filterProducts(filter, limit);
+    }
+
+    /**
+     * Products matching all criteria of the filter.
+     * @param limit maximum number of products, capped at {@value KeysetPage#MAX_LIMIT}
+     */
+    @PostMapping("/filter")
+    public ResponseEntity<List<InternalProductSummary>> filterProducts(
+            @RequestBody ProductFilter filter,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        log.info("POST /api/products/filter - Filtering products by {}", filter);
+        try {
+            return ResponseEntity.ok(productService.search(filter, KeysetPage.limit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Attribute value counts over the products matching the filter, for the attributes listed in
+     * {@code facets} or all attributes.
+     */
+    @PostMapping("/facets")
+    public ResponseEntity<ProductFacets> getFacets(@RequestBody ProductFilter filter) {
+        log.info("POST /api/products/facets - Counting facets for {}", filter);
+        try {
+            return ResponseEntity.ok(productService.findFacets(filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InternalProduct> getProduct(@PathVariable String id) {
         log.info("GET /api/products/{} - Getting product by ID", id);
@@ -31,4 +120,13 @@ public class InternalProductController {
                 .map(product -> ResponseEntity.ok(product))
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * The data provider products associated with a product, with their attributes.
+     */
+    @GetMapping("/{id}/dataprovider-products")
+    public ResponseEntity<List<DataProviderProduct>> getAssociatedDataProviderProducts(@PathVariable String id) {
+        log.info("GET /api/products/{}/dataprovider-products - Getting associated products", id);
+        return ResponseEntity.ok(dataProviderProductService.findByAssociatedProductId(id));
+    }
+}
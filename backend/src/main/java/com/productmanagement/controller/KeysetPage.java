@@ -0,0 +1,74 @@
+package com.productmanagement.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor and page size handling for the keyset-paginated list endpoints.
+ * <p>
+ * A page is a plain JSON array. If more rows may follow, the cursor for the next page is
+ * returned in the {@value #NEXT_CURSOR_HEADER} header. The cursor is the sort key of the
+ * last row, base64url-encoded so that clients treat it as opaque.
+ */
+final class KeysetPage {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private static final String SEPARATOR = "\u0000";
+
+    private KeysetPage() {
+    }
+
+    /**
+     * Page size to read: the requested size, capped at {@link #MAX_LIMIT}.
+     * @throws IllegalArgumentException if the requested size is not positive
+     */
+    static int limit(int requested) {
+        if (requested < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    static String encode(String... key) {
+        byte[] bytes = String.join(SEPARATOR, key).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decode a cursor into its key parts.
+     * @return {@code parts} empty strings if there is no cursor, which selects the first page
+     * @throws IllegalArgumentException if the cursor was not created by {@link #encode}
+     */
+    static String[] decode(String cursor, int parts) {
+        if (cursor == null || cursor.isEmpty()) {
+            String[] first = new String[parts];
+            Arrays.fill(first, "");
+            return first;
+        }
+        String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        if (key.length != parts) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return key;
+    }
+
+    /**
+     * Response for a page. A full page gets a next cursor; the page after it may be empty.
+     */
+    static <T> ResponseEntity<List<T>> response(List<T> page, int limit, Function<T, String> cursorOf) {
+        if (page.size() < limit) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)))
+                .body(page);
+    }
+}
@@ -0,0 +1,75 @@
+package com.productmanagement.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.productmanagement.repository.ProductExportRepository;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams exported rows as newline-delimited JSON, one object per line.
+ * Rows are serialized as the export hands them on; the response is flushed by the
+ * generator's buffer, not per row.
+ */
+final class NdjsonExport {
+
+    /**
+     * Rows per chunk of a reactive export, each written and flushed on its own.
+     */
+    private static final int ROWS_PER_CHUNK = 256;
+
+    /**
+     * Export that passes its rows to a handler.
+     */
+    @FunctionalInterface
+    interface Source {
+        long export(ProductExportRepository.RowHandler handler) throws IOException;
+    }
+
+    private NdjsonExport() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Source source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Lines are terminated explicitly instead of by the default space between root values.
+                generator.setRootValueSeparator(null);
+                source.export(row -> {
+                    writer.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Reactive export as chunks of NDJSON lines. The next chunk is only requested from the rows
+     * after the previous one has been written, so a slow client holds back the query.
+     */
+    static Flux<String> of(ObjectMapper objectMapper, Flux<?> rows) {
+        ObjectWriter writer = objectMapper.writer();
+        return rows.buffer(ROWS_PER_CHUNK).map(chunk -> {
+            StringBuilder lines = new StringBuilder();
+            for (Object row : chunk) {
+                try {
+                    lines.append(writer.writeValueAsString(row)).append('\n');
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return lines.toString();
+        });
+    }
+}
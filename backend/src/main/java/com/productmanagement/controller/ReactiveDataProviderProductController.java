@@ -0,0 +1,71 @@
+package com.productmanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.repository.DataProviderProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ReactiveProductExportRepository;
+import com.productmanagement.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reactive read path of {@link DataProviderProductController}, enabled by {@code product.reactive.enabled}.
+ */
+@RestController
+@RequestMapping("/api/reactive/dataprovider-products")
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = KeysetPage.NEXT_CURSOR_HEADER)
+public class ReactiveDataProviderProductController {
+
+    private static final Set<ProductExpansion> EXPANSIONS =
+            EnumSet.of(ProductExpansion.ATTRIBUTES, ProductExpansion.ASSOCIATED_PRODUCT);
+
+    private final ReactiveProductService productService;
+    private final ReactiveProductExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * One page of data provider product summaries ordered by (dataProviderId, externalId), as from
+     * {@link DataProviderProductController#getAllDataProviderProducts}.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<DataProviderProductSummary>>> getAllDataProviderProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        log.info("GET /api/reactive/dataprovider-products - Getting data provider products after cursor {}", cursor);
+        try {
+            String[] after = KeysetPage.decode(cursor, 2);
+            int pageSize = KeysetPage.limit(limit);
+            Set<ProductExpansion> expansions = ProductExpansion.parse(expand, EXPANSIONS);
+            return productService.findDataProviderSummaryPage(after[0], after[1], pageSize, expansions)
+                    .collectList()
+                    .map(products -> KeysetPage.response(products, pageSize,
+                            product -> KeysetPage.encode(product.getDataProviderId(), product.getExternalId())));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+    }
+
+    /**
+     * All data provider products as NDJSON, pulled from the database as fast as the client reads them.
+     * The associated product is exported as its internalId.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> exportDataProviderProducts() {
+        log.info("GET /api/reactive/dataprovider-products/export - Exporting all data provider products");
+        return NdjsonExport.of(objectMapper, exportRepository.exportDataProviderProducts());
+    }
+}
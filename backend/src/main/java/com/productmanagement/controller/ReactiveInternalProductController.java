@@ -0,0 +1,91 @@
+package com.productmanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.repository.InternalProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ReactiveProductExportRepository;
+import com.productmanagement.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reactive read path of {@link InternalProductController}, enabled by {@code product.reactive.enabled}.
+ * Requests are processed asynchronously: the request thread is released when the handler returns,
+ * and the response is written when the reactive driver has delivered the rows.
+ */
+@RestController
+@RequestMapping("/api/reactive/products")
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = KeysetPage.NEXT_CURSOR_HEADER)
+public class ReactiveInternalProductController {
+
+    private static final Set<ProductExpansion> EXPANSIONS = EnumSet.of(ProductExpansion.ATTRIBUTES);
+
+    private final ReactiveProductService productService;
+    private final ReactiveProductExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * One page of product summaries ordered by internalId, as from {@link InternalProductController#getAllProducts}.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<InternalProductSummary>>> getAllProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        log.info("GET /api/reactive/products - Getting products after cursor {}", cursor);
+        try {
+            String after = KeysetPage.decode(cursor, 1)[0];
+            int pageSize = KeysetPage.limit(limit);
+            Set<ProductExpansion> expansions = ProductExpansion.parse(expand, EXPANSIONS);
+            return productService.findSummaryPage(after, pageSize, expansions)
+                    .collectList()
+                    .map(products -> KeysetPage.response(products, pageSize,
+                            product -> KeysetPage.encode(product.getInternalId())));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+    }
+
+    /**
+     * All products as NDJSON, pulled from the database as fast as the client reads them.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> exportProducts() {
+        log.info("GET /api/reactive/products/export - Exporting all products");
+        return NdjsonExport.of(objectMapper, exportRepository.exportProducts());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<InternalProduct>> getProduct(@PathVariable String id) {
+        log.info("GET /api/reactive/products/{} - Getting product by ID", id);
+        return productService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The data provider products associated with a product, with their attributes. A JSON array, or
+     * with {@code Accept: application/x-ndjson} one product per line, written as the rows arrive.
+     */
+    @GetMapping(value = "/{id}/dataprovider-products",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DataProviderProduct> getAssociatedDataProviderProducts(@PathVariable String id) {
+        log.info("GET /api/reactive/products/{}/dataprovider-products - Getting associated products", id);
+        return productService.findAssociatedDataProviderProducts(id);
+    }
+}
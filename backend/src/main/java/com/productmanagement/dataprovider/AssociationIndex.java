@@ -0,0 +1,202 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.repository.InternalProductBatchRepository;
+import com.productmanagement.service.InternalProductSavedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory blocking indexes over all InternalProducts, which the association strategies answer
+ * from while an import is running instead of querying the database per row:
+ * <ul>
+ *   <li>GTIN to internalId, in a {@link GtinIndex}</li>
+ *   <li>normalized internalId to internalId, for feeds that carry our IDs</li>
+ *   <li>normalized part number to internalId, for BMEcat {@code MANUFACTURER_PID}s</li>
+ *   <li>a {@link TokenIndex} over the words of the fuzzy attributes</li>
+ * </ul>
+ * All of them are loaded by one paged scan when the first running import prepares them, so an
+ * additional strategy adds no round-trips, and dropped when the last import has finished.
+ * Saved InternalProducts are added to the GTIN and internalId indexes after commit; the part
+ * number and token indexes only pick them up with the next load.
+ * <p>
+ * The {@link ReconciliationWorker} builds separate {@linkplain #of indexes over a few products}
+ * and runs the strategies against those.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssociationIndex {
+
+    /**
+     * Value of a normalized identifier shared by several products, which therefore matches none.
+     */
+    private static final String AMBIGUOUS = new String("ambiguous");
+
+    private final InternalProductBatchRepository batchRepository;
+    private final AssociationProperties properties;
+
+    private final Object lock = new Object();
+    private volatile Indexes indexes;
+    private int activeImports;
+
+    /**
+     * The indexes of the running imports.
+     */
+    static class Indexes {
+
+        private final GtinIndex gtins = new GtinIndex();
+        private final Map<String, String> internalIds = new ConcurrentHashMap<>();
+        private final Map<String, String> partNumbers = new HashMap<>();
+        private TokenIndex tokens;
+
+        /**
+         * @return the internalId registered for the GTIN, or null
+         */
+        String findByGtin(String gtin) {
+            return gtins.get(gtin);
+        }
+
+        /**
+         * @return the internalId that normalizes to the same key, or null if none or several do
+         */
+        String findByInternalId(String id) {
+            String key = normalizeId(id);
+            if (key == null) {
+                return null;
+            }
+            return unique(internalIds.get(key));
+        }
+
+        /**
+         * @return the product with the part number, or null if none or several have it
+         */
+        String findByPartNumber(String partNumber) {
+            String key = normalizeId(partNumber);
+            return key != null ? unique(partNumbers.get(key)) : null;
+        }
+
+        /**
+         * @return the most similar product, or null
+         */
+        TokenIndex.Match findByTokens(String[] tokens, int maxBlockSize) {
+            return this.tokens.findBest(tokens, maxBlockSize);
+        }
+
+        private void add(InternalProductBatchRepository.ProductKeys keys, TokenIndex.Builder tokenBuilder) {
+            put(keys.getInternalId(), keys.getGlobalTradeIdentifier());
+            for (String partNumber : keys.getPartNumbers()) {
+                putUnique(partNumbers, partNumber, keys.getInternalId());
+            }
+            tokenBuilder.add(keys.getInternalId(), keys.getTexts());
+        }
+
+        private void put(String internalId, String gtin) {
+            if (gtin != null) {
+                gtins.put(gtin, internalId);
+            }
+            putUnique(internalIds, internalId, internalId);
+        }
+
+        private static void putUnique(Map<String, String> index, String identifier, String internalId) {
+            String key = normalizeId(identifier);
+            if (key != null) {
+                index.merge(key, internalId, (existing, added) -> existing.equals(added) ? existing : AMBIGUOUS);
+            }
+        }
+
+        private static String unique(String internalId) {
+            return internalId == AMBIGUOUS ? null : internalId;
+        }
+    }
+
+    /**
+     * Key for comparing IDs across systems: upper case, letters and digits only,
+     * so that {@code int-001} and {@code INT_001} are the same product.
+     * @return the key, or null if the ID has no letters or digits
+     */
+    static String normalizeId(String id) {
+        if (id == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(id.length());
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toUpperCase(c));
+            }
+        }
+        return key.isEmpty() ? null : key.toString();
+    }
+
+    /**
+     * The loaded indexes, or null if no import is running.
+     */
+    Indexes current() {
+        return indexes;
+    }
+
+    /**
+     * Load the indexes for the first running import; later imports and strategies share them.
+     * Each call that returns normally must be paired with a {@link #release()}.
+     */
+    void prepare() {
+        synchronized (lock) {
+            if (activeImports > 0) {
+                activeImports++;
+                return;
+            }
+            long start = System.nanoTime();
+            Indexes newIndexes = new Indexes();
+            TokenIndex.Builder tokens = new TokenIndex.Builder();
+            long count = batchRepository.forEachProductKeys(properties.getPartNumberAttribute(),
+                    properties.getFuzzyAttributes(), keys -> newIndexes.add(keys, tokens));
+            newIndexes.tokens = tokens.build();
+            indexes = newIndexes;
+            // Only counted once loaded: a failed load is not released, and the next import retries it
+            activeImports++;
+            log.info("Loaded association indexes of {} products in {} ms: {} GTINs, {} internal IDs, " +
+                            "{} part numbers, {} with words",
+                    count, (System.nanoTime() - start) / 1_000_000, newIndexes.gtins.size(),
+                    newIndexes.internalIds.size(), newIndexes.partNumbers.size(), newIndexes.tokens.size());
+        }
+    }
+
+    /**
+     * Drop the indexes once the last running import has finished.
+     */
+    void release() {
+        synchronized (lock) {
+            if (--activeImports == 0) {
+                indexes = null;
+            }
+        }
+    }
+
+    /**
+     * Indexes over the given products only, independent of those of the running imports.
+     */
+    Indexes of(Collection<InternalProductBatchRepository.ProductKeys> products) {
+        Indexes productIndexes = new Indexes();
+        TokenIndex.Builder tokens = new TokenIndex.Builder();
+        for (InternalProductBatchRepository.ProductKeys keys : products) {
+            productIndexes.add(keys, tokens);
+        }
+        productIndexes.tokens = tokens.build();
+        return productIndexes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInternalProductSaved(InternalProductSavedEvent event) {
+        Indexes currentIndexes = indexes;
+        if (currentIndexes != null) {
+            currentIndexes.put(event.getInternalId(), event.getGlobalTradeIdentifier());
+        }
+    }
+}
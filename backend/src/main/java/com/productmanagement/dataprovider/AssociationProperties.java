@@ -0,0 +1,41 @@
+package com.productmanagement.dataprovider;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Configuration of the association strategies, bound from {@code dataprovider.association.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "dataprovider.association")
+@Data
+public class AssociationProperties {
+
+    /**
+     * InternalProduct attribute holding the part number under which BMEcat catalogs list the
+     * product as {@code MANUFACTURER_PID}, used by the {@link ManufacturerPidAssociationStrategy}.
+     */
+    private String partNumberAttribute = "distributorId";
+
+    /**
+     * Attributes whose words are compared by the fuzzy {@link AttributeAssociationStrategy}, on both
+     * the imported and the internal products. Names are compared case-insensitively. Leave empty
+     * to disable fuzzy matching and skip loading its index.
+     */
+    private List<String> fuzzyAttributes = List.of(AttributeNames.BRAND, AttributeNames.DESCRIPTION, AttributeNames.MODEL);
+
+    /**
+     * Share of words two products must have in common (Jaccard similarity) for a fuzzy match.
+     * The similarity is stored as the confidence of the match.
+     */
+    private double fuzzyMinConfidence = 0.75;
+
+    /**
+     * Words used by more internal products than this, such as a common brand, are not used to
+     * find candidates for a fuzzy match, but still count towards the similarity.
+     */
+    private int fuzzyMaxBlockSize = 1000;
+}
@@ -1,6 +1,5 @@
 package com.productmanagement.dataprovider;
 
-import com.productmanagement.domain.InternalProduct;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -8,21 +7,29 @@ import java.util.Optional;
 
 /**
  * Result of an association attempt between a DataProviderProduct and an InternalProduct.
- * Contains the matched InternalProduct (if found) and the name of the strategy that found the match.
+ * Contains the internalId of the matched InternalProduct (if found), the name of the strategy that found the match
+ * and its confidence.
  */
 @Getter
 @AllArgsConstructor
 public class AssociationResult {
-    
 
-    private final Optional<InternalProduct> internalProduct;
+    /**
+     * No strategy found a match.
+     */
+    public static final AssociationResult NONE = new AssociationResult(Optional.empty(), null, 0);
+
+    private final Optional<String> internalId;
     
 
     private final String strategyName;
-    
+
+    /**
+     * How certain the strategy is of the match, from 0 to 1.
+     */
+    private final double confidence;
 
     public boolean hasMatch() {
-        return internalProduct.isPresent();
+        return internalId.isPresent();
     }
 }
-
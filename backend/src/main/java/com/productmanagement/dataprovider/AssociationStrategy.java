@@ -3,7 +3,6 @@ package com.productmanagement.dataprovider;
 import com.productmanagement.domain.DataProviderProduct;
 import com.productmanagement.domain.InternalProduct;
 
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,5 +15,58 @@ public interface AssociationStrategy {
     
 
     String getName();
-}
 
+    /**
+     * Find the internalId of the matching product without loading its graph.
+     * Imports call this per row and fetch the matched products in bulk afterwards.
+     */
+    default Optional<String> findMatchingInternalId(DataProviderProduct externalProduct) {
+        return findMatch(externalProduct).map(InternalProduct::getInternalId);
+    }
+
+    /**
+     * Confidence of a match found by this strategy, from 0 to 1.
+     */
+    default double getConfidence() {
+        return 1.0;
+    }
+
+    /**
+     * Associate a product during an import: the match and its confidence.
+     * Strategies that score each match override this.
+     */
+    default AssociationResult associate(DataProviderProduct externalProduct) {
+        Optional<String> internalId = findMatchingInternalId(externalProduct);
+        return internalId.isPresent()
+                ? new AssociationResult(internalId, getName(), getConfidence())
+                : AssociationResult.NONE;
+    }
+
+    /**
+     * Associate a product against the given indexes instead of those of the running imports,
+     * as the {@link ReconciliationWorker} does. Strategies that do not use the indexes associate as usual.
+     */
+    default AssociationResult associate(DataProviderProduct externalProduct, AssociationIndex.Indexes indexes) {
+        return associate(externalProduct);
+    }
+
+    /**
+     * Check that a product found by {@link #findMatchingInternalId} still matches once loaded.
+     * Strategies answering from in-memory state use this to detect stale entries.
+     */
+    default boolean stillMatches(DataProviderProduct externalProduct, InternalProduct candidate) {
+        return true;
+    }
+
+    /**
+     * Called before an import starts, to build import-scoped state.
+     */
+    default void prepare() {
+    }
+
+    /**
+     * Called after an import finished, to release import-scoped state.
+     */
+    default void release() {
+    }
+}
@@ -0,0 +1,103 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.service.InternalProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fuzzy association strategy, tried last: matches the words of the configured attributes, such as
+ * Brand and Description, against those of the InternalProducts. The most similar product matches
+ * if its Jaccard similarity reaches {@code dataprovider.association.fuzzy-min-confidence} and no
+ * other product is as similar; the similarity is the confidence of the match.
+ * <p>
+ * Only available while an import is running or the {@link ReconciliationWorker} passes indexes,
+ * since it needs the token index of the {@link AssociationIndex}.
+ */
+@Component
+@Order(4)
+@RequiredArgsConstructor
+public class AttributeAssociationStrategy implements AssociationStrategy {
+
+    private final InternalProductService productService;
+    private final AssociationIndex associationIndex;
+    private final AssociationProperties properties;
+
+    @Override
+    public Optional<InternalProduct> findMatch(DataProviderProduct externalProduct) {
+        return findMatchingInternalId(externalProduct).flatMap(productService::findById);
+    }
+
+    @Override
+    public Optional<String> findMatchingInternalId(DataProviderProduct externalProduct) {
+        TokenIndex.Match match = findBest(externalProduct, associationIndex.current());
+        return match != null ? Optional.of(match.getInternalId()) : Optional.empty();
+    }
+
+    @Override
+    public AssociationResult associate(DataProviderProduct externalProduct) {
+        return associate(externalProduct, associationIndex.current());
+    }
+
+    @Override
+    public AssociationResult associate(DataProviderProduct externalProduct, AssociationIndex.Indexes indexes) {
+        TokenIndex.Match match = findBest(externalProduct, indexes);
+        return match != null
+                ? new AssociationResult(Optional.of(match.getInternalId()), getName(), match.getScore())
+                : AssociationResult.NONE;
+    }
+
+    @Override
+    public double getConfidence() {
+        return properties.getFuzzyMinConfidence();
+    }
+
+    private TokenIndex.Match findBest(DataProviderProduct externalProduct, AssociationIndex.Indexes indexes) {
+        if (indexes == null || properties.getFuzzyAttributes().isEmpty()) {
+            return null;
+        }
+        List<String> texts = new ArrayList<>();
+        for (DataProviderAttribute attribute : externalProduct.getAttributes()) {
+            if (isFuzzyAttribute(attribute.getName())) {
+                texts.add(attribute.getValue());
+            }
+        }
+        String[] tokens = TokenIndex.tokenize(texts);
+        if (tokens.length == 0) {
+            return null;
+        }
+        TokenIndex.Match match = indexes.findByTokens(tokens, properties.getFuzzyMaxBlockSize());
+        return match != null && match.getScore() >= properties.getFuzzyMinConfidence() ? match : null;
+    }
+
+    private boolean isFuzzyAttribute(String name) {
+        for (String fuzzyAttribute : properties.getFuzzyAttributes()) {
+            if (fuzzyAttribute.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void prepare() {
+        associationIndex.prepare();
+    }
+
+    @Override
+    public void release() {
+        associationIndex.release();
+    }
+
+    @Override
+    public String getName() {
+        return "Attributes";
+    }
+}
@@ -0,0 +1,50 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process intern cache for the attributes of one import.
+ * Feeds repeat the same (name, value) pairs across many products, such as {@code Brand=Samsung}.
+ * Replacing them with one canonical instance keeps only one copy of each pair in the batches and
+ * queues of the import. Safe to use from the normalize workers concurrently.
+ * <p>
+ * The cache stops growing at its maximum size. Pairs that arrive after that are kept as they are,
+ * so that a high-cardinality attribute, such as a serial number, cannot fill the heap.
+ */
+class AttributeInterner {
+
+    private final Map<DataProviderAttribute, DataProviderAttribute> canonical = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    AttributeInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The canonical instance of a (name, value) pair.
+     * The pair is looked up with a probe owned by the calling worker, so a pair that is already
+     * cached costs no allocation.
+     * @param probe mutable attribute of the caller, overwritten by the lookup
+     */
+    DataProviderAttribute intern(String name, String value, DataProviderAttribute probe) {
+        probe.setName(name);
+        probe.setValue(value);
+        DataProviderAttribute existing = canonical.get(probe);
+        if (existing != null) {
+            return existing;
+        }
+        DataProviderAttribute attribute = new DataProviderAttribute(null, name, value);
+        if (canonical.size() >= maxSize) {
+            return attribute;
+        }
+        existing = canonical.putIfAbsent(attribute, attribute);
+        return existing != null ? existing : attribute;
+    }
+
+    int size() {
+        return canonical.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.productmanagement.dataprovider;
+
+import java.util.Map;
+
+/**
+ * The small vocabulary of attribute names that nearly every feed uses.
+ * Normalizing replaces these names with one canonical instance, so the products of an import
+ * share them and well-known attributes can be recognized by identity before falling back to
+ * a case-insensitive comparison.
+ */
+final class AttributeNames {
+
+    static final String CATEGORY = "Category";
+    static final String BRAND = "Brand";
+    static final String COLOR = "Color";
+    static final String DESCRIPTION = "Description";
+    static final String MODEL = "Model";
+    static final String SIZE = "Size";
+    static final String WEIGHT = "Weight";
+    static final String MATERIAL = "Material";
+
+    private static final Map<String, String> VOCABULARY = Map.of(
+            CATEGORY, CATEGORY,
+            BRAND, BRAND,
+            COLOR, COLOR,
+            DESCRIPTION, DESCRIPTION,
+            MODEL, MODEL,
+            SIZE, SIZE,
+            WEIGHT, WEIGHT,
+            MATERIAL, MATERIAL);
+
+    private AttributeNames() {
+    }
+
+    /**
+     * The canonical instance of a well-known name, or the name itself.
+     */
+    static String canonical(String name) {
+        String known = VOCABULARY.get(name);
+        return known != null ? known : name;
+    }
+
+    /**
+     * Whether the attribute is the Category, which imports map to the InternalProduct. Case-insensitive.
+     */
+    static boolean isCategory(String name) {
+        return name == CATEGORY || CATEGORY.equalsIgnoreCase(name);
+    }
+}
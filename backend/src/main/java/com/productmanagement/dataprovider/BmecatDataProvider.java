@@ -0,0 +1,223 @@
+package com.productmanagement.dataprovider;
+
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Data provider for importing products from BMEcat 2005 XML catalogs.
+ * <p>
+ * The catalog is pulled with StAX one {@code PRODUCT} element at a time, so memory usage
+ * does not depend on the catalog size. {@code SUPPLIER_PID} becomes the external ID,
+ * {@code INTERNATIONAL_PID} (or the non-standard {@code GTIN}/{@code EAN} elements) the
+ * GTIN, and every {@code FEATURE} with a name and a value a {@link DataProviderAttribute}.
+ * <p>
+ * Catalogs are not always well-formed. A {@code PRODUCT} starting before the previous one
+ * was closed ends the previous one. A syntax error ends the catalog: it is reported as an
+ * erroneous record and everything read before it is kept.
+ * <p>
+ * Local catalogs are split before top-level {@code PRODUCT} elements and the splits parsed in parallel.
+ */
+@Component
+public class BmecatDataProvider implements SplittableDataProvider<BmecatDataProvider.ProductElement> {
+
+    private static final String PROVIDER_ID = "BmecatDataProvider";
+    private static final String SAMPLE_DATA_PATH = "sample-data/products-150.xml";
+    private static final String PRODUCT = "PRODUCT";
+
+    private final XMLInputFactory inputFactory;
+
+    public BmecatDataProvider() {
+        // Aalto instead of the JDK default parser: about 1.6x the throughput on catalogs.
+        inputFactory = new InputFactoryImpl();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * A {@code PRODUCT} element as read from the catalog, before validation.
+     */
+    public static class ProductElement {
+        String supplierPid;
+        String gtin;
+        String manufacturerPid;
+        String description;
+        final List<String[]> features = new ArrayList<>();
+        String error;
+    }
+
+    @Override
+    public String getProviderId() {
+        return PROVIDER_ID;
+    }
+
+    @Override
+    public String getFormat() {
+        return "bmecat";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".xml";
+    }
+
+    @Override
+    public ImportSource getSampleSource() {
+        return ImportSource.ofClasspath(SAMPLE_DATA_PATH);
+    }
+
+    /**
+     * Stream the catalog and pass each {@code PRODUCT} element on.
+     * @param skip number of leading products to skip without building records
+     * @return number of characters read
+     */
+    @Override
+    public long read(InputStream inputStream, long skip, ImportPipeline.Sink<ProductElement> sink) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        try {
+            readProducts(reader, skip, sink, LongUnaryOperator.identity());
+        } finally {
+            reader.close();
+        }
+        return offset(reader);
+    }
+
+    @Override
+    public FeedSplitter splitter(long splitSize) {
+        return new XmlFeedSplitter(PRODUCT, splitSize);
+    }
+
+    @Override
+    public boolean readSplit(FeedSplit split, InputStream input, ImportPipeline.Sink<ProductElement> sink)
+            throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(input);
+        try {
+            return readProducts(reader, 0, sink, split::fileOffset);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Pass each {@code PRODUCT} element on.
+     * @param offsets maps offsets in the input to offsets in the file
+     * @return false if a syntax error ended the catalog
+     */
+    private boolean readProducts(XMLStreamReader reader, long skip, ImportPipeline.Sink<ProductElement> sink,
+                                 LongUnaryOperator offsets) {
+        long index = 0;
+        ProductElement current = null;
+        String featureName = null;
+        String featureValue = null;
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (PRODUCT.equals(element)) {
+                        if (current != null) {
+                            // Previous PRODUCT was not closed; treat this one as its end.
+                            sink.accept(current, offsets.applyAsLong(offset(reader)));
+                        }
+                        current = index++ < skip ? null : new ProductElement();
+                        continue;
+                    }
+                    if (current == null) {
+                        continue;
+                    }
+                    switch (element) {
+                        case "SUPPLIER_PID" -> current.supplierPid = text(reader);
+                        case "INTERNATIONAL_PID", "GTIN", "EAN" -> current.gtin = text(reader);
+                        case "MANUFACTURER_PID" -> current.manufacturerPid = text(reader);
+                        case "DESCRIPTION_SHORT" -> current.description = text(reader);
+                        case "FEATURE" -> {
+                            featureName = null;
+                            featureValue = null;
+                        }
+                        case "FNAME" -> featureName = text(reader);
+                        case "FVALUE" -> featureValue = text(reader);
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (current != null && "FEATURE".equals(element)) {
+                        current.features.add(new String[]{featureName, featureValue});
+                    } else if (PRODUCT.equals(element) && current != null) {
+                        sink.accept(current, offsets.applyAsLong(offset(reader)));
+                        current = null;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            long offset = offsets.applyAsLong(offset(reader));
+            if (current != null) {
+                sink.accept(current, offset);
+            }
+            ProductElement broken = new ProductElement();
+            broken.error = "malformed catalog, stopped reading at byte " + offset + ": " + withoutLocation(e);
+            sink.accept(broken, offset);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Turn a {@code PRODUCT} element into a DataProviderProduct.
+     */
+    @Override
+    public DataProviderProduct normalize(ProductElement product, ProductBuffer buffer) {
+        if (product.error != null) {
+            throw new IllegalArgumentException(product.error);
+        }
+        if (isBlank(product.supplierPid)) {
+            throw new IllegalArgumentException("missing SUPPLIER_PID");
+        }
+
+        buffer.clear();
+        if (!isBlank(product.description)) {
+            buffer.attribute(AttributeNames.DESCRIPTION, product.description);
+        }
+        for (String[] feature : product.features) {
+            // Features without a name or a value carry no information.
+            if (!isBlank(feature[0]) && !isBlank(feature[1])) {
+                buffer.attribute(feature[0], feature[1]);
+            }
+        }
+
+        return buffer.build(product.supplierPid,
+                isBlank(product.gtin) ? null : product.gtin,
+                isBlank(product.manufacturerPid) ? null : product.manufacturerPid);
+    }
+
+    private static String text(XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    /**
+     * The parser's message without its line and column, which are relative to the split when reading one.
+     */
+    private static String withoutLocation(XMLStreamException e) {
+        String message = String.valueOf(e.getMessage());
+        int location = message.indexOf("\n at [row,col");
+        return location >= 0 ? message.substring(0, location) : message;
+    }
+
+    private static long offset(XMLStreamReader reader) {
+        return Math.max(0, reader.getLocation().getCharacterOffset());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
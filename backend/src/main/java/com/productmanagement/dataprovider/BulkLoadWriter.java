@@ -0,0 +1,279 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProductAttribute;
+import com.productmanagement.repository.InternalProductBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write stage of a bulk load: writes the products of a feed, together with all InternalProducts,
+ * as CSV files for {@code neo4j-admin database import full}, which builds a new database offline
+ * much faster than transactional writes.
+ * <p>
+ * Records are written as they arrive, so memory does not grow with the feed. Only the Category each
+ * InternalProduct takes over from its associated products is kept, until the InternalProducts are
+ * paged from the database and written by {@link #finish()}.
+ * <p>
+ * The files hold the graph an online import of the feed into the source database would produce,
+ * with one attribute node per product as without {@code dataprovider.import.shared-attributes}.
+ * DataProviderProducts already in the source database are not written. External IDs must be unique
+ * within the feed: neo4j-admin rejects duplicate node IDs, where an online import lets the last
+ * record win.
+ * <p>
+ * Not thread-safe: one instance serves the write stage of a single bulk load.
+ */
+@Slf4j
+public class BulkLoadWriter implements RecordWriter, Closeable {
+
+    static final String INTERNAL_PRODUCTS = "internal-products.csv";
+    static final String INTERNAL_PRODUCT_ATTRIBUTES = "internal-product-attributes.csv";
+    static final String HAS_ATTRIBUTE = "has-attribute.csv";
+    static final String DATAPROVIDER_PRODUCTS = "dataprovider-products.csv";
+    static final String DATAPROVIDER_ATTRIBUTES = "dataprovider-attributes.csv";
+    static final String HAS_DATAPROVIDERATTRIBUTE = "has-dataprovider-attribute.csv";
+    static final String ASSOCIATED_WITH = "associated-with.csv";
+
+    /**
+     * Options for {@code neo4j-admin database import full}, one per line, for use as {@code @import.args}.
+     */
+    static final String ARGUMENTS = "import.args";
+
+    private final InternalProductBatchRepository productRepository;
+    private final String providerId;
+    private final Path directory;
+    private final ImportResult result;
+    private final LocalDateTime timestamp = LocalDateTime.now();
+
+    private final CsvFile dataProviderProducts;
+    private final CsvFile dataProviderAttributes;
+    private final CsvFile hasDataProviderAttribute;
+    private final CsvFile associatedWith;
+    private final List<CsvFile> files = new ArrayList<>();
+
+    /**
+     * Category each associated InternalProduct takes over; the last associated product wins.
+     */
+    private final Map<String, String> categories = new HashMap<>();
+    private long attributeIds;
+
+    /**
+     * @param directory where the files are written; created if missing, existing files are replaced
+     */
+    public BulkLoadWriter(InternalProductBatchRepository productRepository, String providerId,
+                          Path directory, ImportResult result) throws IOException {
+        this.productRepository = productRepository;
+        this.providerId = providerId;
+        this.directory = Files.createDirectories(directory);
+        this.result = result;
+        this.dataProviderProducts = open(DATAPROVIDER_PRODUCTS,
+                ":ID(DataProviderProduct),dataProviderId,externalId,globalTradeIdentifier,manufacturerPid,contentHash," +
+                "importedAt:localdatetime,lastUpdatedAt:localdatetime,associationStrategy,associationConfidence:double," +
+                "unassociatedSince:localdatetime,unassociatedIdKey,unassociatedPartNumberKey");
+        this.dataProviderAttributes = open(DATAPROVIDER_ATTRIBUTES, ":ID(DataproviderAttribute),name,value");
+        this.hasDataProviderAttribute = open(HAS_DATAPROVIDERATTRIBUTE,
+                ":START_ID(DataProviderProduct),:END_ID(DataproviderAttribute)");
+        this.associatedWith = open(ASSOCIATED_WITH, ":START_ID(DataProviderProduct),:END_ID(InternalProduct)");
+    }
+
+    @Override
+    public void write(ImportPipeline.Item<?> item) {
+        result.recordProcessed(item.getEndOffset());
+        if (item.getError() != null) {
+            result.addError("Product processing failed: " + item.getError());
+            return;
+        }
+        result.incrementTotal();
+
+        DataProviderProduct product = item.getProduct();
+        AssociationResult association = item.getAssociation();
+        String id = product.getExternalId();
+        try {
+            if (association.hasMatch()) {
+                String internalId = association.getInternalId().get();
+                dataProviderProducts.row(id, providerId, product.getExternalId(), product.getGlobalTradeIdentifier(),
+                        product.getManufacturerPid(), product.getContentHash(), timestamp, timestamp,
+                        association.getStrategyName(), association.getConfidence(), null, null, null);
+                associatedWith.row(id, internalId);
+                if (product.getCategory() != null) {
+                    categories.put(internalId, product.getCategory());
+                }
+                result.incrementAssociated();
+            } else {
+                dataProviderProducts.row(id, providerId, product.getExternalId(), product.getGlobalTradeIdentifier(),
+                        product.getManufacturerPid(), product.getContentHash(), timestamp, timestamp,
+                        null, null, timestamp, AssociationIndex.normalizeId(product.getExternalId()),
+                        AssociationIndex.normalizeId(product.getManufacturerPid()));
+                result.incrementNotAssociated();
+            }
+            for (DataProviderAttribute attribute : product.getAttributes()) {
+                long attributeId = attributeIds++;
+                dataProviderAttributes.row(attributeId, attribute.getName(), attribute.getValue());
+                hasDataProviderAttribute.row(id, attributeId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write all InternalProducts with the Categories mapped from the feed, close the files and
+     * write the {@link #ARGUMENTS} for neo4j-admin.
+     */
+    @Override
+    public void finish() throws IOException {
+        try (CsvFile internalProducts = open(INTERNAL_PRODUCTS, "internalId:ID(InternalProduct),globalTradeId");
+             CsvFile attributes = open(INTERNAL_PRODUCT_ATTRIBUTES, ":ID(InternalProductAttribute),name,value");
+             CsvFile hasAttribute = open(HAS_ATTRIBUTE, ":START_ID(InternalProduct),:END_ID(InternalProductAttribute)")) {
+            long count = productRepository.forEachProduct(product -> {
+                try {
+                    internalProducts.row(product.getInternalId(), product.getGlobalTradeIdentifier());
+                    for (InternalProductAttribute attribute : withCategory(product.getAttributes(),
+                            categories.get(product.getInternalId()))) {
+                        long attributeId = attributeIds++;
+                        attributes.row(attributeId, attribute.getName(), attribute.getValue());
+                        hasAttribute.row(product.getInternalId(), attributeId);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Wrote {} InternalProducts, {} of them with a Category from the feed", count, categories.size());
+        }
+        close();
+        writeArguments();
+    }
+
+    /**
+     * The attributes of an InternalProduct after the Category mapping of an online import: a different
+     * Category replaces all existing ones, the same as the first one leaves the attributes as they are.
+     */
+    static List<InternalProductAttribute> withCategory(List<InternalProductAttribute> attributes, String category) {
+        if (category == null) {
+            return attributes;
+        }
+        List<InternalProductAttribute> mapped = new ArrayList<>(attributes.size() + 1);
+        boolean first = true;
+        for (InternalProductAttribute attribute : attributes) {
+            if (AttributeNames.isCategory(attribute.getName())) {
+                if (first && category.equals(attribute.getValue())) {
+                    return attributes;
+                }
+                first = false;
+            } else {
+                mapped.add(attribute);
+            }
+        }
+        mapped.add(InternalProductAttribute.of(AttributeNames.CATEGORY, category));
+        return mapped;
+    }
+
+    private void writeArguments() throws IOException {
+        boolean multiline = files.stream().anyMatch(file -> file.multiline);
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--nodes=InternalProduct=" + path(INTERNAL_PRODUCTS));
+        arguments.add("--nodes=InternalProductAttribute=" + path(INTERNAL_PRODUCT_ATTRIBUTES));
+        arguments.add("--nodes=DataProviderProduct=" + path(DATAPROVIDER_PRODUCTS));
+        arguments.add("--nodes=DataproviderAttribute=" + path(DATAPROVIDER_ATTRIBUTES));
+        arguments.add("--relationships=HAS_ATTRIBUTE=" + path(HAS_ATTRIBUTE));
+        arguments.add("--relationships=HAS_DATAPROVIDERATTRIBUTE=" + path(HAS_DATAPROVIDERATTRIBUTE));
+        arguments.add("--relationships=ASSOCIATED_WITH=" + path(ASSOCIATED_WITH));
+        if (multiline) {
+            // Values with line breaks; slower, since the files cannot be split for parallel parsing
+            arguments.add("--multiline-fields=true");
+        }
+        Path argumentsFile = directory.resolve(ARGUMENTS);
+        Files.write(argumentsFile, arguments, StandardCharsets.UTF_8);
+        result.setBulkLoadArguments(argumentsFile.toAbsolutePath().toString());
+        log.info("Bulk load files written to {}; import them with: neo4j-admin database import full @{} <database>",
+                directory, argumentsFile.toAbsolutePath());
+    }
+
+    private String path(String file) {
+        return directory.resolve(file).toAbsolutePath().toString();
+    }
+
+    private CsvFile open(String name, String header) throws IOException {
+        CsvFile file = new CsvFile(Files.newBufferedWriter(directory.resolve(name), StandardCharsets.UTF_8));
+        file.writer.write(header);
+        file.writer.write('\n');
+        files.add(file);
+        return file;
+    }
+
+    /**
+     * Close all files, also after a failed bulk load.
+     */
+    @Override
+    public void close() throws IOException {
+        for (CsvFile file : files) {
+            file.close();
+        }
+    }
+
+    /**
+     * A CSV file in the neo4j-admin format: strings are quoted with embedded quotes doubled,
+     * null is an empty unquoted field, which leaves the property unset.
+     */
+    private static class CsvFile implements Closeable {
+
+        private final Writer writer;
+        private boolean multiline;
+        private boolean closed;
+
+        CsvFile(BufferedWriter writer) {
+            this.writer = writer;
+        }
+
+        void row(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof String string) {
+                    quote(string);
+                } else if (value != null) {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void quote(String value) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                } else if (c == '\n' || c == '\r') {
+                    multiline = true;
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.productmanagement.dataprovider;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads buffers one after the other as a single stream, such as a mapped split between its prefix
+ * and suffix. Bytes are copied from the buffers straight into the reader's array, without a buffer
+ * or a system call in between. Reading advances the positions of the buffers.
+ * <p>
+ * Not thread-safe: one reader reads the stream.
+ */
+class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer[] buffers;
+    private int current;
+
+    ByteBufferInputStream(ByteBuffer... buffers) {
+        this.buffers = buffers;
+    }
+
+    @Override
+    public int read() {
+        ByteBuffer buffer = next();
+        return buffer != null ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = next();
+        if (buffer == null) {
+            return -1;
+        }
+        int read = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, read);
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return current < buffers.length ? buffers[current].remaining() : 0;
+    }
+
+    /**
+     * @return the first buffer with bytes left, or null at the end
+     */
+    private ByteBuffer next() {
+        while (current < buffers.length) {
+            if (buffers[current].hasRemaining()) {
+                return buffers[current];
+            }
+            current++;
+        }
+        return null;
+    }
+}
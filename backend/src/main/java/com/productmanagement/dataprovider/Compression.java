@@ -0,0 +1,53 @@
+package com.productmanagement.dataprovider;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression of an import input, detected from its first bytes rather than a file name or
+ * header, so uploads and streamed request bodies are handled the same way as files.
+ */
+public enum Compression {
+
+    NONE,
+    GZIP,
+    ZSTD;
+
+    private static final int MAGIC_LENGTH = 4;
+
+    /**
+     * Detect the compression of a stream without consuming any of it.
+     * @param in a stream that supports {@link InputStream#mark(int)}
+     */
+    public static Compression detect(InputStream in) throws IOException {
+        in.mark(MAGIC_LENGTH);
+        byte[] magic = in.readNBytes(MAGIC_LENGTH);
+        in.reset();
+        if (magic.length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            return GZIP;
+        }
+        if (magic.length == MAGIC_LENGTH && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd) {
+            return ZSTD;
+        }
+        return NONE;
+    }
+
+    /**
+     * Wrap a stream so that it yields the uncompressed content. Compressed content is inflated on a
+     * separate thread ahead of the reader, so decompression and parsing use a core each.
+     * Closing the returned stream closes the given one.
+     */
+    public static InputStream decompress(InputStream in) throws IOException {
+        InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in, ImportSource.STREAM_BUFFER_SIZE);
+        return switch (detect(buffered)) {
+            case NONE -> buffered;
+            case GZIP -> new ReadAheadInputStream(new GZIPInputStream(buffered, ImportSource.STREAM_BUFFER_SIZE));
+            case ZSTD -> new ReadAheadInputStream(new ZstdInputStream(buffered));
+        };
+    }
+}
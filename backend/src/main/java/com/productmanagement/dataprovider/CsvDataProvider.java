@@ -0,0 +1,167 @@
+package com.productmanagement.dataprovider;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.RFC4180ParserBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import com.productmanagement.domain.DataProviderProduct;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Data provider for importing products from CSV files.
+ * <p>
+ * The first line is a header. The {@code externalId} column holds the external ID and the
+ * optional {@code globalTradeIdentifier} and {@code manufacturerPid} columns the identifiers;
+ * every other column is an attribute named after its header. Empty cells are skipped, so
+ * feeds with many sparse attribute columns stay small in the graph.
+ * The file is read line by line, so feeds larger than the heap can be imported.
+ */
+@Component
+public class CsvDataProvider implements DataProvider<CsvDataProvider.CsvRecord> {
+
+    private static final String PROVIDER_ID = "CsvDataProvider";
+    private static final String SAMPLE_DATA_PATH = "sample-data/products-100.csv";
+
+    private static final String EXTERNAL_ID = "externalId";
+    private static final String GTIN = "globalTradeIdentifier";
+    private static final String MANUFACTURER_PID = "manufacturerPid";
+
+    /**
+     * A data line together with the header of its file.
+     */
+    @Value
+    public static class CsvRecord {
+        String[] header;
+        String[] values;
+        long line;
+    }
+
+    @Override
+    public String getProviderId() {
+        return PROVIDER_ID;
+    }
+
+    @Override
+    public String getFormat() {
+        return "csv";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".csv";
+    }
+
+    @Override
+    public ImportSource getSampleSource() {
+        return ImportSource.ofClasspath(SAMPLE_DATA_PATH);
+    }
+
+    /**
+     * Read the file line by line and pass each data line on.
+     * @param skip number of leading data lines to skip
+     * @return number of bytes read
+     */
+    @Override
+    public long read(InputStream inputStream, long skip, ImportPipeline.Sink<CsvRecord> sink)
+            throws IOException, CsvValidationException {
+        CountingInputStream counting = new CountingInputStream(inputStream);
+        // RFC 4180 quoting only: the default parser would treat backslashes in values as escapes.
+        CSVReader reader = new CSVReaderBuilder(new InputStreamReader(counting, StandardCharsets.UTF_8))
+                .withCSVParser(new RFC4180ParserBuilder().build())
+                .build();
+
+        String[] header = reader.readNext();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty, expected a header line");
+        }
+        // Spreadsheet exports often start with a byte order mark.
+        if (header.length > 0 && header[0].startsWith("\uFEFF")) {
+            header[0] = header[0].substring(1);
+        }
+
+        long index = 0;
+        String[] values;
+        while ((values = reader.readNext()) != null) {
+            if (index++ < skip) {
+                continue;
+            }
+            // The reader buffers ahead, so the offset is where the stream stands, not where the line ends.
+            sink.accept(new CsvRecord(header, values, reader.getLinesRead()), counting.count);
+        }
+        return counting.count;
+    }
+
+    /**
+     * Turn a data line into a DataProviderProduct.
+     */
+    @Override
+    public DataProviderProduct normalize(CsvRecord record, ProductBuffer buffer) {
+        String[] header = record.getHeader();
+        String[] values = record.getValues();
+        if (values.length > header.length) {
+            throw new IllegalArgumentException(String.format("line %d has %d columns, header has %d",
+                    record.getLine(), values.length, header.length));
+        }
+
+        String externalId = null;
+        String gtin = null;
+        String manufacturerPid = null;
+        buffer.clear();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header[i]) {
+                case EXTERNAL_ID -> externalId = value;
+                case GTIN -> gtin = value;
+                case MANUFACTURER_PID -> manufacturerPid = value;
+                default -> buffer.attribute(header[i], value);
+            }
+        }
+
+        if (externalId == null) {
+            throw new IllegalArgumentException("line " + record.getLine() + ": missing " + EXTERNAL_ID);
+        }
+
+        return buffer.build(externalId, gtin, manufacturerPid);
+    }
+
+    /**
+     * Counts the bytes handed to the CSV reader, which does not expose its position.
+     * Only read by the parse thread.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+
+import java.io.InputStream;
+
+/**
+ * A feed format that products can be imported from.
+ * <p>
+ * Providers only turn their input into records; batching, association, transactions,
+ * checkpoints and metrics are handled by the {@link ImportEngine} for all of them.
+ * Reading and normalizing are separate steps so that the engine can normalize records
+ * in parallel while the input is read sequentially.
+ *
+ * @param <T> raw record as read from the input, before validation
+ */
+public interface DataProvider<T> {
+
+    /**
+     * Identifier stored as {@code dataProviderId} on imported products.
+     */
+    String getProviderId();
+
+    /**
+     * Short name of the format, used in the import endpoint ({@code /api/dataprovider/import/{format}}).
+     */
+    String getFormat();
+
+    /**
+     * File name extension of the format, including the dot.
+     */
+    String getFileExtension();
+
+    /**
+     * The bundled sample data.
+     */
+    ImportSource getSampleSource();
+
+    /**
+     * Read records from the input and pass them to the sink one at a time, in input order.
+     * The sink blocks while the engine is behind, so only a bounded number of records is
+     * held in memory regardless of the input size.
+     * @param skip number of leading records to skip, because an earlier run already committed them
+     * @return number of bytes (or characters, where the format does not expose bytes) read
+     */
+    long read(InputStream inputStream, long skip, ImportPipeline.Sink<T> sink) throws Exception;
+
+    /**
+     * Turn a raw record into a DataProviderProduct with its content hash, built with the given buffer.
+     * Called concurrently for different records, each normalize worker with its own buffer.
+     * @throws IllegalArgumentException if the record is not a valid product
+     */
+    DataProviderProduct normalize(T record, ProductBuffer buffer);
+
+    /**
+     * Turn a single raw record into a DataProviderProduct, outside an import.
+     */
+    default DataProviderProduct normalize(T record) {
+        return normalize(record, new ProductBuffer());
+    }
+}
@@ -0,0 +1,47 @@
+package com.productmanagement.dataprovider;
+
+import lombok.Value;
+
+/**
+ * A range of a feed file that starts and ends at record boundaries, found by a {@link FeedSplitter}.
+ * <p>
+ * The range alone is not a valid document, so it is parsed with a prefix and a suffix around it:
+ * for a JSON array the brackets, for XML the declaration and copies of the enclosing start tags
+ * before it and the matching end tags after it.
+ */
+@Value
+public class FeedSplit {
+
+    private static final byte[] NONE = new byte[0];
+
+    /**
+     * File offset of the first byte of the split.
+     */
+    long start;
+
+    /**
+     * File offset right after the last byte of the split.
+     */
+    long end;
+
+    byte[] prefix;
+    byte[] suffix;
+
+    public FeedSplit(long start, long end, byte[] prefix, byte[] suffix) {
+        this.start = start;
+        this.end = end;
+        this.prefix = prefix != null ? prefix : NONE;
+        this.suffix = suffix != null ? suffix : NONE;
+    }
+
+    public long length() {
+        return end - start;
+    }
+
+    /**
+     * File offset of a position in the parser input, which starts with the prefix.
+     */
+    public long fileOffset(long inputOffset) {
+        return start + Math.max(0, inputOffset - prefix.length);
+    }
+}
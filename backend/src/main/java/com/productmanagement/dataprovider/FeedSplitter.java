@@ -0,0 +1,35 @@
+package com.productmanagement.dataprovider;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Finds record boundaries in a feed file, so that it can be split and the splits parsed in parallel.
+ * The file is scanned once from start to end, window by window, with a byte-level state machine that
+ * is much cheaper than parsing. A split closes at the first record boundary after the target split
+ * size, and can be parsed as soon as it is closed, while the rest of the file is still being scanned.
+ * <p>
+ * Not thread-safe: one instance scans one file.
+ */
+public interface FeedSplitter {
+
+    /**
+     * Scan the next window of the file.
+     * @param window the bytes from its position to its limit; the position is not changed
+     * @param offset file offset of the window's position
+     * @return false if the rest of the file does not need to be scanned
+     */
+    boolean scan(ByteBuffer window, long offset);
+
+    /**
+     * @return the splits closed since the last call, in file order
+     */
+    List<FeedSplit> takeSplits();
+
+    /**
+     * @param size file size
+     * @return the last split, up to the end of the file or of the records, or null if the file cannot
+     *         be split and has to be read as a stream, which is only decided before the first split
+     */
+    FeedSplit finish(long size);
+}
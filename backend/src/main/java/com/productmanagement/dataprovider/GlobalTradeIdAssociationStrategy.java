@@ -8,11 +8,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Association strategy that matches by Global Trade Identifier (GTIN).
  * Highest priority strategy.
+ * <p>
+ * While an import is running, matches are answered from the GTIN index of the
+ * {@link AssociationIndex} instead of one query per row. Saved InternalProducts are added to
+ * the index after commit; entries that went stale otherwise are caught by {@link #stillMatches}.
  */
 @Component
 @Order(1)
@@ -21,6 +26,7 @@ import java.util.Optional;
 public class GlobalTradeIdAssociationStrategy implements AssociationStrategy {
 
     private final InternalProductService productService;
+    private final AssociationIndex associationIndex;
 
     @Override
     public Optional<InternalProduct> findMatch(DataProviderProduct externalProduct) {
@@ -34,9 +40,46 @@ public class GlobalTradeIdAssociationStrategy implements AssociationStrategy {
         return productService.findByGlobalTradeIdentifier(gtin);
     }
 
+    @Override
+    public Optional<String> findMatchingInternalId(DataProviderProduct externalProduct) {
+        AssociationIndex.Indexes indexes = associationIndex.current();
+        if (indexes == null) {
+            return AssociationStrategy.super.findMatchingInternalId(externalProduct);
+        }
+
+        String gtin = externalProduct.getGlobalTradeIdentifier();
+        if (gtin == null || gtin.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(indexes.findByGtin(gtin));
+    }
+
+    @Override
+    public AssociationResult associate(DataProviderProduct externalProduct, AssociationIndex.Indexes indexes) {
+        String gtin = externalProduct.getGlobalTradeIdentifier();
+        String internalId = gtin != null && !gtin.trim().isEmpty() ? indexes.findByGtin(gtin) : null;
+        return internalId != null
+                ? new AssociationResult(Optional.of(internalId), getName(), getConfidence())
+                : AssociationResult.NONE;
+    }
+
+    @Override
+    public boolean stillMatches(DataProviderProduct externalProduct, InternalProduct candidate) {
+        return Objects.equals(externalProduct.getGlobalTradeIdentifier(), candidate.getGlobalTradeIdentifier());
+    }
+
+    @Override
+    public void prepare() {
+        associationIndex.prepare();
+    }
+
+    @Override
+    public void release() {
+        associationIndex.release();
+    }
+
     @Override
     public String getName() {
         return "GlobalTradeId";
     }
 }
-
@@ -0,0 +1,209 @@
+package com.productmanagement.dataprovider;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory map from Global Trade Identifier to internalId, used to associate
+ * imported products without a database round-trip per row.
+ * <p>
+ * Numeric GTINs of up to 14 digits are encoded as a single {@code long} (digit count
+ * times 10^14 plus the numeric value, so "0123" and "123" stay distinct) and stored
+ * in an open-addressing table with linear probing. Anything else goes to a small
+ * fallback {@link HashMap}.
+ * <p>
+ * Memory footprint per million products, with compressed oops and the table kept at
+ * most 75% full: the table has 2^21 slots, i.e. 16 MB of {@code long} keys and 8 MB of
+ * value references. The internalId strings themselves add about 56 bytes each for ten
+ * character ids (56 MB), so one million products need roughly 80 MB in total, against
+ * ~200 MB for a {@code HashMap<String, String>} with boxed entries and GTIN strings.
+ * <p>
+ * Lookups take a read lock and updates a write lock, so entries can be changed while
+ * an import is reading from the index.
+ */
+public class GtinIndex {
+
+    private static final long EMPTY = -1L;
+    private static final long LENGTH_FACTOR = 100_000_000_000_000L;
+    private static final int MAX_DIGITS = 14;
+    private static final double MAX_LOAD = 0.75;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String> nonNumeric = new HashMap<>();
+
+    private long[] keys;
+    private String[] values;
+    private int size;
+
+    public GtinIndex() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize number of numeric GTINs the index should hold without resizing
+     */
+    public GtinIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Encode a GTIN as a table key.
+     * @return the key, or -1 if the GTIN is not a number of at most 14 digits
+     */
+    static long toKey(String gtin) {
+        int length = gtin.length();
+        if (length == 0 || length > MAX_DIGITS) {
+            return EMPTY;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = gtin.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return length * LENGTH_FACTOR + value;
+    }
+
+    /**
+     * @return the internalId registered for the GTIN, or null
+     */
+    public String get(String gtin) {
+        long key = toKey(gtin);
+        lock.readLock().lock();
+        try {
+            if (key == EMPTY) {
+                return nonNumeric.get(gtin);
+            }
+            int slot = find(key);
+            return keys[slot] == key ? values[slot] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Register or replace the internalId for a GTIN.
+     */
+    public void put(String gtin, String internalId) {
+        long key = toKey(gtin);
+        lock.writeLock().lock();
+        try {
+            if (key == EMPTY) {
+                nonNumeric.put(gtin, internalId);
+                return;
+            }
+            int slot = find(key);
+            if (keys[slot] != key) {
+                if (size + 1 > keys.length * MAX_LOAD) {
+                    resize();
+                    slot = find(key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = internalId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the entry for a GTIN, if any.
+     */
+    public void remove(String gtin) {
+        long key = toKey(gtin);
+        lock.writeLock().lock();
+        try {
+            if (key == EMPTY) {
+                nonNumeric.remove(gtin);
+                return;
+            }
+            int slot = find(key);
+            if (keys[slot] != key) {
+                return;
+            }
+            keys[slot] = EMPTY;
+            values[slot] = null;
+            size--;
+            shiftBack(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size + nonNumeric.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it would be inserted.
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Close the gap left by a removed entry so probe sequences stay unbroken.
+     */
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            int home = mix(keys[slot]) & mask;
+            // Move the entry into the gap unless its home lies cyclically in (gap, slot].
+            boolean homeBetween = gap <= slot ? (home > gap && home <= slot) : (home > gap || home <= slot);
+            if (!homeBetween) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                keys[slot] = EMPTY;
+                values[slot] = null;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        String[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new String[capacity];
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int minimum = (int) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD);
+        return Math.max(16, Integer.highestOneBit(minimum - 1) << 1);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
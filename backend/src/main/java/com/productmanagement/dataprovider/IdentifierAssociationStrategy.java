@@ -0,0 +1,104 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.service.InternalProductService;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Base of the strategies that match an identifier of the imported product against an identifier
+ * of the InternalProducts. Identifiers are compared by {@link AssociationIndex#normalizeId}, so
+ * separators and case may differ. While an import is running, matches are answered from the
+ * {@link AssociationIndex}.
+ */
+@RequiredArgsConstructor
+abstract class IdentifierAssociationStrategy implements AssociationStrategy {
+
+    protected final InternalProductService productService;
+    protected final AssociationIndex associationIndex;
+
+    /**
+     * The identifier of the imported product, or null.
+     */
+    protected abstract String key(DataProviderProduct externalProduct);
+
+    /**
+     * @return the internalId of the product with the identifier, or null
+     */
+    protected abstract String lookup(AssociationIndex.Indexes indexes, String key);
+
+    /**
+     * Find the product by the identifier as it is, while no index is loaded.
+     */
+    protected abstract Optional<InternalProduct> findWithoutIndex(String key);
+
+    /**
+     * Confidence of a match of the identifier with the given product.
+     */
+    protected double confidence(String key, String internalId) {
+        return getConfidence();
+    }
+
+    @Override
+    public Optional<InternalProduct> findMatch(DataProviderProduct externalProduct) {
+        String key = key(externalProduct);
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        AssociationIndex.Indexes indexes = associationIndex.current();
+        if (indexes == null) {
+            return findWithoutIndex(key);
+        }
+        String internalId = lookup(indexes, key);
+        return internalId != null ? productService.findById(internalId) : Optional.empty();
+    }
+
+    @Override
+    public Optional<String> findMatchingInternalId(DataProviderProduct externalProduct) {
+        AssociationIndex.Indexes indexes = associationIndex.current();
+        if (indexes == null) {
+            return AssociationStrategy.super.findMatchingInternalId(externalProduct);
+        }
+        String key = key(externalProduct);
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lookup(indexes, key));
+    }
+
+    @Override
+    public AssociationResult associate(DataProviderProduct externalProduct) {
+        AssociationIndex.Indexes indexes = associationIndex.current();
+        if (indexes != null) {
+            return associate(externalProduct, indexes);
+        }
+        Optional<String> internalId = findMatchingInternalId(externalProduct);
+        return internalId.isPresent()
+                ? new AssociationResult(internalId, getName(), confidence(key(externalProduct), internalId.get()))
+                : AssociationResult.NONE;
+    }
+
+    @Override
+    public AssociationResult associate(DataProviderProduct externalProduct, AssociationIndex.Indexes indexes) {
+        String key = key(externalProduct);
+        if (key == null || key.isBlank()) {
+            return AssociationResult.NONE;
+        }
+        String internalId = lookup(indexes, key);
+        return internalId != null
+                ? new AssociationResult(Optional.of(internalId), getName(), confidence(key, internalId))
+                : AssociationResult.NONE;
+    }
+
+    @Override
+    public void prepare() {
+        associationIndex.prepare();
+    }
+
+    @Override
+    public void release() {
+        associationIndex.release();
+    }
+}
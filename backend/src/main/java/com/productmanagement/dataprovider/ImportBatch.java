@@ -0,0 +1,86 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imported products collected for a single batched write.
+ * Only the internalId of each match is kept, so the matched InternalProducts
+ * can be loaded with one query when the batch is written. Products no strategy
+ * matched are kept too, without internalId, so they are stored as unassociated.
+ */
+public class ImportBatch {
+
+    private final List<PendingProduct> pending = new ArrayList<>();
+
+    public void add(DataProviderProduct product, String internalId, AssociationStrategy strategy, double confidence) {
+        pending.add(new PendingProduct(product, internalId, strategy, confidence));
+    }
+
+    /**
+     * Add a product no strategy matched.
+     */
+    public void addUnassociated(DataProviderProduct product) {
+        pending.add(new PendingProduct(product, null, null, 0));
+    }
+
+    /**
+     * Products in the order they were added.
+     */
+    public List<PendingProduct> getPending() {
+        return pending;
+    }
+
+    /**
+     * Distinct internalIds of all matches in this batch.
+     */
+    public Set<String> getInternalIds() {
+        Set<String> internalIds = new LinkedHashSet<>();
+        for (PendingProduct product : pending) {
+            if (product.getInternalId() != null) {
+                internalIds.add(product.getInternalId());
+            }
+        }
+        return internalIds;
+    }
+
+    /**
+     * External IDs of all products in this batch.
+     */
+    public Set<String> getExternalIds() {
+        Set<String> externalIds = new LinkedHashSet<>();
+        for (PendingProduct product : pending) {
+            externalIds.add(product.getProduct().getExternalId());
+        }
+        return externalIds;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+
+    /**
+     * A parsed product and the InternalProduct a strategy matched it with;
+     * internalId and strategy are null if it is unassociated.
+     */
+    @Value
+    public static class PendingProduct {
+        DataProviderProduct product;
+        String internalId;
+        AssociationStrategy strategy;
+        double confidence;
+    }
+}
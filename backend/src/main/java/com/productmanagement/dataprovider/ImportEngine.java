@@ -0,0 +1,303 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.ImportCheckpoint;
+import com.productmanagement.repository.DataProviderProductBatchRepository;
+import com.productmanagement.repository.ImportCheckpointRepository;
+import com.productmanagement.repository.InternalProductBatchRepository;
+import com.productmanagement.service.InternalProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports products from any {@link DataProvider}.
+ * Handles parsing, association, and persistence in a single workflow: records flow
+ * through an {@link ImportPipeline} and are committed in chunks by an {@link ImportWriter}.
+ * A {@linkplain #bulkLoad bulk load} runs the same parsing and association, but writes CSV files
+ * for {@code neo4j-admin database import} through a {@link BulkLoadWriter} instead.
+ */
+@Component
+@Slf4j
+public class ImportEngine {
+
+    private final InternalProductService productService;
+    private final DataProviderProductBatchRepository batchRepository;
+    private final InternalProductBatchRepository productBatchRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportMetrics metrics;
+    private final List<AssociationStrategy> associationStrategies;
+    private final Map<String, AssociationStrategy> strategiesByName;
+
+    public ImportEngine(
+            InternalProductService productService,
+            DataProviderProductBatchRepository batchRepository,
+            InternalProductBatchRepository productBatchRepository,
+            ImportCheckpointRepository checkpointRepository,
+            ImportProperties importProperties,
+            TransactionTemplate transactionTemplate,
+            ImportMetrics metrics,
+            List<AssociationStrategy> associationStrategies) {
+        this.productService = productService;
+        this.batchRepository = batchRepository;
+        this.productBatchRepository = productBatchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.importProperties = importProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.associationStrategies = List.copyOf(associationStrategies);
+        this.strategiesByName = new HashMap<>();
+        for (AssociationStrategy strategy : associationStrategies) {
+            strategiesByName.put(strategy.getName(), strategy);
+        }
+    }
+
+    /**
+     * Import products from a source.
+     * If an earlier import of the same content by the same provider did not complete,
+     * the import resumes after the last record committed by that run.
+     * @return import statistics
+     */
+    public ImportResult importProducts(DataProvider<?> provider, ImportSource source) {
+        ImportResult result = new ImportResult();
+        importProducts(provider, source, result);
+        return result;
+    }
+
+    /**
+     * Import products from a source, filling in a result owned by the caller.
+     * The result can be read while the import is running to report progress.
+     * Interrupting the calling thread cancels the import after the last committed chunk.
+     */
+    public void importProducts(DataProvider<?> provider, ImportSource source, ImportResult result) {
+        result.setStartTime(LocalDateTime.now());
+
+        try {
+            String sourceHash = source.fingerprint();
+            long resumeOffset = checkpointRepository.findByDataProviderIdAndSourceHash(provider.getProviderId(), sourceHash)
+                    .filter(checkpoint -> !checkpoint.isCompleted())
+                    .map(ImportCheckpoint::getRecordOffset)
+                    .orElse(0L);
+            if (resumeOffset > 0) {
+                log.info("Resuming import of {} after record {}", source.getName(), resumeOffset);
+            }
+
+            runImport(provider, source, sourceHash, resumeOffset, result);
+        } catch (Exception e) {
+            log.error("Import failed: {}", e.getMessage(), e);
+            result.fail("Import failed: " + e.getMessage());
+            result.setEndTime(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Import the shards of a feed, such as the files of a directory, with up to
+     * {@link ImportProperties#getShardWorkers()} of them running at the same time.
+     * Each shard is an import of its own with its own checkpoint, so running the same shards again
+     * resumes the unfinished ones. The result adds up the shards as they finish, with errors
+     * prefixed by the shard. Interrupting the calling thread cancels all running shards after
+     * their last committed chunk.
+     */
+    public void importShards(DataProvider<?> provider, List<ImportSource> shards, ImportResult result) {
+        result.setStartTime(LocalDateTime.now());
+        int workers = Math.max(1, Math.min(importProperties.getShardWorkers(), shards.size()));
+        log.info("Importing {} shards with {} workers", shards.size(), workers);
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("import-shard-", 0).factory());
+        try {
+            List<Future<?>> futures = new ArrayList<>(shards.size());
+            for (ImportSource shard : shards) {
+                futures.add(executor.submit(() -> {
+                    ImportResult shardResult = new ImportResult();
+                    importProducts(provider, shard, shardResult);
+                    shardResult.getErrors().replaceAll(error -> shard.getName() + ": " + error);
+                    result.add(shardResult);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            log.info("Import of {} shards cancelled after {} records", shards.size(), result.getProcessedRecords());
+            result.fail("Import cancelled");
+        } catch (ExecutionException e) {
+            log.error("Import of shards failed: {}", e.getCause().getMessage(), e.getCause());
+            result.fail("Import failed: " + e.getCause().getMessage());
+        } finally {
+            // Waits for cancelled shards to stop
+            executor.close();
+            result.setEndTime(LocalDateTime.now());
+        }
+        if (!result.isFailed()) {
+            log.info("Import of {} shards completed: {}", shards.size(), result);
+        }
+    }
+
+    /**
+     * Import products from a stream.
+     * The stream cannot be read again, so the import is not resumable.
+     * The stream is not closed by this method.
+     * @param sourceName description of the source, used for logging
+     * @return import statistics
+     */
+    public ImportResult importProducts(DataProvider<?> provider, InputStream inputStream, String sourceName) {
+        ImportResult result = new ImportResult();
+        importProducts(provider, inputStream, sourceName, result);
+        return result;
+    }
+
+    /**
+     * Import products from a stream, filling in a result owned by the caller.
+     * @see #importProducts(DataProvider, InputStream, String)
+     */
+    public void importProducts(DataProvider<?> provider, InputStream inputStream, String sourceName, ImportResult result) {
+        result.setStartTime(LocalDateTime.now());
+        runImport(provider, inputStream, sourceName, result);
+    }
+
+    /**
+     * Parse and associate the products of a source like {@link #importProducts(DataProvider, ImportSource)},
+     * but write them together with all InternalProducts as CSV files for
+     * {@code neo4j-admin database import full} instead of into the database.
+     * The database is only read. See {@link BulkLoadWriter} for what the files contain.
+     * @param outputDirectory where the files and their {@code import.args} are written
+     * @param result filled in like by {@link #importProducts(DataProvider, ImportSource, ImportResult)}
+     */
+    public void bulkLoad(DataProvider<?> provider, ImportSource source, Path outputDirectory, ImportResult result) {
+        result.setStartTime(LocalDateTime.now());
+        if (importProperties.isSharedAttributes()) {
+            // Later online imports would mix both attribute layouts in the loaded database.
+            result.fail("Bulk loads write one attribute node per product; disable dataprovider.import.shared-attributes");
+            result.setEndTime(LocalDateTime.now());
+            return;
+        }
+
+        try (BulkLoadWriter writer = new BulkLoadWriter(productBatchRepository, provider.getProviderId(),
+                outputDirectory, result)) {
+            runBulkLoad(provider, source, result, writer);
+        } catch (Exception e) {
+            log.error("Bulk load failed: {}", e.getMessage(), e);
+            result.fail("Bulk load failed: " + e.getMessage());
+            result.setEndTime(LocalDateTime.now());
+        }
+    }
+
+    private <T> void runImport(DataProvider<T> provider, ImportSource source, String sourceHash,
+                               long resumeOffset, ImportResult result) throws IOException {
+        runImport(provider, reader(provider, source), source.getName(), sourceHash, resumeOffset, result);
+    }
+
+    private <T> void runImport(DataProvider<T> provider, InputStream inputStream, String sourceName, ImportResult result) {
+        runImport(provider, (skip, sink) -> provider.read(inputStream, skip, sink), sourceName, null, 0, result);
+    }
+
+    private <T> void runImport(DataProvider<T> provider, RecordReader<T> reader, String sourceName,
+                               String sourceHash, long resumeOffset, ImportResult result) {
+        ImportWriter writer = new ImportWriter(productService, batchRepository, checkpointRepository,
+                transactionTemplate, importProperties, metrics, strategiesByName,
+                provider.getProviderId(), sourceHash, resumeOffset, result);
+        run(provider, reader, sourceName, resumeOffset, result, writer);
+    }
+
+    private <T> void runBulkLoad(DataProvider<T> provider, ImportSource source, ImportResult result,
+                                 BulkLoadWriter writer) throws IOException {
+        run(provider, reader(provider, source), source.getName(), 0, result, writer);
+    }
+
+    /**
+     * Reader for a source: a local, uncompressed file of a {@link SplittableDataProvider} is
+     * memory-mapped and parsed in splits by a {@link MappedFeedReader}, anything else is read as a stream.
+     */
+    private <T> RecordReader<T> reader(DataProvider<T> provider, ImportSource source) throws IOException {
+        if (provider instanceof SplittableDataProvider<T> splittable && importProperties.getParseWorkers() > 1
+                && source instanceof ImportSource.FileSource file && !file.isCompressed()) {
+            return new MappedFeedReader<>(splittable, file.getPath(), importProperties.getParseWorkers(),
+                    importProperties.getQueueCapacity())::read;
+        }
+        return (skip, sink) -> {
+            try (InputStream inputStream = source.open()) {
+                return provider.read(inputStream, skip, sink);
+            }
+        };
+    }
+
+    /**
+     * Parse stage of an import, see {@link DataProvider#read}.
+     */
+    @FunctionalInterface
+    private interface RecordReader<T> {
+        long read(long skip, ImportPipeline.Sink<T> sink) throws Exception;
+    }
+
+    /**
+     * Run the pipeline over an input, passing the associated records to the writer in input order.
+     */
+    private <T> void run(DataProvider<T> provider, RecordReader<T> reader, String sourceName,
+                         long resumeOffset, ImportResult result, RecordWriter writer) {
+        log.info("Starting {} import from {}", provider.getFormat(), sourceName);
+        result.setResumeOffset(resumeOffset);
+
+        List<AssociationStrategy> prepared = new ArrayList<>();
+        try {
+            for (AssociationStrategy strategy : associationStrategies) {
+                strategy.prepare();
+                prepared.add(strategy);
+            }
+
+            AttributeInterner interner = new AttributeInterner(importProperties.getAttributeInternCacheSize());
+            ImportPipeline<T> pipeline = new ImportPipeline<>(importProperties, () -> {
+                        ProductBuffer buffer = new ProductBuffer(interner);
+                        return metrics.timeNormalize(record -> provider.normalize(record, buffer));
+                    },
+                    this::tryAssociate);
+            pipeline.run(sink -> result.setBytesRead(reader.read(resumeOffset, metrics.timeParse(sink))),
+                    writer::write);
+            writer.finish();
+
+            result.setEndTime(LocalDateTime.now());
+            log.info("Import completed: {}", result);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Import from {} cancelled after {} records", sourceName, result.getProcessedRecords());
+            result.fail("Import cancelled");
+            result.setEndTime(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Import failed: {}", e.getMessage(), e);
+            result.fail("Import failed: " + e.getMessage());
+            result.setEndTime(LocalDateTime.now());
+        } finally {
+            prepared.forEach(AssociationStrategy::release);
+        }
+    }
+
+    /**
+     * Try the strategies in priority order; the first match wins.
+     */
+    private AssociationResult tryAssociate(DataProviderProduct externalProduct) {
+        for (AssociationStrategy strategy : associationStrategies) {
+            long start = System.nanoTime();
+            AssociationResult result = strategy.associate(externalProduct);
+            metrics.recordAssociation(strategy.getName(), result.hasMatch(), System.nanoTime() - start);
+            if (result.hasMatch()) {
+                return result;
+            }
+        }
+        return AssociationResult.NONE;
+    }
+}
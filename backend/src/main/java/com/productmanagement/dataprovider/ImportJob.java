@@ -0,0 +1,112 @@
+package com.productmanagement.dataprovider;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An import running in the background, see {@link ImportJobService}.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String dataProviderId;
+    private final String sourceName;
+
+    /**
+     * Size of the source in bytes, or -1 if unknown
+     */
+    private final long sourceSize;
+
+    private final ImportResult result = new ImportResult();
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    @Setter(AccessLevel.PACKAGE)
+    private volatile LocalDateTime startedAt;
+    @Setter(AccessLevel.PACKAGE)
+    private volatile LocalDateTime finishedAt;
+    @Setter(AccessLevel.PACKAGE)
+    private volatile boolean cancelRequested;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private volatile Future<?> future;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<Runnable> cleanup = new AtomicReference<>();
+
+    @Getter(AccessLevel.NONE)
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    ImportJob(String id, String dataProviderId, String sourceName, long sourceSize, Runnable cleanup) {
+        this.id = id;
+        this.dataProviderId = dataProviderId;
+        this.sourceName = sourceName;
+        this.sourceSize = sourceSize;
+        this.cleanup.set(cleanup);
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Move the job from one status to another, if it still has the first.
+     * @return false if the job had another status, e.g. because it was cancelled first
+     */
+    boolean transition(Status from, Status to) {
+        return status.compareAndSet(from, to);
+    }
+
+    /**
+     * Move the job to a final status, unless it already has one.
+     * @return false if the job already finished
+     */
+    boolean finish(Status to) {
+        Status current;
+        do {
+            current = status.get();
+            if (current.isFinished()) {
+                return false;
+            }
+        } while (!status.compareAndSet(current, to));
+        return true;
+    }
+
+    /**
+     * Wait until the job finished, including a cancelled job's import stopping.
+     */
+    public void awaitFinished() throws InterruptedException {
+        done.await();
+    }
+
+    void markFinished() {
+        done.countDown();
+    }
+
+    /**
+     * Run the job's cleanup, only the first time this is called.
+     */
+    void cleanUp() {
+        Runnable pending = cleanup.getAndSet(null);
+        if (pending != null) {
+            pending.run();
+        }
+    }
+}
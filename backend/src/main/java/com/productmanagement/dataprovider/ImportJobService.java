@@ -0,0 +1,161 @@
+package com.productmanagement.dataprovider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs imports in the background on a bounded executor.
+ * At most {@link ImportProperties#getMaxConcurrentJobs()} imports run at the same time
+ * and up to {@link ImportProperties#getMaxQueuedJobs()} wait for a free slot; further
+ * submissions are rejected, so imports never take over HTTP request threads.
+ * Running and queued imports are exposed as the gauge {@code import.jobs}.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    /**
+     * Work done by a job, filling in the result owned by the job.
+     */
+    @FunctionalInterface
+    public interface ImportTask {
+        void run(ImportResult result) throws Exception;
+    }
+
+    private final ImportProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedJobs = new ConcurrentLinkedDeque<>();
+
+    public ImportJobService(ImportProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.getMaxConcurrentJobs(), properties.getMaxConcurrentJobs(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getMaxQueuedJobs()),
+                Thread.ofPlatform().name("import-job-", 0).factory());
+        Gauge.builder("import.jobs", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("state", "running")
+                .register(registry);
+        Gauge.builder("import.jobs", executor, pool -> pool.getQueue().size())
+                .tag("state", "queued")
+                .register(registry);
+    }
+
+    /**
+     * Queue an import.
+     * @param cleanup run exactly once when the job finished or was cancelled while queued, e.g. to
+     *                delete a spooled upload
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ImportJob submit(String dataProviderId, String sourceName, long sourceSize,
+                            ImportTask task, Runnable cleanup) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), dataProviderId, sourceName, sourceSize, cleanup);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job, task)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            job.cleanUp();
+            throw e;
+        }
+        log.info("Queued import job {} for {} from {}", job.getId(), dataProviderId, sourceName);
+        return job;
+    }
+
+    public Optional<ImportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<ImportJob> findAll() {
+        List<ImportJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(ImportJob::getSubmittedAt).reversed());
+        return all;
+    }
+
+    /**
+     * Cancel a queued or running job. A running import stops after its last committed chunk
+     * and can be resumed by importing the same source again.
+     * @return false if the job does not exist or already finished
+     */
+    public boolean cancel(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null || job.getStatus().isFinished()) {
+            return false;
+        }
+        job.setCancelRequested(true);
+        Future<?> future = job.getFuture();
+        if (job.transition(ImportJob.Status.QUEUED, ImportJob.Status.CANCELLED)) {
+            // The task will not run, so finish the job and clean up here
+            if (future != null) {
+                future.cancel(false);
+            }
+            finished(job);
+            job.cleanUp();
+            executor.purge();
+        } else if (future != null) {
+            future.cancel(true);
+        }
+        log.info("Cancellation requested for import job {}", id);
+        return true;
+    }
+
+    private void run(ImportJob job, ImportTask task) {
+        if (!job.transition(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING)) {
+            // Cancelled while queued, which finished the job and cleaned up
+            return;
+        }
+        try {
+            job.setStartedAt(LocalDateTime.now());
+
+            task.run(job.getResult());
+
+            if (job.isCancelRequested()) {
+                finish(job, ImportJob.Status.CANCELLED);
+            } else {
+                finish(job, job.getResult().isFailed() ? ImportJob.Status.FAILED : ImportJob.Status.COMPLETED);
+            }
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.getResult().fail("Import failed: " + e.getMessage());
+            finish(job, job.isCancelRequested() ? ImportJob.Status.CANCELLED : ImportJob.Status.FAILED);
+        } finally {
+            job.cleanUp();
+        }
+    }
+
+    private void finish(ImportJob job, ImportJob.Status status) {
+        if (job.finish(status)) {
+            finished(job);
+        }
+    }
+
+    /**
+     * Record a job that just reached its final status.
+     */
+    private synchronized void finished(ImportJob job) {
+        job.setFinishedAt(LocalDateTime.now());
+        log.info("Import job {} finished with status {}: {}", job.getId(), job.getStatus(), job.getResult());
+        job.markFinished();
+
+        finishedJobs.addLast(job.getId());
+        while (finishedJobs.size() > properties.getFinishedJobRetention()) {
+            String oldest = finishedJobs.pollFirst();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
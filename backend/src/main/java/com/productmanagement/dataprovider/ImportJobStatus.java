@@ -0,0 +1,80 @@
+package com.productmanagement.dataprovider;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of an {@link ImportJob} as returned by the job endpoints.
+ * Associated and unassociated counts include only committed chunks; {@code processed}
+ * counts every record that reached the write stage.
+ */
+@Value
+@Builder
+public class ImportJobStatus {
+
+    String id;
+    String dataProviderId;
+    String source;
+    ImportJob.Status status;
+    LocalDateTime submittedAt;
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+    long processed;
+    int associated;
+
+    /**
+     * Associated products skipped because they did not change since the last import
+     */
+    int unchanged;
+
+    int unassociated;
+    int errors;
+    double productsPerSecond;
+
+    /**
+     * Estimated seconds until the job finishes, or null if the source size is unknown
+     */
+    Long etaSeconds;
+
+    /**
+     * Full import result, only once the job finished
+     */
+    ImportResult result;
+
+    public static ImportJobStatus of(ImportJob job) {
+        ImportResult result = job.getResult();
+        LocalDateTime startedAt = job.getStartedAt();
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+        long elapsedMillis = startedAt != null ? Duration.between(startedAt, end).toMillis() : 0;
+        long processed = result.getProcessedRecords();
+
+        Long etaSeconds = null;
+        long bytesProcessed = result.getBytesProcessed();
+        if (job.getStatus() == ImportJob.Status.RUNNING && job.getSourceSize() > 0
+                && bytesProcessed > 0 && elapsedMillis > 0) {
+            double bytesPerMilli = (double) bytesProcessed / elapsedMillis;
+            etaSeconds = (long) Math.ceil(Math.max(0, job.getSourceSize() - bytesProcessed) / bytesPerMilli / 1000);
+        }
+
+        return ImportJobStatus.builder()
+                .id(job.getId())
+                .dataProviderId(job.getDataProviderId())
+                .source(job.getSourceName())
+                .status(job.getStatus())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(startedAt)
+                .finishedAt(job.getFinishedAt())
+                .processed(processed)
+                .associated(result.getAssociatedProducts())
+                .unchanged(result.getUnchangedProducts())
+                .unassociated(result.getNotAssociatedProducts())
+                .errors(result.getErrorCount())
+                .productsPerSecond(elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0)
+                .etaSeconds(etaSeconds)
+                .result(job.getStatus().isFinished() ? result : null)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.productmanagement.dataprovider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Micrometer meters of the import pipeline, one timer per stage:
+ * <ul>
+ *   <li>{@code import.parse}: reading one record, without the time spent waiting for the next stage</li>
+ *   <li>{@code import.normalize}: turning a record into a hashed DataProviderProduct</li>
+ *   <li>{@code import.association}: one lookup of one strategy, tagged with the strategy and whether it matched</li>
+ *   <li>{@code import.batch}: loading the matched InternalProducts and stored state of a batch
+ *   ({@code step=load}) and the statement saving the batch ({@code step=write})</li>
+ *   <li>{@code import.chunk}: the transaction of a chunk, tagged committed or retried</li>
+ * </ul>
+ * and the counter {@code import.products} by provider and outcome: associated and written, unchanged,
+ * not associated or failed. Running and queued jobs are gauged by the {@link ImportJobService}.
+ * <p>
+ * Meters of the per-record stages are registered up front, so recording needs no registry lookup.
+ */
+@Component
+public class ImportMetrics {
+
+    static final String ASSOCIATED = "associated";
+    static final String UNCHANGED = "unchanged";
+    static final String NOT_ASSOCIATED = "not_associated";
+    static final String FAILED = "failed";
+
+    private final MeterRegistry registry;
+    private final Timer parse;
+    private final Timer normalize;
+    private final Timer batchLoad;
+    private final Timer batchWrite;
+    private final Timer chunkCommitted;
+    private final Timer chunkRetried;
+    private final Map<String, Timer> associationMatches;
+    private final Map<String, Timer> associationMisses;
+
+    public ImportMetrics(MeterRegistry registry, List<AssociationStrategy> strategies) {
+        this.registry = registry;
+        this.parse = Timer.builder("import.parse").register(registry);
+        this.normalize = Timer.builder("import.normalize").register(registry);
+        this.batchLoad = Timer.builder("import.batch").tag("step", "load").register(registry);
+        this.batchWrite = Timer.builder("import.batch").tag("step", "write").register(registry);
+        this.chunkCommitted = Timer.builder("import.chunk").tag("outcome", "committed").register(registry);
+        this.chunkRetried = Timer.builder("import.chunk").tag("outcome", "retried").register(registry);
+        this.associationMatches = associationTimers(strategies, "match");
+        this.associationMisses = associationTimers(strategies, "miss");
+    }
+
+    private Map<String, Timer> associationTimers(List<AssociationStrategy> strategies, String result) {
+        return strategies.stream().collect(Collectors.toMap(AssociationStrategy::getName, strategy ->
+                Timer.builder("import.association")
+                        .tag("strategy", strategy.getName())
+                        .tag("result", result)
+                        .register(registry)));
+    }
+
+    /**
+     * Wrap the sink of a parse stage to time each record from the moment the previous one was
+     * handed on, so waiting for a full queue is not counted. Not thread-safe, like the parse stage.
+     */
+    <T> ImportPipeline.Sink<T> timeParse(ImportPipeline.Sink<T> sink) {
+        long[] last = {System.nanoTime()};
+        return (raw, endOffset) -> {
+            parse.record(System.nanoTime() - last[0], TimeUnit.NANOSECONDS);
+            sink.accept(raw, endOffset);
+            last[0] = System.nanoTime();
+        };
+    }
+
+    /**
+     * Time each call of a normalizer. Records the duration directly rather than through a
+     * supplier, so timing allocates nothing per record.
+     */
+    <T, R> Function<T, R> timeNormalize(Function<T, R> normalizer) {
+        return raw -> {
+            long start = System.nanoTime();
+            try {
+                return normalizer.apply(raw);
+            } finally {
+                normalize.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    void recordAssociation(String strategy, boolean matched, long nanos) {
+        (matched ? associationMatches : associationMisses).get(strategy).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    <T> T timeBatchLoad(Supplier<T> load) {
+        return batchLoad.record(load);
+    }
+
+    <T> T timeBatchWrite(Supplier<T> write) {
+        return batchWrite.record(write);
+    }
+
+    void recordChunk(boolean committed, long nanos) {
+        (committed ? chunkCommitted : chunkRetried).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counter of products of one provider with the given outcome.
+     */
+    Counter products(String providerId, String outcome) {
+        return Counter.builder("import.products")
+                .tag("provider", providerId)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
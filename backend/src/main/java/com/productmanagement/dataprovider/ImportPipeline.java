@@ -0,0 +1,216 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Staged import pipeline: parse → normalize → associate → write.
+ * <p>
+ * The parse stage runs on its own thread, normalization on a fixed pool of platform
+ * threads and association on virtual threads, since strategies may block on the
+ * database. Stages are connected by bounded queues, so a slow stage applies
+ * backpressure to the ones before it.
+ * <p>
+ * The write stage runs on the calling thread and receives items strictly in input
+ * order, so the outcome is the same as processing the feed sequentially: when two
+ * rows target the same product, the later row wins. The number of items in flight
+ * is capped, which also bounds the reorder buffer in front of the write stage.
+ *
+ * @param <T> raw record type produced by the parse stage
+ */
+@Slf4j
+public class ImportPipeline<T> {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ImportProperties properties;
+    private final Supplier<Function<T, DataProviderProduct>> normalizers;
+    private final Function<DataProviderProduct, AssociationResult> associator;
+
+    /**
+     * @param normalizers called once per normalize worker, so that a normalizer can keep reusable
+     *                    state, such as a {@link ProductBuffer}, without synchronization
+     */
+    public ImportPipeline(ImportProperties properties,
+                          Supplier<Function<T, DataProviderProduct>> normalizers,
+                          Function<DataProviderProduct, AssociationResult> associator) {
+        this.properties = properties;
+        this.normalizers = normalizers;
+        this.associator = associator;
+    }
+
+    /**
+     * Parse stage: reads the input and passes each raw record to the sink.
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void read(Sink<T> sink) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Sink<T> {
+        /**
+         * @param raw the parsed record
+         * @param endOffset byte position in the input right after the record
+         */
+        void accept(T raw, long endOffset);
+    }
+
+    /**
+     * A record on its way through the pipeline.
+     * Exactly one of {@link #getAssociation()} and {@link #getError()} is set once it reaches the write stage.
+     */
+    @Getter
+    public static class Item<T> {
+        private final long sequence;
+        private final long endOffset;
+        private T raw;
+        private DataProviderProduct product;
+        private AssociationResult association;
+        private String error;
+
+        Item(long sequence, long endOffset, T raw) {
+            this.sequence = sequence;
+            this.endOffset = endOffset;
+            this.raw = raw;
+        }
+    }
+
+    /**
+     * Run the pipeline until the source is exhausted and every record has been written.
+     * @param source parse stage
+     * @param writer write stage, called on the calling thread in input order
+     */
+    public void run(Source<T> source, Consumer<Item<T>> writer) throws Exception {
+        int capacity = properties.getQueueCapacity();
+        BlockingQueue<Item<T>> normalizeQueue = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Item<T>> associateQueue = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Item<T>> writeQueue = new ArrayBlockingQueue<>(capacity);
+        Semaphore inFlight = new Semaphore(capacity * 4);
+        AtomicLong parsedTotal = new AtomicLong(-1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ExecutorService parseExecutor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("import-parse").factory());
+        ExecutorService normalizeExecutor = Executors.newFixedThreadPool(properties.getNormalizeWorkers(),
+                Thread.ofPlatform().name("import-normalize-", 0).factory());
+        ExecutorService associateExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("import-associate-", 0).factory());
+
+        try {
+            parseExecutor.execute(() -> {
+                long[] sequence = {0};
+                try {
+                    source.read((raw, endOffset) -> {
+                        try {
+                            inFlight.acquire();
+                            normalizeQueue.put(new Item<>(sequence[0]++, endOffset, raw));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new PipelineAbortedException();
+                        }
+                    });
+                    parsedTotal.set(sequence[0]);
+                } catch (PipelineAbortedException e) {
+                    // Shut down by the write stage, nothing to report.
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+
+            for (int i = 0; i < properties.getNormalizeWorkers(); i++) {
+                Function<T, DataProviderProduct> normalizer = normalizers.get();
+                normalizeExecutor.execute(() -> work(normalizeQueue, associateQueue,
+                        item -> normalize(item, normalizer), failure));
+            }
+            for (int i = 0; i < properties.getAssociateWorkers(); i++) {
+                associateExecutor.execute(() -> work(associateQueue, writeQueue, this::associate, failure));
+            }
+
+            PriorityQueue<Item<T>> reorderBuffer = new PriorityQueue<>(Comparator.comparingLong(Item::getSequence));
+            long next = 0;
+            while (true) {
+                Throwable error = failure.get();
+                if (error != null) {
+                    throw error instanceof Exception e ? e : new IllegalStateException(error);
+                }
+                long total = parsedTotal.get();
+                if (total >= 0 && next == total) {
+                    break;
+                }
+
+                Item<T> item = writeQueue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    continue;
+                }
+                reorderBuffer.add(item);
+                while (!reorderBuffer.isEmpty() && reorderBuffer.peek().getSequence() == next) {
+                    writer.accept(reorderBuffer.poll());
+                    inFlight.release();
+                    next++;
+                }
+            }
+        } finally {
+            parseExecutor.shutdownNow();
+            normalizeExecutor.shutdownNow();
+            associateExecutor.shutdownNow();
+        }
+    }
+
+    private void normalize(Item<T> item, Function<T, DataProviderProduct> normalizer) {
+        try {
+            item.product = normalizer.apply(item.raw);
+        } catch (Exception e) {
+            item.error = e.getMessage();
+        }
+        item.raw = null;
+    }
+
+    private void associate(Item<T> item) {
+        if (item.error != null) {
+            return;
+        }
+        try {
+            item.association = associator.apply(item.product);
+        } catch (Exception e) {
+            log.error("Error associating product {}: {}", item.product.getExternalId(), e.getMessage(), e);
+            item.error = e.getMessage();
+        }
+    }
+
+    /**
+     * Worker loop of a stage; ends when the worker is interrupted on shutdown.
+     */
+    private void work(BlockingQueue<Item<T>> input, BlockingQueue<Item<T>> output, Consumer<Item<T>> stage,
+                      AtomicReference<Throwable> failure) {
+        try {
+            while (true) {
+                Item<T> item = input.take();
+                stage.accept(item);
+                output.put(item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private static class PipelineAbortedException extends RuntimeException {
+    }
+}
@@ -0,0 +1,107 @@
+package com.productmanagement.dataprovider;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for data provider imports, bound from {@code dataprovider.import.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "dataprovider.import")
+@Data
+public class ImportProperties {
+
+    /**
+     * Directory that file system imports are restricted to.
+     * Paths passed to the import endpoint are resolved against it.
+     */
+    private String baseDirectory = "import";
+
+    /**
+     * Directory bulk loads write their neo4j-admin import files to, one subdirectory per bulk load.
+     */
+    private String bulkLoadDirectory = "bulk-load";
+
+    /**
+     * Number of products written per batched Cypher statement.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Number of records committed per transaction. Each committed chunk advances the
+     * checkpoint an interrupted import resumes from.
+     */
+    private int chunkSize = 10_000;
+
+    /**
+     * How often a chunk failing with a transient error is retried before the import fails.
+     */
+    private int chunkRetries = 3;
+
+    /**
+     * Skip products whose content and association did not change since the last import.
+     * Disable to force a full rewrite, e.g. after attribute nodes were edited in the database.
+     */
+    private boolean skipUnchanged = true;
+
+    /**
+     * Store each distinct attribute (name, value) pair as a single node shared by all products,
+     * instead of one node per product. Requires the migration in
+     * {@code infrastructure/neo4j/migrations/001-shared-attributes.cypher}.
+     */
+    private boolean sharedAttributes = false;
+
+    /**
+     * Distinct attributes kept by the in-process intern cache of an import.
+     */
+    private int attributeInternCacheSize = 100_000;
+
+    /**
+     * Capacity of each queue between pipeline stages.
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * Platform threads parsing a local JSON or BMEcat file, which is memory-mapped and split at
+     * record boundaries for them. 1 reads every file as a stream on the parse thread alone.
+     */
+    private int parseWorkers = 4;
+
+    /**
+     * Platform threads turning parsed records into products.
+     */
+    private int normalizeWorkers = 2;
+
+    /**
+     * Virtual threads running the association strategies.
+     */
+    private int associateWorkers = 16;
+
+    /**
+     * Shards of a multi-file import imported at the same time, each through its own pipeline.
+     */
+    private int shardWorkers = 2;
+
+    /**
+     * Minimum time between two progress summaries logged by a running import.
+     */
+    private Duration progressLogInterval = Duration.ofSeconds(10);
+
+    /**
+     * Imports running at the same time.
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * Imports waiting for a free slot before further submissions are rejected.
+     */
+    private int maxQueuedJobs = 10;
+
+    /**
+     * Finished jobs whose status is kept for polling.
+     */
+    private int finishedJobRetention = 100;
+}
@@ -2,23 +2,56 @@ package com.productmanagement.dataprovider;
 
 import lombok.Data;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Result of a data provider import operation.
+ * Counters are updated by the single write stage of the import and are volatile,
+ * so a running import can be observed from other threads.
  */
 @Data
 public class ImportResult {
     
-    private int totalProducts;
-    private int associatedProducts;
-    private int notAssociatedProducts;
+    private volatile int totalProducts;
+    private volatile int associatedProducts;
+    private volatile int notAssociatedProducts;
+    private volatile int unchangedProducts;
+    private volatile long processedRecords;
+    private volatile long bytesProcessed;
+    private volatile boolean failed;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
-    private List<String> errors = new ArrayList<>();
+    private long bytesRead;
+    private int batchesWritten;
+    private long rowsWritten;
+    private long batchWriteMillis;
+    private long maxBatchMillis;
+    private int chunksCommitted;
+    private int chunksRetried;
+    private long resumeOffset;
+
+    /**
+     * Arguments file for {@code neo4j-admin database import} written by a bulk load, null for imports
+     */
+    private String bulkLoadArguments;
+    private List<String> errors = Collections.synchronizedList(new ArrayList<>());
     
+    /**
+     * Record that the write stage handled one more record ending at the given byte position.
+     */
+    public void recordProcessed(long byteOffset) {
+        this.processedRecords++;
+        this.bytesProcessed = byteOffset;
+    }
+
+    public void incrementTotal() {
+        this.totalProducts++;
+    }
+
     public void incrementAssociated() {
         this.associatedProducts++;
     }
@@ -26,19 +59,121 @@ public class ImportResult {
     public void incrementNotAssociated() {
         this.notAssociatedProducts++;
     }
+
+    public void addAssociated(int count) {
+        this.associatedProducts += count;
+    }
+
+    public void addNotAssociated(int count) {
+        this.notAssociatedProducts += count;
+    }
+
+    /**
+     * Record associated products that were skipped because nothing changed since the last import.
+     */
+    public void addUnchanged(int count) {
+        this.unchangedProducts += count;
+    }
+
+    public void incrementChunksCommitted() {
+        this.chunksCommitted++;
+    }
+
+    public void incrementChunksRetried() {
+        this.chunksRetried++;
+    }
     
+    /**
+     * Record a batched write of {@code rows} products that took {@code millis}.
+     */
+    public void recordBatch(int rows, long millis) {
+        this.batchesWritten++;
+        this.rowsWritten += rows;
+        this.batchWriteMillis += millis;
+        this.maxBatchMillis = Math.max(this.maxBatchMillis, millis);
+    }
+
+    public double getAverageBatchSize() {
+        return batchesWritten > 0 ? (double) rowsWritten / batchesWritten : 0;
+    }
+
+    public double getAverageBatchMillis() {
+        return batchesWritten > 0 ? (double) batchWriteMillis / batchesWritten : 0;
+    }
+
+    /**
+     * Add the counts of a finished shard of a multi-file import.
+     * Processed records and bytes add up; the resume offset and arguments are per shard and not added.
+     */
+    public synchronized void add(ImportResult shard) {
+        this.totalProducts += shard.totalProducts;
+        this.associatedProducts += shard.associatedProducts;
+        this.notAssociatedProducts += shard.notAssociatedProducts;
+        this.unchangedProducts += shard.unchangedProducts;
+        this.processedRecords += shard.processedRecords;
+        this.bytesProcessed += shard.bytesProcessed;
+        this.bytesRead += shard.bytesRead;
+        this.batchesWritten += shard.batchesWritten;
+        this.rowsWritten += shard.rowsWritten;
+        this.batchWriteMillis += shard.batchWriteMillis;
+        this.maxBatchMillis = Math.max(this.maxBatchMillis, shard.maxBatchMillis);
+        this.chunksCommitted += shard.chunksCommitted;
+        this.chunksRetried += shard.chunksRetried;
+        this.errors.addAll(shard.errors);
+        if (shard.failed) {
+            this.failed = true;
+        }
+    }
+
     public void addError(String error) {
         this.errors.add(error);
     }
     
+    /**
+     * Record an error that aborted the import.
+     */
+    public void fail(String error) {
+        this.failed = true;
+        addError(error);
+    }
+
+    public int getErrorCount() {
+        return errors.size();
+    }
+
     public boolean hasErrors() {
         return !errors.isEmpty();
     }
+
+    /**
+     * Products processed per second, or 0 while the import is still running.
+     */
+    public double getProductsPerSecond() {
+        return perSecond(totalProducts);
+    }
+
+    /**
+     * Bytes of input read per second, or 0 while the import is still running.
+     */
+    public double getBytesPerSecond() {
+        return perSecond(bytesRead);
+    }
+
+    private double perSecond(long amount) {
+        if (startTime == null || endTime == null) {
+            return 0;
+        }
+        long millis = Duration.between(startTime, endTime).toMillis();
+        return millis > 0 ? amount * 1000.0 / millis : 0;
+    }
     
     @Override
     public String toString() {
-        return String.format("ImportResult[total=%d, associated=%d, unassociated=%d, errors=%d]",
-                totalProducts, associatedProducts, notAssociatedProducts, errors.size());
+        return String.format("ImportResult[total=%d, associated=%d, unchanged=%d, unassociated=%d, errors=%d, products/s=%.1f, bytes/s=%.0f, batches=%d, avgBatchSize=%.1f, avgBatchMs=%.1f, chunks=%d, retried=%d, resumedAt=%d]",
+                totalProducts, associatedProducts, unchangedProducts, notAssociatedProducts, errors.size(),
+                getProductsPerSecond(), getBytesPerSecond(),
+                batchesWritten, getAverageBatchSize(), getAverageBatchMillis(),
+                chunksCommitted, chunksRetried, resumeOffset);
     }
 }
 
@@ -0,0 +1,73 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An imported product waiting in an {@link ImportBatch} to be written.
+ * A row without internalId is stored as unassociated, together with the keys the
+ * {@link ReconciliationWorker} finds it by once a matching InternalProduct is saved.
+ */
+@Value
+@Builder
+public class ImportRow {
+
+    String dataProviderId;
+    String externalId;
+    String globalTradeIdentifier;
+    String manufacturerPid;
+    String contentHash;
+    Set<DataProviderAttribute> attributes;
+
+    /**
+     * The matched InternalProduct, or null if the product is unassociated.
+     */
+    String internalId;
+    String associationStrategy;
+    Double associationConfidence;
+
+    /**
+     * Category to set on the InternalProduct, or null if it does not change.
+     */
+    String category;
+
+    LocalDateTime timestamp;
+
+    /**
+     * Cypher parameter representation of this row.
+     */
+    public Map<String, Object> toParameters() {
+        List<Map<String, Object>> attributeParameters = new ArrayList<>(attributes.size());
+        for (DataProviderAttribute attribute : attributes) {
+            attributeParameters.add(Map.of(
+                    "name", attribute.getName(),
+                    "value", attribute.getValue()));
+        }
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("dataProviderId", dataProviderId);
+        parameters.put("externalId", externalId);
+        parameters.put("globalTradeIdentifier", globalTradeIdentifier);
+        parameters.put("manufacturerPid", manufacturerPid);
+        parameters.put("contentHash", contentHash);
+        parameters.put("attributes", attributeParameters);
+        parameters.put("internalId", internalId);
+        parameters.put("associationStrategy", associationStrategy);
+        parameters.put("associationConfidence", associationConfidence);
+        parameters.put("category", category);
+        parameters.put("timestamp", timestamp);
+        if (internalId == null) {
+            parameters.put("idKey", AssociationIndex.normalizeId(externalId));
+            parameters.put("partNumberKey", AssociationIndex.normalizeId(manufacturerPid));
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,174 @@
+package com.productmanagement.dataprovider;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Input of an import that can be opened repeatedly and identified by its content,
+ * which is what makes an interrupted import resumable.
+ * gzip and zstd compressed content is decompressed when opened, see {@link Compression}.
+ */
+public interface ImportSource {
+
+    int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Description of the source, used for logging.
+     */
+    String getName();
+
+    /**
+     * Open a new stream over the whole uncompressed content. The caller closes it.
+     */
+    InputStream open() throws IOException;
+
+    /**
+     * Hash identifying the content, used to find the checkpoint of an earlier run.
+     */
+    String fingerprint() throws IOException;
+
+    /**
+     * @return total uncompressed size in bytes, or -1 if unknown
+     */
+    default long size() {
+        return -1;
+    }
+
+    static ImportSource of(Path path) {
+        return new FileSource(path);
+    }
+
+    static ImportSource of(String name, Opener opener) {
+        return new StreamSource(name, opener);
+    }
+
+    static ImportSource ofClasspath(String location) {
+        ClassPathResource resource = new ClassPathResource(location);
+        return new StreamSource("classpath:" + location, () -> {
+            if (!resource.exists()) {
+                throw new IllegalArgumentException("Sample data file not found: " + location);
+            }
+            return resource.getInputStream();
+        });
+    }
+
+    /**
+     * A file. The fingerprint is a hash of the whole file as stored, so that a feed rewritten in
+     * place is not resumed from an earlier checkpoint. The size of a compressed file is unknown.
+     */
+    class FileSource implements ImportSource {
+
+        private static final int DIGEST_BUFFER_SIZE = 1024 * 1024;
+
+        private final Path path;
+
+        FileSource(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public String getName() {
+            return path.toString();
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Compression.decompress(new BufferedInputStream(Files.newInputStream(path), STREAM_BUFFER_SIZE));
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public boolean isCompressed() throws IOException {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 16)) {
+                return Compression.detect(in) != Compression.NONE;
+            }
+        }
+
+        @Override
+        public long size() {
+            try {
+                return isCompressed() ? -1 : Files.size(path);
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public String fingerprint() throws IOException {
+            MessageDigest digest = sha256();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    /**
+     * Content that can be opened repeatedly, such as an upload spooled to disk.
+     * The fingerprint is a hash of the whole content as stored.
+     */
+    class StreamSource implements ImportSource {
+
+        private final String name;
+        private final Opener opener;
+
+        StreamSource(String name, Opener opener) {
+            this.name = name;
+            this.opener = opener;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Compression.decompress(new BufferedInputStream(opener.open(), STREAM_BUFFER_SIZE));
+        }
+
+        @Override
+        public String fingerprint() throws IOException {
+            MessageDigest digest = sha256();
+            try (InputStream inputStream = opener.open()) {
+                byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    @FunctionalInterface
+    interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
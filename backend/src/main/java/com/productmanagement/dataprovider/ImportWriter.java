@@ -0,0 +1,398 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.domain.InternalProductAttribute;
+import com.productmanagement.repository.DataProviderProductBatchRepository;
+import com.productmanagement.repository.ImportCheckpointRepository;
+import com.productmanagement.service.InternalProductService;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Write stage of an import.
+ * Collects imported products into batches and commits them in chunks of
+ * {@link ImportProperties#getChunkSize()} records. Each chunk is written in one
+ * transaction together with the {@link com.productmanagement.domain.ImportCheckpoint},
+ * so after a failure the import can resume after the last committed chunk.
+ * Products no strategy matched are stored as unassociated, for the {@link ReconciliationWorker}.
+ * <p>
+ * Progress is logged as a summary at most once per {@link ImportProperties#getProgressLogInterval()};
+ * per-record figures are in the {@link ImportMetrics}.
+ * <p>
+ * Not thread-safe: one instance serves the write stage of a single import.
+ */
+@Slf4j
+public class ImportWriter implements RecordWriter {
+
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+
+    private final InternalProductService productService;
+    private final DataProviderProductBatchRepository batchRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties properties;
+    private final ImportMetrics metrics;
+    private final Map<String, AssociationStrategy> strategiesByName;
+    private final Counter associatedProducts;
+    private final Counter unchangedProducts;
+    private final Counter notAssociatedProducts;
+    private final Counter failedProducts;
+
+    private final String providerId;
+    private final String sourceHash;
+    private final long startOffset;
+    private final ImportResult result;
+
+    private final List<ImportBatch> chunk = new ArrayList<>();
+    private ImportBatch batch = new ImportBatch();
+    private int recordsInChunk;
+    private long recordOffset;
+    private long byteOffset;
+    private long lastProgressNanos = System.nanoTime();
+    private long recordsAtLastProgress;
+
+    /**
+     * @param sourceHash fingerprint of the source, or null if the import cannot be resumed
+     * @param startOffset number of records skipped because an earlier run already committed them
+     */
+    public ImportWriter(InternalProductService productService,
+                        DataProviderProductBatchRepository batchRepository,
+                        ImportCheckpointRepository checkpointRepository,
+                        TransactionTemplate transactionTemplate,
+                        ImportProperties properties,
+                        ImportMetrics metrics,
+                        Map<String, AssociationStrategy> strategiesByName,
+                        String providerId,
+                        String sourceHash,
+                        long startOffset,
+                        ImportResult result) {
+        this.productService = productService;
+        this.batchRepository = batchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.strategiesByName = strategiesByName;
+        this.providerId = providerId;
+        this.sourceHash = sourceHash;
+        this.startOffset = startOffset;
+        this.recordOffset = startOffset;
+        this.recordsAtLastProgress = startOffset;
+        this.result = result;
+        this.associatedProducts = metrics.products(providerId, ImportMetrics.ASSOCIATED);
+        this.unchangedProducts = metrics.products(providerId, ImportMetrics.UNCHANGED);
+        this.notAssociatedProducts = metrics.products(providerId, ImportMetrics.NOT_ASSOCIATED);
+        this.failedProducts = metrics.products(providerId, ImportMetrics.FAILED);
+    }
+
+    /**
+     * Queue a record for writing. Must be called in input order.
+     */
+    @Override
+    public void write(ImportPipeline.Item<?> item) {
+        recordsInChunk++;
+        recordOffset = startOffset + item.getSequence() + 1;
+        byteOffset = item.getEndOffset();
+        result.recordProcessed(byteOffset);
+
+        if (item.getError() != null) {
+            result.addError("Product processing failed: " + item.getError());
+            failedProducts.increment();
+        } else {
+            result.incrementTotal();
+            AssociationResult associationResult = item.getAssociation();
+            if (associationResult.hasMatch()) {
+                batch.add(item.getProduct(), associationResult.getInternalId().get(),
+                        strategiesByName.get(associationResult.getStrategyName()), associationResult.getConfidence());
+            } else {
+                batch.addUnassociated(item.getProduct());
+                result.incrementNotAssociated();
+                notAssociatedProducts.increment();
+            }
+            if (batch.size() >= properties.getBatchSize()) {
+                chunk.add(batch);
+                batch = new ImportBatch();
+            }
+        }
+
+        if (recordsInChunk >= properties.getChunkSize()) {
+            commitChunk();
+        }
+    }
+
+    /**
+     * Commit the remaining records and mark the checkpoint as completed.
+     */
+    @Override
+    public void finish() {
+        commitChunk();
+        if (sourceHash != null) {
+            transactionTemplate.executeWithoutResult(status -> checkpointRepository.markCompleted(providerId, sourceHash));
+        }
+    }
+
+    /**
+     * Write all queued batches and the checkpoint in one transaction,
+     * retrying the whole chunk on transient errors.
+     */
+    private void commitChunk() {
+        if (!batch.isEmpty()) {
+            chunk.add(batch);
+            batch = new ImportBatch();
+        }
+        if (recordsInChunk == 0) {
+            return;
+        }
+
+        int attempt = 0;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                List<BatchOutcome> outcomes = transactionTemplate.execute(status -> writeChunk());
+                metrics.recordChunk(true, System.nanoTime() - start);
+                outcomes.forEach(this::apply);
+                invalidateChangedProducts(outcomes);
+                break;
+            } catch (TransientDataAccessException e) {
+                metrics.recordChunk(false, System.nanoTime() - start);
+                if (attempt++ >= properties.getChunkRetries()) {
+                    throw e;
+                }
+                result.incrementChunksRetried();
+                log.warn("Chunk ending at record {} failed, retrying ({}/{}): {}",
+                        recordOffset, attempt, properties.getChunkRetries(), e.getMessage());
+                backOff(attempt);
+            }
+        }
+
+        result.incrementChunksCommitted();
+        chunk.clear();
+        recordsInChunk = 0;
+        logProgress();
+    }
+
+    /**
+     * Log a summary of the import if the last one is older than the progress log interval.
+     */
+    private void logProgress() {
+        long now = System.nanoTime();
+        long elapsed = now - lastProgressNanos;
+        if (elapsed < properties.getProgressLogInterval().toNanos()) {
+            return;
+        }
+        log.info("Import from {} at record {}: {} associated, {} unchanged, {} not associated, {} errors, {} records/s",
+                providerId, recordOffset, result.getAssociatedProducts(), result.getUnchangedProducts(),
+                result.getNotAssociatedProducts(), result.getErrorCount(),
+                (recordOffset - recordsAtLastProgress) * 1_000_000_000L / elapsed);
+        lastProgressNanos = now;
+        recordsAtLastProgress = recordOffset;
+    }
+
+    private List<BatchOutcome> writeChunk() {
+        List<BatchOutcome> outcomes = new ArrayList<>(chunk.size());
+        for (ImportBatch chunkBatch : chunk) {
+            outcomes.add(writeBatch(chunkBatch));
+        }
+        if (sourceHash != null) {
+            checkpointRepository.saveProgress(providerId, sourceHash, recordOffset, byteOffset,
+                    result.getChunksCommitted() + 1);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Write one batch with a single statement.
+     * The matched InternalProducts and the stored state of the batch are loaded with one
+     * query each. Products whose content hash and association are unchanged are skipped;
+     * a match that turns out to be stale is looked up again through its strategy. Products
+     * without a match are written as unassociated, unless they already are with the same content.
+     */
+    private BatchOutcome writeBatch(ImportBatch writeBatch) {
+        long start = System.nanoTime();
+        BatchOutcome outcome = new BatchOutcome();
+
+        Map<String, InternalProduct> products = new HashMap<>();
+        Map<String, DataProviderProductBatchRepository.StoredProduct> stored = metrics.timeBatchLoad(() -> {
+            for (InternalProduct product : productService.findAllById(writeBatch.getInternalIds())) {
+                products.put(product.getInternalId(), product);
+            }
+            return properties.isSkipUnchanged()
+                    ? batchRepository.findStored(providerId, writeBatch.getExternalIds())
+                    : Map.of();
+        });
+
+        List<Map<String, Object>> rows = new ArrayList<>(writeBatch.size());
+        for (ImportBatch.PendingProduct pending : writeBatch.getPending()) {
+            DataProviderProduct dpProduct = pending.getProduct();
+            if (pending.getInternalId() == null) {
+                if (!isStoredUnassociated(dpProduct, stored)) {
+                    rows.add(row(dpProduct, null, null, null, null));
+                }
+                continue;
+            }
+            AssociationStrategy strategy = pending.getStrategy();
+            InternalProduct internalProduct = products.get(pending.getInternalId());
+            boolean matchCurrent = internalProduct != null && strategy.stillMatches(dpProduct, internalProduct);
+            double confidence = pending.getConfidence();
+
+            if (matchCurrent && isUnchanged(dpProduct, internalProduct, stored)) {
+                outcome.associated++;
+                outcome.unchanged++;
+                continue;
+            }
+
+            if (!matchCurrent) {
+                Optional<InternalProduct> current = strategy.findMatch(dpProduct);
+                if (current.isEmpty()) {
+                    outcome.notAssociated++;
+                    if (!isStoredUnassociated(dpProduct, stored)) {
+                        rows.add(row(dpProduct, null, null, null, null));
+                    }
+                    continue;
+                }
+                internalProduct = products.computeIfAbsent(current.get().getInternalId(), id -> current.get());
+                confidence = strategy.getConfidence();
+            }
+
+            outcome.associated++;
+
+            // Products are shared across rows, so a later row sees the Category set by an earlier one.
+            String changedCategory = mapCategoryToInternalProduct(dpProduct.getCategory(), internalProduct);
+
+            if (changedCategory != null) {
+                outcome.changedProducts.add(internalProduct.getInternalId());
+            }
+            rows.add(row(dpProduct, internalProduct.getInternalId(), strategy.getName(), confidence, changedCategory));
+        }
+
+        long written = metrics.timeBatchWrite(() -> properties.isSharedAttributes()
+                ? batchRepository.upsertShared(rows)
+                : batchRepository.upsert(rows));
+        outcome.rows = rows.size();
+        outcome.skipped = rows.size() - written;
+        outcome.millis = (System.nanoTime() - start) / 1_000_000;
+        return outcome;
+    }
+
+    private Map<String, Object> row(DataProviderProduct dpProduct, String internalId, String strategyName,
+                                    Double confidence, String changedCategory) {
+        return ImportRow.builder()
+                .dataProviderId(providerId)
+                .externalId(dpProduct.getExternalId())
+                .globalTradeIdentifier(dpProduct.getGlobalTradeIdentifier())
+                .manufacturerPid(dpProduct.getManufacturerPid())
+                .contentHash(dpProduct.getContentHash())
+                .attributes(dpProduct.getAttributes())
+                .internalId(internalId)
+                .associationStrategy(strategyName)
+                .associationConfidence(confidence)
+                .category(changedCategory)
+                .timestamp(LocalDateTime.now())
+                .build()
+                .toParameters();
+    }
+
+    /**
+     * Whether the last import stored the same content as unassociated.
+     */
+    private boolean isStoredUnassociated(DataProviderProduct dpProduct,
+                                         Map<String, DataProviderProductBatchRepository.StoredProduct> stored) {
+        DataProviderProductBatchRepository.StoredProduct previous = stored.get(dpProduct.getExternalId());
+        return previous != null
+                && previous.isUnassociated()
+                && Objects.equals(previous.getContentHash(), dpProduct.getContentHash());
+    }
+
+    /**
+     * Whether the last import stored the same content with the same association.
+     */
+    private boolean isUnchanged(DataProviderProduct dpProduct, InternalProduct internalProduct,
+                                Map<String, DataProviderProductBatchRepository.StoredProduct> stored) {
+        DataProviderProductBatchRepository.StoredProduct previous = stored.get(dpProduct.getExternalId());
+        return previous != null
+                && Objects.equals(previous.getContentHash(), dpProduct.getContentHash())
+                && internalProduct.getInternalId().equals(previous.getInternalId());
+    }
+
+    /**
+     * Map the Category found while normalizing the DataProviderProduct to the InternalProduct.
+     * Adds or updates the Category attribute on the InternalProduct.
+     * @param categoryValue Category of the DataProviderProduct, or null if it has none
+     * @return the new Category value, or null if the InternalProduct was not changed
+     */
+    static String mapCategoryToInternalProduct(String categoryValue, InternalProduct internalProduct) {
+        if (categoryValue == null) {
+            return null;
+        }
+        for (InternalProductAttribute existing : internalProduct.getAttributes()) {
+            if (AttributeNames.isCategory(existing.getName())) {
+                if (categoryValue.equals(existing.getValue())) {
+                    return null;
+                }
+                internalProduct.removeAttribute(existing);
+                break;
+            }
+        }
+        internalProduct.addAttribute(InternalProductAttribute.of(AttributeNames.CATEGORY, categoryValue));
+        return categoryValue;
+    }
+
+    /**
+     * Apply the outcome of a committed batch to the import result.
+     */
+    private void apply(BatchOutcome outcome) {
+        result.addAssociated(outcome.associated);
+        result.addNotAssociated(outcome.notAssociated);
+        result.addUnchanged(outcome.unchanged);
+        associatedProducts.increment(outcome.associated - outcome.unchanged);
+        unchangedProducts.increment(outcome.unchanged);
+        notAssociatedProducts.increment(outcome.notAssociated);
+        if (outcome.rows > 0) {
+            result.recordBatch(outcome.rows, outcome.millis);
+        }
+        if (outcome.skipped > 0) {
+            result.addError(String.format("Batch write skipped %d of %d products whose InternalProduct no longer exists",
+                    outcome.skipped, outcome.rows));
+        }
+    }
+
+    /**
+     * Drop the InternalProducts whose Category the committed chunk changed from the product cache,
+     * with one invalidation for the whole chunk.
+     */
+    private void invalidateChangedProducts(List<BatchOutcome> outcomes) {
+        Set<String> changed = new HashSet<>();
+        for (BatchOutcome outcome : outcomes) {
+            changed.addAll(outcome.changedProducts);
+        }
+        productService.invalidateCached(changed);
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry chunk", e);
+        }
+    }
+
+    /**
+     * Counts of a written batch, applied to the result only once its chunk committed.
+     */
+    private static class BatchOutcome {
+        int associated;
+        int notAssociated;
+        int unchanged;
+        int rows;
+        long skipped;
+        long millis;
+        List<String> changedProducts = new ArrayList<>();
+    }
+}
@@ -0,0 +1,62 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.service.InternalProductService;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Association strategy that matches the external ID against the internalIds, for feeds that
+ * identify products by our own IDs. An exact match is certain; one that only matches after
+ * normalizing, such as {@code int-001} for {@code INT_001}, slightly less so.
+ */
+@Component
+@Order(2)
+public class InternalIdAssociationStrategy extends IdentifierAssociationStrategy {
+
+    private static final double NORMALIZED_CONFIDENCE = 0.9;
+
+    public InternalIdAssociationStrategy(InternalProductService productService, AssociationIndex associationIndex) {
+        super(productService, associationIndex);
+    }
+
+    @Override
+    protected String key(DataProviderProduct externalProduct) {
+        return externalProduct.getExternalId();
+    }
+
+    @Override
+    protected String lookup(AssociationIndex.Indexes indexes, String key) {
+        return indexes.findByInternalId(key);
+    }
+
+    @Override
+    protected Optional<InternalProduct> findWithoutIndex(String key) {
+        return productService.findById(key);
+    }
+
+    @Override
+    protected double confidence(String key, String internalId) {
+        return key.equals(internalId) ? 1.0 : NORMALIZED_CONFIDENCE;
+    }
+
+    @Override
+    public double getConfidence() {
+        return NORMALIZED_CONFIDENCE;
+    }
+
+    @Override
+    public boolean stillMatches(DataProviderProduct externalProduct, InternalProduct candidate) {
+        return Objects.equals(AssociationIndex.normalizeId(externalProduct.getExternalId()),
+                AssociationIndex.normalizeId(candidate.getInternalId()));
+    }
+
+    @Override
+    public String getName() {
+        return "InternalId";
+    }
+}
@@ -1,233 +1,140 @@
 package com.productmanagement.dataprovider;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.productmanagement.domain.DataProviderAttribute;
 import com.productmanagement.domain.DataProviderProduct;
-import com.productmanagement.domain.InternalProduct;
-import com.productmanagement.domain.InternalProductAttribute;
-import com.productmanagement.service.DataProviderProductService;
-import com.productmanagement.service.InternalProductService;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.time.LocalDateTime;
-import java.util.*;
+import java.util.function.LongUnaryOperator;
 
 /**
- * Data provider for importing products from JSON files.
- * Handles parsing, association, and persistence in a single workflow.
+ * Data provider for importing products from JSON files: a JSON array of objects with
+ * {@code internalId}, {@code globalTradeIdentifier} and {@code attributes} ({@code name}/{@code value}).
+ * The JSON array is streamed, so feeds larger than the heap can be imported.
+ * Local files are split between array elements and the splits parsed in parallel.
  */
 @Component
-@Slf4j
-public class JsonDataProvider {
+public class JsonDataProvider implements SplittableDataProvider<JsonNode> {
 
     private static final String PROVIDER_ID = "JsonDataProvider";
     private static final String SAMPLE_DATA_PATH = "sample-data/products-100.json";
 
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final InternalProductService productService;
-    private final DataProviderProductService dataProviderProductService;
-    private final List<AssociationStrategy> associationStrategies;
-
-    public JsonDataProvider(
-            InternalProductService productService,
-            DataProviderProductService dataProviderProductService,
-            GlobalTradeIdAssociationStrategy globalTradeIdAssociationStrategy) {
-        this.productService = productService;
-        this.dataProviderProductService = dataProviderProductService;
-        this.associationStrategies = List.of(globalTradeIdAssociationStrategy);
-    }
-
-    /**
-     * Import products from a JSON file.
-     * @return import statistics
-     */
-    @Transactional
-    public ImportResult importProducts() {
-        log.info("Starting import from classpath resource: {}", SAMPLE_DATA_PATH);
-
-        ImportResult result = new ImportResult();
-        result.setStartTime(LocalDateTime.now());
-
-        try {
-            ClassPathResource resource = new ClassPathResource(SAMPLE_DATA_PATH);
-
-            if (!resource.exists()) {
-                throw new IllegalArgumentException("Sample data file not found: " + SAMPLE_DATA_PATH);
-            }
-
-            try (InputStream inputStream = resource.getInputStream()) {
-                JsonNode rootNode = objectMapper.readTree(inputStream);
-
-                if (!rootNode.isArray()) {
-                    throw new IllegalArgumentException("Expected JSON array at root level");
-                }
-
-                int success = 0;
-                for (JsonNode productNode : rootNode) {
-                    try {
-                        processProduct(productNode, result);
-                        success++;
-                    } catch (Exception e) {
-                        log.error("Error processing product: {}", e.getMessage(), e);
-                        result.addError("Product processing failed: " + e.getMessage());
-                    }
-                }
 
-                result.setTotalProducts(success);
-            }
+    @Override
+    public String getProviderId() {
+        return PROVIDER_ID;
+    }
 
-            result.setEndTime(LocalDateTime.now());
-            log.info("Import completed: {}", result);
+    @Override
+    public String getFormat() {
+        return "json";
+    }
 
-        } catch (Exception e) {
-            log.error("Import failed: {}", e.getMessage(), e);
-            result.addError("Import failed: " + e.getMessage());
-            result.setEndTime(LocalDateTime.now());
-        }
+    @Override
+    public String getFileExtension() {
+        return ".json";
+    }
 
-        return result;
+    @Override
+    public ImportSource getSampleSource() {
+        return ImportSource.ofClasspath(SAMPLE_DATA_PATH);
     }
 
     /**
-     * Process a single product: parse, associate, and save.
+     * Stream the JSON array and pass each element on as its own tree.
+     * Only the current element is materialized, so memory usage does not depend on the feed size.
+     * @param skip number of leading elements to skip without building trees
+     * @return number of bytes read
      */
-    private void processProduct(JsonNode productNode, ImportResult result) {
-        try{
-            String externalId = productNode.has("internalId") ? productNode.get("internalId").asText() : null;
-            String gtin = productNode.has("globalTradeIdentifier") ? productNode.get("globalTradeIdentifier").asText() : null;
-
-            Set<DataProviderAttribute> attributes = new HashSet<>();
-            if (productNode.has("attributes") && productNode.get("attributes").isArray()) {
-                for (JsonNode attrNode : productNode.get("attributes")) {
-                    String name = attrNode.get("name").asText();
-                    String value = attrNode.get("value").asText();
-                    attributes.add(DataProviderAttribute.of(name, value));
-                }
-            }
-
-            DataProviderProduct tempProduct = DataProviderProduct.builder()
-                    .externalId(externalId)
-                    .globalTradeIdentifier(gtin)
-                    .attributes(attributes)
-                    .build();
-
-            AssociationResult associationResult = tryAssociate(tempProduct);
-
-            if (associationResult.getInternalProduct().isPresent()) {
-                InternalProduct internalProduct = associationResult.getInternalProduct().get();
-                String strategyUsed = associationResult.getStrategyName();
-                result.incrementAssociated();
-                log.debug("Associated {} with existing product {} using strategy {}",
-                         externalId, internalProduct.getInternalId(), strategyUsed);
-
-                mapCategoryToInternalProduct(attributes, internalProduct);
-                saveInternalProduct(internalProduct);
+    @Override
+    public long read(InputStream inputStream, long skip, ImportPipeline.Sink<JsonNode> sink) throws IOException {
+        return readElements(inputStream, skip, sink, LongUnaryOperator.identity());
+    }
 
-                saveDataProviderProduct(externalId, gtin, attributes, internalProduct, strategyUsed);
-            }else{
-                result.incrementNotAssociated();
-            }
+    @Override
+    public FeedSplitter splitter(long splitSize) {
+        return new JsonFeedSplitter(splitSize);
+    }
 
-        }catch (Exception e){
-            result.addError("Product processing failed: " + e.getMessage());
-            log.error("Error processing product: {}", e.getMessage(), e);
+    @Override
+    public boolean readSplit(FeedSplit split, InputStream input, ImportPipeline.Sink<JsonNode> sink) throws IOException {
+        try {
+            readElements(input, 0, sink, split::fileOffset);
+        } catch (JsonProcessingException e) {
+            // Line and column would be relative to the split
+            throw new IllegalArgumentException("Malformed JSON at byte "
+                    + split.fileOffset(e.getLocation() != null ? e.getLocation().getByteOffset() : 0)
+                    + ": " + e.getOriginalMessage(), e);
         }
+        return true;
     }
 
     /**
-     * Try to associate using available strategies.
+     * @param offsets maps offsets in the input to offsets in the file
      */
-    private AssociationResult tryAssociate(DataProviderProduct externalProduct) {
-        for (AssociationStrategy strategy : associationStrategies) {
-            Optional<InternalProduct> match = strategy.findMatch(externalProduct);
-            if (match.isPresent()) {
-                log.debug("Match found using strategy: {}", strategy.getName());
-                return new AssociationResult(match, strategy.getName());
+    private long readElements(InputStream inputStream, long skip, ImportPipeline.Sink<JsonNode> sink,
+                              LongUnaryOperator offsets) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            // The caller owns the stream
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected JSON array at root level");
             }
-        }
-        return new AssociationResult(Optional.empty(), null);
-    }
 
-    /**
-     * Map Category attribute from DataProviderProduct to InternalProduct.
-     * Adds or updates the Category attribute on the InternalProduct.
-     */
-    private void mapCategoryToInternalProduct(Set<DataProviderAttribute> dpAttributes, InternalProduct internalProduct) {
-        Optional<DataProviderAttribute> categoryAttr = dpAttributes.stream()
-                .filter(attr -> "Category".equalsIgnoreCase(attr.getName()))
-                .findFirst();
-
-        if (categoryAttr.isPresent()) {
-            String categoryValue = categoryAttr.get().getValue();
-
-            Optional<InternalProductAttribute> existingCategory = internalProduct.getAttributes().stream()
-                    .filter(attr -> "Category".equalsIgnoreCase(attr.getName()))
-                    .findFirst();
-
-            if (existingCategory.isPresent()) {
-                if (!categoryValue.equals(existingCategory.get().getValue())) {
-                    log.debug("Updating Category for product {} from '{}' to '{}'",
-                            internalProduct.getInternalId(),
-                            existingCategory.get().getValue(),
-                            categoryValue);
-                    internalProduct.removeAttribute(existingCategory.get());
-                    internalProduct.addAttribute(InternalProductAttribute.of("Category", categoryValue));
+            long index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unexpected end of input, JSON array is not closed");
                 }
-            } else {
-                log.debug("Adding Category '{}' to product {}",
-                        categoryValue, internalProduct.getInternalId());
-                internalProduct.addAttribute(InternalProductAttribute.of("Category", categoryValue));
+                if (index++ < skip) {
+                    parser.skipChildren();
+                    continue;
+                }
+                JsonNode element = objectMapper.readTree(parser);
+                sink.accept(element, offsets.applyAsLong(parser.currentLocation().getByteOffset()));
             }
+
+            return offsets.applyAsLong(parser.currentLocation().getByteOffset());
         }
     }
 
     /**
-     * Save InternalProduct with updated attributes.
+     * Turn a parsed product object into a DataProviderProduct.
      */
-    private void saveInternalProduct(InternalProduct internalProduct) {
-        productService.save(internalProduct);
-        log.debug("Saved InternalProduct {} with {} attributes",
-                internalProduct.getInternalId(), internalProduct.getAttributes().size());
-    }
+    @Override
+    public DataProviderProduct normalize(JsonNode productNode, ProductBuffer buffer) {
+        if (!productNode.isObject()) {
+            throw new IllegalArgumentException("array element is not a product object: " + productNode.getNodeType());
+        }
 
-    /**
-     * Save DataProviderProduct with association to InternalProduct.
-     */
-    private void saveDataProviderProduct(String externalId, String gtin,
-                                        Set<DataProviderAttribute> attributes,
-                                        InternalProduct internalProduct,
-                                        String strategyUsed) {
-
-        Optional<DataProviderProduct> existing = dataProviderProductService
-                .findByDataProviderIdAndExternalId(PROVIDER_ID, externalId);
-
-        DataProviderProduct dpProduct;
-        if (existing.isPresent()) {
-            dpProduct = existing.get();
-            dpProduct.setLastUpdatedAt(LocalDateTime.now());
-        } else {
-            dpProduct = DataProviderProduct.builder()
-                    .dataProviderId(PROVIDER_ID)
-                    .externalId(externalId)
-                    .globalTradeIdentifier(gtin)
-                    .importedAt(LocalDateTime.now())
-                    .lastUpdatedAt(LocalDateTime.now())
-                    .build();
+        JsonNode externalId = productNode.get("internalId");
+        JsonNode gtin = productNode.get("globalTradeIdentifier");
+
+        if (externalId == null) {
+            throw new IllegalArgumentException("missing internalId");
         }
 
-        dpProduct.setAssociatedProduct(internalProduct);
-        dpProduct.setAssociationStrategy(strategyUsed);
-        dpProduct.getAttributes().clear();
-        dpProduct.getAttributes().addAll(attributes);
+        buffer.clear();
+        JsonNode attributes = productNode.get("attributes");
+        if (attributes != null && attributes.isArray()) {
+            for (int i = 0; i < attributes.size(); i++) {
+                JsonNode attrNode = attributes.get(i);
+                JsonNode name = attrNode.get("name");
+                JsonNode value = attrNode.get("value");
+                if (name == null || value == null) {
+                    throw new IllegalArgumentException("attribute " + i + " is missing name or value");
+                }
+                buffer.attribute(name.asText(), value.asText());
+            }
+        }
 
-        dataProviderProductService.save(dpProduct);
-        log.debug("Saved DataProviderProduct {} with {} attributes",
-                externalId, dpProduct.getAttributes().size());
+        return buffer.build(externalId.asText(), gtin != null ? gtin.asText() : null, null);
     }
 }
-
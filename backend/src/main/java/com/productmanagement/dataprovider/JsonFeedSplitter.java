@@ -0,0 +1,115 @@
+package com.productmanagement.dataprovider;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a UTF-8 JSON array between its top-level elements. Only string, escape and nesting state
+ * is tracked: splits close at a comma at depth one, and each split covers whole elements, parsed
+ * as an array of its own between brackets.
+ * <p>
+ * Files that do not start with an array are not split, so that reading them as a stream reports
+ * the error as before. If the array is not closed, the last split runs to the end of the file
+ * without a closing bracket, so that its parser reports that error instead.
+ */
+class JsonFeedSplitter implements FeedSplitter {
+
+    private static final byte[] OPEN = "[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE = "]".getBytes(StandardCharsets.US_ASCII);
+    private static final int BOM_LENGTH = 3;
+
+    private final long splitSize;
+    private List<FeedSplit> splits = new ArrayList<>();
+
+    private boolean started;
+    private boolean inString;
+    private boolean escaped;
+    private int depth;
+    private long splitStart;
+    private long nextSplit;
+    private long arrayEnd = -1;
+    private boolean unsplittable;
+
+    JsonFeedSplitter(long splitSize) {
+        this.splitSize = splitSize;
+    }
+
+    @Override
+    public boolean scan(ByteBuffer window, long offset) {
+        int base = window.position();
+        int limit = window.limit();
+        int i = base;
+        for (; !started && i < limit; i++) {
+            byte b = window.get(i);
+            if (b == '[') {
+                started = true;
+                depth = 1;
+                splitStart = offset + i - base + 1;
+                nextSplit = splitStart + splitSize;
+            } else if (!isWhitespace(b) && !(offset + i - base < BOM_LENGTH && b < 0)) {
+                unsplittable = true;
+                return false;
+            }
+        }
+
+        // State in locals and a counted loop, so that the JIT keeps the loop tight
+        boolean string = inString;
+        boolean escape = escaped;
+        int level = depth;
+        for (; i < limit; i++) {
+            byte b = window.get(i);
+            if (string) {
+                if (escape) {
+                    escape = false;
+                } else if (b == '\\') {
+                    escape = true;
+                } else if (b == '"') {
+                    string = false;
+                }
+            } else if (b == '"') {
+                string = true;
+            } else if (b == '{' || b == '[') {
+                level++;
+            } else if (b == '}' || b == ']') {
+                if (--level == 0) {
+                    arrayEnd = offset + i - base;
+                    return false;
+                }
+            } else if (b == ',' && level == 1) {
+                long position = offset + i - base;
+                if (position >= nextSplit) {
+                    splits.add(new FeedSplit(splitStart, position, OPEN, CLOSE));
+                    splitStart = position + 1;
+                    nextSplit = splitStart + splitSize;
+                }
+            }
+        }
+        inString = string;
+        escaped = escape;
+        depth = level;
+        return true;
+    }
+
+    @Override
+    public List<FeedSplit> takeSplits() {
+        List<FeedSplit> taken = splits;
+        splits = new ArrayList<>();
+        return taken;
+    }
+
+    @Override
+    public FeedSplit finish(long size) {
+        if (unsplittable || !started) {
+            return null;
+        }
+        return arrayEnd >= 0
+                ? new FeedSplit(splitStart, arrayEnd, OPEN, CLOSE)
+                : new FeedSplit(splitStart, size, OPEN, null);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
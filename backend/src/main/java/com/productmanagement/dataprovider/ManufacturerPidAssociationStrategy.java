@@ -0,0 +1,67 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.domain.InternalProductAttribute;
+import com.productmanagement.service.InternalProductService;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Association strategy that matches the BMEcat {@code MANUFACTURER_PID} against the part number
+ * attribute of the InternalProducts ({@code dataprovider.association.part-number-attribute}).
+ * Part numbers are assigned per distributor rather than globally like GTINs, so matches are less
+ * certain. Only available while an import is running or the {@link ReconciliationWorker} passes
+ * indexes, since part numbers are not indexed in the database.
+ */
+@Component
+@Order(3)
+public class ManufacturerPidAssociationStrategy extends IdentifierAssociationStrategy {
+
+    private final AssociationProperties properties;
+
+    public ManufacturerPidAssociationStrategy(InternalProductService productService, AssociationIndex associationIndex,
+                                              AssociationProperties properties) {
+        super(productService, associationIndex);
+        this.properties = properties;
+    }
+
+    @Override
+    protected String key(DataProviderProduct externalProduct) {
+        return externalProduct.getManufacturerPid();
+    }
+
+    @Override
+    protected String lookup(AssociationIndex.Indexes indexes, String key) {
+        return indexes.findByPartNumber(key);
+    }
+
+    @Override
+    protected Optional<InternalProduct> findWithoutIndex(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public double getConfidence() {
+        return 0.9;
+    }
+
+    @Override
+    public boolean stillMatches(DataProviderProduct externalProduct, InternalProduct candidate) {
+        String key = AssociationIndex.normalizeId(externalProduct.getManufacturerPid());
+        for (InternalProductAttribute attribute : candidate.getAttributes()) {
+            if (properties.getPartNumberAttribute().equalsIgnoreCase(attribute.getName())
+                    && key != null && key.equals(AssociationIndex.normalizeId(attribute.getValue()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return "ManufacturerPid";
+    }
+}
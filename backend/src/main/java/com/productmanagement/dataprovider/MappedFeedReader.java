@@ -0,0 +1,286 @@
+package com.productmanagement.dataprovider;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parse stage for local feed files of a {@link SplittableDataProvider}: the file is memory-mapped,
+ * split at record boundaries, and the splits are parsed on a pool of threads from the mapped pages,
+ * with no read calls and no stream buffer between the page cache and the parsers.
+ * <p>
+ * Each split has a bounded queue of its own and the records are passed to the sink split by split,
+ * so they arrive in file order, with file offsets, exactly as from {@link DataProvider#read}.
+ * Only a window of splits ahead of the one being passed on is parsed, which bounds the records
+ * held in memory, and the file is scanned for splits only as far as they are needed, so scanning
+ * overlaps parsing. Files too small to be worth splitting, or that the provider cannot split, are
+ * read as a stream.
+ */
+@Slf4j
+class MappedFeedReader<T> {
+
+    /**
+     * Smallest split; smaller files are read as a stream.
+     */
+    static final long MIN_SPLIT_SIZE = 1024 * 1024;
+
+    private static final long MAX_SPLIT_SIZE = 64L * 1024 * 1024;
+    private static final int SPLITS_PER_WORKER = 4;
+    private static final int SPLITS_AHEAD_PER_WORKER = 2;
+    private static final int BATCH_SIZE = 256;
+    private static final long SCAN_WINDOW = 64L * 1024 * 1024;
+    private static final long MAX_MAPPING = 1L << 30;
+
+    private final SplittableDataProvider<T> provider;
+    private final Path path;
+    private final int workers;
+    private final int queueCapacity;
+
+    /**
+     * @param workers threads parsing splits
+     * @param queueCapacity records buffered per split
+     */
+    MappedFeedReader(SplittableDataProvider<T> provider, Path path, int workers, int queueCapacity) {
+        this.provider = provider;
+        this.path = path;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Read the file like {@link DataProvider#read}.
+     * @return number of bytes read
+     */
+    long read(long skip, ImportPipeline.Sink<T> sink) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long splitSize = Math.clamp(size / ((long) workers * SPLITS_PER_WORKER), MIN_SPLIT_SIZE, MAX_SPLIT_SIZE);
+            Splits splits = new Splits(channel, size, provider.splitter(splitSize));
+            if (size < 2 * MIN_SPLIT_SIZE || !splits.atLeast(2)) {
+                return provider.read(new BufferedInputStream(Channels.newInputStream(channel),
+                        ImportSource.STREAM_BUFFER_SIZE), skip, sink);
+            }
+            log.info("Reading {} in splits of {} MiB with {} threads", path, splitSize >> 20, workers);
+            parse(channel, splits, skip, sink);
+            return size;
+        }
+    }
+
+    /**
+     * Pass the records of all splits to the sink in order, parsing up to
+     * {@link #SPLITS_AHEAD_PER_WORKER} splits per thread ahead of the one being passed on.
+     * The file is scanned for further splits on this thread while they are parsed.
+     */
+    private void parse(FileChannel channel, Splits splits, long skip, ImportPipeline.Sink<T> sink) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("import-split-", 0).factory());
+        try {
+            Deque<SplitTask> tasks = new ArrayDeque<>();
+            long index = 0;
+            while (true) {
+                FeedSplit split;
+                while (tasks.size() < workers * SPLITS_AHEAD_PER_WORKER && (split = splits.next()) != null) {
+                    SplitTask task = new SplitTask(channel, split);
+                    executor.execute(task);
+                    tasks.add(task);
+                }
+                SplitTask task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                Batch<T> batch;
+                while (!(batch = task.batches.take()).isEnd()) {
+                    for (int r = 0; r < batch.size; r++) {
+                        if (index++ >= skip) {
+                            sink.accept(batch.records.get(r), batch.endOffsets[r]);
+                        }
+                    }
+                }
+                if (task.failure != null) {
+                    throw task.failure instanceof Exception e ? e : new IllegalStateException(task.failure);
+                }
+                if (!task.complete) {
+                    break;
+                }
+            }
+        } finally {
+            // Workers blocked on a full queue are interrupted; waits for them before the file is closed
+            executor.shutdownNow();
+            executor.close();
+        }
+    }
+
+    /**
+     * Splits of the file, found by scanning it a window at a time as they are needed.
+     */
+    private static class Splits {
+
+        private final FileChannel channel;
+        private final long size;
+        private final FeedSplitter splitter;
+        private final Deque<FeedSplit> found = new ArrayDeque<>();
+        private long scanned;
+        private boolean finished;
+
+        Splits(FileChannel channel, long size, FeedSplitter splitter) {
+            this.channel = channel;
+            this.size = size;
+            this.splitter = splitter;
+        }
+
+        boolean atLeast(int count) throws IOException {
+            while (found.size() < count && scan()) {
+                // Scan further
+            }
+            return found.size() >= count;
+        }
+
+        /**
+         * @return the next split, or null after the last one
+         */
+        FeedSplit next() throws IOException {
+            while (found.isEmpty() && scan()) {
+                // Scan further
+            }
+            return found.poll();
+        }
+
+        /**
+         * @return false if the whole file has been scanned
+         */
+        private boolean scan() throws IOException {
+            if (finished) {
+                return false;
+            }
+            if (scanned < size) {
+                long length = Math.min(SCAN_WINDOW, size - scanned);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, scanned, length);
+                scanned = splitter.scan(window, scanned) ? scanned + length : size;
+                found.addAll(splitter.takeSplits());
+            } else {
+                finished = true;
+                FeedSplit last = splitter.finish(size);
+                if (last != null) {
+                    found.add(last);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Records handed over together, to keep queue operations off the per-record path.
+     */
+    private static class Batch<T> {
+
+        final List<T> records;
+        final long[] endOffsets;
+        int size;
+
+        Batch(int capacity) {
+            records = new ArrayList<>(capacity);
+            endOffsets = new long[capacity];
+        }
+
+        void add(T record, long endOffset) {
+            records.add(record);
+            endOffsets[size++] = endOffset;
+        }
+
+        boolean isFull() {
+            return size == endOffsets.length;
+        }
+
+        boolean isEnd() {
+            return endOffsets.length == 0;
+        }
+    }
+
+    /**
+     * Parses one split into its queue, ending it with an empty batch.
+     * The outcome is published to the consumer by the queue.
+     * Interrupted while waiting for queue space when the read is cancelled.
+     */
+    private class SplitTask implements Runnable {
+
+        private final FileChannel channel;
+        private final FeedSplit split;
+        private final BlockingQueue<Batch<T>> batches =
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity / BATCH_SIZE));
+        private Batch<T> batch = new Batch<>(BATCH_SIZE);
+        private boolean complete;
+        private Throwable failure;
+
+        SplitTask(FileChannel channel, FeedSplit split) {
+            this.channel = channel;
+            this.split = split;
+        }
+
+        @Override
+        public void run() {
+            try {
+                complete = provider.readSplit(split, new ByteBufferInputStream(map()), this::add);
+            } catch (SplitCancelledException e) {
+                return;
+            } catch (Throwable e) {
+                failure = e;
+            }
+            try {
+                // The records before a failure are passed on first, as from a stream
+                if (batch.size > 0) {
+                    batches.put(batch);
+                }
+                batches.put(new Batch<>(0));
+            } catch (InterruptedException e) {
+                // Cancelled, nobody is waiting for the split
+            }
+        }
+
+        /**
+         * @return the prefix, the content mapped in pieces of at most {@link #MAX_MAPPING} bytes, and the suffix
+         */
+        private ByteBuffer[] map() throws IOException {
+            List<ByteBuffer> buffers = new ArrayList<>();
+            buffers.add(ByteBuffer.wrap(split.getPrefix()));
+            for (long position = split.getStart(); position < split.getEnd(); position += MAX_MAPPING) {
+                buffers.add(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAX_MAPPING, split.getEnd() - position)));
+            }
+            buffers.add(ByteBuffer.wrap(split.getSuffix()));
+            return buffers.toArray(ByteBuffer[]::new);
+        }
+
+        private void add(T record, long endOffset) {
+            batch.add(record, endOffset);
+            if (batch.isFull()) {
+                try {
+                    batches.put(batch);
+                } catch (InterruptedException e) {
+                    throw new SplitCancelledException();
+                }
+                batch = new Batch<>(BATCH_SIZE);
+            }
+        }
+    }
+
+    private static class SplitCancelledException extends RuntimeException {
+        SplitCancelledException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Per-worker scratch space for normalizing records into DataProviderProducts.
+ * A provider {@linkplain #clear() clears} the buffer, adds the attributes of one record and
+ * {@linkplain #build builds} the product. Attribute arrays, the interner probe and the hash
+ * buffers are reused for the next record, so normalizing allocates little more than the product,
+ * its attribute set and the attributes that are not interned yet.
+ * <p>
+ * Not thread-safe: the pipeline gives each normalize worker its own buffer.
+ */
+public final class ProductBuffer {
+
+    private final AttributeInterner interner;
+    private final DataProviderAttribute probe = new DataProviderAttribute();
+    private final ProductContentHash contentHash = new ProductContentHash();
+    private DataProviderAttribute[] attributes = new DataProviderAttribute[16];
+    private int count;
+    private String category;
+
+    /**
+     * Buffer whose attributes are not interned, for normalizing outside an import.
+     */
+    public ProductBuffer() {
+        this(null);
+    }
+
+    ProductBuffer(AttributeInterner interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Drop the attributes of the previous record.
+     * @return this buffer
+     */
+    public ProductBuffer clear() {
+        Arrays.fill(attributes, 0, count, null);
+        count = 0;
+        category = null;
+        return this;
+    }
+
+    /**
+     * Add an attribute of the current record. Well-known names are replaced by their
+     * canonical instance and the first Category is remembered for the writer.
+     */
+    public void attribute(String name, String value) {
+        name = AttributeNames.canonical(name);
+        if (category == null && AttributeNames.isCategory(name)) {
+            category = value;
+        }
+        if (count == attributes.length) {
+            attributes = Arrays.copyOf(attributes, count * 2);
+        }
+        attributes[count++] = interner != null
+                ? interner.intern(name, value, probe)
+                : new DataProviderAttribute(null, name, value);
+    }
+
+    /**
+     * The product of the current record, with its content hash.
+     * Its attribute set is unmodifiable and free of duplicates.
+     */
+    public DataProviderProduct build(String externalId, String globalTradeIdentifier, String manufacturerPid) {
+        Arrays.sort(attributes, 0, count, ProductContentHash.ATTRIBUTE_ORDER);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || !attributes[i].equals(attributes[distinct - 1])) {
+                attributes[distinct++] = attributes[i];
+            }
+        }
+        Arrays.fill(attributes, distinct, count, null);
+        count = distinct;
+
+        return DataProviderProduct.builder()
+                .externalId(externalId)
+                .globalTradeIdentifier(globalTradeIdentifier)
+                .manufacturerPid(manufacturerPid)
+                .contentHash(contentHash.of(globalTradeIdentifier, manufacturerPid, attributes, count))
+                .attributes(Set.of(Arrays.copyOf(attributes, count)))
+                .category(category)
+                .build();
+    }
+}
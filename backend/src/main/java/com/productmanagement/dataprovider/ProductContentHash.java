@@ -0,0 +1,110 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Hash of the imported content of a DataProviderProduct: identifiers and attributes,
+ * independent of attribute order. Two imports of the same product with the same hash
+ * write the same data, so the second one can be skipped.
+ * <p>
+ * An instance keeps its digest and byte buffers between products, so hashing allocates only
+ * the resulting string. Not thread-safe; each {@link ProductBuffer} has its own.
+ */
+final class ProductContentHash {
+
+    static final Comparator<DataProviderAttribute> ATTRIBUTE_ORDER =
+            Comparator.comparing(DataProviderAttribute::getName)
+                    .thenComparing(DataProviderAttribute::getValue);
+
+    /**
+     * Truncated to 128 bits, which keeps the stored property short and collisions negligible.
+     */
+    private static final int HASH_BYTES = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final MessageDigest digest = sha256();
+    private final byte[] hash = new byte[digest.getDigestLength()];
+    private final byte[] truncated = new byte[HASH_BYTES];
+    private final byte[] encoded = new byte[(HASH_BYTES * 4 + 2) / 3];
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Hash of a product.
+     * @param attributes the first {@code count} entries are the attributes, sorted by {@link #ATTRIBUTE_ORDER}
+     */
+    String of(String globalTradeIdentifier, String manufacturerPid, DataProviderAttribute[] attributes, int count) {
+        update(globalTradeIdentifier);
+        update(manufacturerPid);
+        for (int i = 0; i < count; i++) {
+            update(attributes[i].getName());
+            update(attributes[i].getValue());
+        }
+
+        try {
+            digest.digest(hash, 0, hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        System.arraycopy(hash, 0, truncated, 0, HASH_BYTES);
+        int length = ENCODER.encode(truncated, encoded);
+        return new String(encoded, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Length-prefixed, so that ("ab", "c") and ("a", "bc") hash differently.
+     */
+    private void update(String value) {
+        if (value == null) {
+            digest.update((byte) 0xFF);
+            return;
+        }
+        byte[] bytes;
+        int length = ascii(value);
+        if (length >= 0) {
+            bytes = scratch;
+        } else {
+            bytes = value.getBytes(StandardCharsets.UTF_8);
+            length = bytes.length;
+        }
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        digest.update(bytes, 0, length);
+    }
+
+    /**
+     * Copy an ASCII string into the scratch buffer, where its UTF-8 encoding is one byte per char.
+     * @return the length, or -1 if the string has other characters
+     */
+    private int ascii(String value) {
+        int length = value.length();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return -1;
+            }
+            scratch[i] = (byte) c;
+        }
+        return length;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
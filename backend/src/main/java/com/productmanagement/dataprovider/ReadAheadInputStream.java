@@ -0,0 +1,140 @@
+package com.productmanagement.dataprovider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a stream on a background thread into a small bounded queue of blocks, so that producing
+ * the bytes, such as inflating a compressed feed, overlaps with consuming them.
+ * A failure of the background read is thrown to the consumer once it reaches that point.
+ * <p>
+ * Not thread-safe: one consumer reads the stream.
+ */
+class ReadAheadInputStream extends InputStream {
+
+    private static final int BLOCK_SIZE = ImportSource.STREAM_BUFFER_SIZE;
+    private static final int BLOCKS = 16;
+    private static final byte[] END = new byte[0];
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(BLOCKS);
+    private final Thread reader;
+    private volatile Throwable failure;
+
+    private byte[] block;
+    private int position;
+    private boolean ended;
+
+    ReadAheadInputStream(InputStream source) {
+        this.source = source;
+        this.reader = Thread.ofPlatform().daemon().name("import-read-ahead").start(this::readAhead);
+    }
+
+    private void readAhead() {
+        boolean closed = false;
+        try {
+            while (true) {
+                byte[] buffer = new byte[BLOCK_SIZE];
+                int read = source.readNBytes(buffer, 0, BLOCK_SIZE);
+                if (read > 0) {
+                    blocks.put(read == BLOCK_SIZE ? buffer : Arrays.copyOf(buffer, read));
+                }
+                if (read < BLOCK_SIZE) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+            closed = true;
+        } catch (Throwable e) {
+            // Any failure, such as of a native decompressor, must reach the consumer
+            failure = e;
+        } finally {
+            if (!closed) {
+                try {
+                    blocks.put(END);
+                } catch (InterruptedException e) {
+                    // Closed by the consumer
+                }
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!hasBytes()) {
+            return -1;
+        }
+        return block[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!hasBytes()) {
+            return -1;
+        }
+        int read = Math.min(length, block.length - position);
+        System.arraycopy(block, position, buffer, offset, read);
+        position += read;
+        return read;
+    }
+
+    /**
+     * Make sure the current block has bytes left, taking the next one if needed.
+     * @return false at the end of the stream
+     */
+    private boolean hasBytes() throws IOException {
+        if (block != null && position < block.length) {
+            return true;
+        }
+        if (ended) {
+            return false;
+        }
+        try {
+            block = blocks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+        position = 0;
+        if (block == END) {
+            ended = true;
+            if (failure != null) {
+                throwFailure();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void throwFailure() throws IOException {
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        throw new IOException("Reading ahead failed", failure);
+    }
+
+    @Override
+    public int available() {
+        return block != null ? block.length - position : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.interrupt();
+        source.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.productmanagement.dataprovider;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link ReconciliationWorker}, bound from {@code dataprovider.reconciliation.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "dataprovider.reconciliation")
+@Data
+public class ReconciliationProperties {
+
+    /**
+     * Associate stored unassociated products when a matching InternalProduct is saved.
+     * When disabled they are only associated by the next import of their feed.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between two runs over the saved InternalProducts.
+     */
+    private Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * Saved InternalProducts reconciled per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Unassociated products loaded per transaction at most. Candidates beyond the limit stay
+     * unassociated until the next import of their feed.
+     */
+    private int maxCandidates = 10_000;
+
+    /**
+     * How often the backlog gauge is recounted while no InternalProduct is saved.
+     */
+    private Duration backlogRefreshInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,316 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.repository.DataProviderProductBatchRepository;
+import com.productmanagement.repository.InternalProductBatchRepository;
+import com.productmanagement.service.InternalProductSavedEvent;
+import com.productmanagement.service.InternalProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Associates the products imports stored as unassociated once a matching InternalProduct is saved.
+ * <p>
+ * Saved InternalProducts are queued after commit; products written by other means can be queued
+ * through {@link #enqueue}. A background thread takes up to
+ * {@link ReconciliationProperties#getBatchSize()} of them per transaction, loads the unassociated
+ * products sharing a GTIN, normalized internalId or part number with them through the indexes on
+ * the unassociated keys, and runs the association strategies against
+ * {@linkplain AssociationIndex#of indexes over just the saved products}. The work per run
+ * therefore depends on the saved products and their candidates, not on the size of the backlog.
+ * Words are no key here: a product only the fuzzy strategy could match waits for the next import
+ * of its feed.
+ * <p>
+ * Meters: the counter {@code reconciliation.products} by outcome (associated, unmatched candidates,
+ * and stale ones an import wrote meanwhile), the timer {@code reconciliation.run} per transaction,
+ * and the gauges {@code reconciliation.queued} (saved products waiting) and
+ * {@code reconciliation.backlog} (products stored as unassociated, recounted after each run and
+ * at least every {@link ReconciliationProperties#getBacklogRefreshInterval()}).
+ */
+@Component
+@Slf4j
+public class ReconciliationWorker implements ApplicationRunner, DisposableBean {
+
+    private final List<AssociationStrategy> strategies;
+    private final AssociationIndex associationIndex;
+    private final AssociationProperties associationProperties;
+    private final ImportProperties importProperties;
+    private final ReconciliationProperties properties;
+    private final InternalProductBatchRepository productBatchRepository;
+    private final DataProviderProductBatchRepository batchRepository;
+    private final InternalProductService productService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter associatedProducts;
+    private final Counter unmatchedProducts;
+    private final Counter staleProducts;
+    private final Timer run;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reconciliation-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long nextBacklogCount = System.nanoTime();
+
+    public ReconciliationWorker(List<AssociationStrategy> strategies,
+                                AssociationIndex associationIndex,
+                                AssociationProperties associationProperties,
+                                ImportProperties importProperties,
+                                ReconciliationProperties properties,
+                                InternalProductBatchRepository productBatchRepository,
+                                DataProviderProductBatchRepository batchRepository,
+                                InternalProductService productService,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry registry) {
+        this.strategies = strategies;
+        this.associationIndex = associationIndex;
+        this.associationProperties = associationProperties;
+        this.importProperties = importProperties;
+        this.properties = properties;
+        this.productBatchRepository = productBatchRepository;
+        this.batchRepository = batchRepository;
+        this.productService = productService;
+        this.transactionTemplate = transactionTemplate;
+        this.associatedProducts = products(registry, "associated");
+        this.unmatchedProducts = products(registry, "unmatched");
+        this.staleProducts = products(registry, "stale");
+        this.run = Timer.builder("reconciliation.run").register(registry);
+        Gauge.builder("reconciliation.queued", queued, Set::size).register(registry);
+        Gauge.builder("reconciliation.backlog", backlog, AtomicLong::get).register(registry);
+    }
+
+    private static Counter products(MeterRegistry registry, String outcome) {
+        return Counter.builder("reconciliation.products").tag("outcome", outcome).register(registry);
+    }
+
+    /**
+     * Start the worker once the schema exists.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isEnabled()) {
+            long interval = properties.getInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::reconcileQueued, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInternalProductSaved(InternalProductSavedEvent event) {
+        if (properties.isEnabled()) {
+            queued.add(event.getInternalId());
+        }
+    }
+
+    /**
+     * Queue InternalProducts that were created or changed outside the application, e.g. by a script.
+     * @return false if the worker is disabled
+     */
+    public boolean enqueue(Collection<String> internalIds) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        queued.addAll(internalIds);
+        return true;
+    }
+
+    /**
+     * Reconcile everything queued so far, then recount the backlog if due.
+     */
+    void reconcileQueued() {
+        try {
+            boolean reconciled = false;
+            while (!queued.isEmpty()) {
+                List<String> internalIds = take(properties.getBatchSize());
+                try {
+                    run.record(() -> reconcile(internalIds));
+                    reconciled = true;
+                } catch (TransientDataAccessException e) {
+                    queued.addAll(internalIds);
+                    log.warn("Reconciling {} saved products failed, retrying with the next run: {}",
+                            internalIds.size(), e.getMessage());
+                    break;
+                }
+            }
+            long now = System.nanoTime();
+            if (reconciled || now - nextBacklogCount >= 0) {
+                backlog.set(batchRepository.countUnassociated());
+                nextBacklogCount = now + properties.getBacklogRefreshInterval().toNanos();
+            }
+        } catch (RuntimeException e) {
+            // Keep the worker alive; the products stay unassociated until the next import of their feed.
+            log.warn("Reconciling unassociated products failed: {}", e.getMessage());
+        }
+    }
+
+    private List<String> take(int max) {
+        List<String> internalIds = new ArrayList<>(Math.min(max, queued.size()));
+        Iterator<String> iterator = queued.iterator();
+        while (iterator.hasNext() && internalIds.size() < max) {
+            internalIds.add(iterator.next());
+            iterator.remove();
+        }
+        return internalIds;
+    }
+
+    /**
+     * Associate the unassociated products matching the given InternalProducts in one transaction.
+     */
+    private void reconcile(List<String> internalIds) {
+        Outcome outcome = transactionTemplate.execute(status -> {
+            List<InternalProductBatchRepository.ProductKeys> products = productBatchRepository.findProductKeys(
+                    internalIds, associationProperties.getPartNumberAttribute(), associationProperties.getFuzzyAttributes());
+            Set<String> gtins = new HashSet<>();
+            Set<String> idKeys = new HashSet<>();
+            Set<String> partNumberKeys = new HashSet<>();
+            for (InternalProductBatchRepository.ProductKeys keys : products) {
+                if (keys.getGlobalTradeIdentifier() != null) {
+                    gtins.add(keys.getGlobalTradeIdentifier());
+                }
+                addKey(idKeys, keys.getInternalId());
+                for (String partNumber : keys.getPartNumbers()) {
+                    addKey(partNumberKeys, partNumber);
+                }
+            }
+            List<DataProviderProduct> candidates = batchRepository.findUnassociatedByKeys(
+                    gtins, idKeys, partNumberKeys, properties.getMaxCandidates());
+            return candidates.isEmpty() ? new Outcome() : associate(candidates, associationIndex.of(products));
+        });
+
+        associatedProducts.increment(outcome.associated);
+        unmatchedProducts.increment(outcome.unmatched);
+        staleProducts.increment(outcome.stale);
+        productService.invalidateCached(outcome.changedProducts);
+        if (outcome.associated > 0) {
+            log.info("Reconciled {} saved products: {} unassociated products associated, {} unmatched, {} stale",
+                    internalIds.size(), outcome.associated, outcome.unmatched, outcome.stale);
+        }
+    }
+
+    private Outcome associate(List<DataProviderProduct> candidates, AssociationIndex.Indexes indexes) {
+        Outcome outcome = new Outcome();
+        Map<DataProviderProduct, AssociationResult> matches = new LinkedHashMap<>();
+        Set<String> matchedIds = new HashSet<>();
+        for (DataProviderProduct candidate : candidates) {
+            AssociationResult result = associate(candidate, indexes);
+            if (result.hasMatch()) {
+                matches.put(candidate, result);
+                matchedIds.add(result.getInternalId().get());
+            } else {
+                outcome.unmatched++;
+            }
+        }
+
+        Map<String, InternalProduct> matched = new HashMap<>();
+        for (InternalProduct product : productService.findAllById(matchedIds)) {
+            matched.put(product.getInternalId(), product);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(matches.size());
+        for (Map.Entry<DataProviderProduct, AssociationResult> match : matches.entrySet()) {
+            DataProviderProduct candidate = match.getKey();
+            AssociationResult result = match.getValue();
+            InternalProduct internalProduct = matched.get(result.getInternalId().get());
+            if (internalProduct == null) {
+                outcome.stale++;
+                continue;
+            }
+            String changedCategory = ImportWriter.mapCategoryToInternalProduct(categoryOf(candidate), internalProduct);
+            if (changedCategory != null) {
+                outcome.changedProducts.add(internalProduct.getInternalId());
+            }
+            rows.add(ImportRow.builder()
+                    .dataProviderId(candidate.getDataProviderId())
+                    .externalId(candidate.getExternalId())
+                    .globalTradeIdentifier(candidate.getGlobalTradeIdentifier())
+                    .manufacturerPid(candidate.getManufacturerPid())
+                    .contentHash(candidate.getContentHash())
+                    .attributes(Set.of())
+                    .internalId(internalProduct.getInternalId())
+                    .associationStrategy(result.getStrategyName())
+                    .associationConfidence(result.getConfidence())
+                    .category(changedCategory)
+                    .timestamp(LocalDateTime.now())
+                    .build()
+                    .toParameters());
+        }
+
+        long written = batchRepository.associateUnassociated(rows, importProperties.isSharedAttributes());
+        outcome.associated = written;
+        outcome.stale += rows.size() - written;
+        return outcome;
+    }
+
+    /**
+     * Try the strategies in priority order; the first match wins.
+     */
+    private AssociationResult associate(DataProviderProduct candidate, AssociationIndex.Indexes indexes) {
+        for (AssociationStrategy strategy : strategies) {
+            AssociationResult result = strategy.associate(candidate, indexes);
+            if (result.hasMatch()) {
+                return result;
+            }
+        }
+        return AssociationResult.NONE;
+    }
+
+    private static String categoryOf(DataProviderProduct product) {
+        for (DataProviderAttribute attribute : product.getAttributes()) {
+            if (AttributeNames.isCategory(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void addKey(Set<String> keys, String identifier) {
+        String key = AssociationIndex.normalizeId(identifier);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Counts of one transaction, applied to the meters once it committed.
+     */
+    private static class Outcome {
+        long associated;
+        long unmatched;
+        long stale;
+        Set<String> changedProducts = new HashSet<>();
+    }
+}
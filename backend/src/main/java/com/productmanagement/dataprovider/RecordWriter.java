@@ -0,0 +1,20 @@
+package com.productmanagement.dataprovider;
+
+import java.io.IOException;
+
+/**
+ * Write stage of an {@link ImportEngine} run: the {@link ImportWriter} of an online import or the
+ * {@link BulkLoadWriter} of a bulk load.
+ */
+interface RecordWriter {
+
+    /**
+     * Queue a record for writing. Called in input order.
+     */
+    void write(ImportPipeline.Item<?> item);
+
+    /**
+     * Write everything still queued once the last record was passed.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,28 @@
+package com.productmanagement.dataprovider;
+
+import java.io.InputStream;
+
+/**
+ * A feed format whose files can be split at record boundaries and the splits parsed independently.
+ * Local files of such formats are read by a {@link MappedFeedReader}: memory-mapped, split with the
+ * provider's {@link FeedSplitter} and parsed on several threads from the mapped pages.
+ *
+ * @param <T> raw record as read from the input, before validation
+ */
+public interface SplittableDataProvider<T> extends DataProvider<T> {
+
+    /**
+     * A new splitter for one file.
+     * @param splitSize target size of a split in bytes
+     */
+    FeedSplitter splitter(long splitSize);
+
+    /**
+     * Read the records of a split and pass them to the sink in input order, with their end offsets
+     * in the file. Called concurrently for different splits of the same file.
+     * @param input the split's prefix, content and suffix
+     * @return false if the split ended the feed early, at a syntax error that {@link #read}
+     *         would have stopped at; later splits are then ignored
+     */
+    boolean readSplit(FeedSplit split, InputStream input, ImportPipeline.Sink<T> sink) throws Exception;
+}
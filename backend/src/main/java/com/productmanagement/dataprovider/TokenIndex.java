@@ -0,0 +1,187 @@
+package com.productmanagement.dataprovider;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Inverted index from the words of product texts (brand, description, ...) to InternalProducts,
+ * used for fuzzy association. A query collects the products sharing a word with it (the
+ * blocking step) and scores each candidate by the Jaccard similarity of the two word sets.
+ * <p>
+ * Immutable once built, so it can be read by any number of associate workers.
+ */
+class TokenIndex {
+
+    private static final int[] NO_PRODUCTS = new int[0];
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private final Map<String, int[]> postings;
+    private final String[] internalIds;
+    private final String[][] tokens;
+
+    private TokenIndex(Map<String, int[]> postings, String[] internalIds, String[][] tokens) {
+        this.postings = postings;
+        this.internalIds = internalIds;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Best match of a query and its similarity.
+     */
+    @Value
+    static class Match {
+        String internalId;
+        double score;
+    }
+
+    /**
+     * Distinct lower-case words of at least two letters or digits, sorted.
+     */
+    static String[] tokenize(Iterable<String> texts) {
+        TreeSet<String> words = new TreeSet<>();
+        for (String text : texts) {
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    if (i - start >= MIN_TOKEN_LENGTH) {
+                        words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                    }
+                    start = -1;
+                }
+            }
+        }
+        return words.toArray(String[]::new);
+    }
+
+    /**
+     * The product most similar to the query words, if it is the only one with that similarity.
+     * @param queryTokens words as returned by {@link #tokenize}
+     * @param maxBlockSize words of more products than this do not select candidates
+     * @return the best match, or null if no candidate was found or the best score is shared
+     */
+    Match findBest(String[] queryTokens, int maxBlockSize) {
+        int[] candidates = NO_PRODUCTS;
+        int count = 0;
+        for (String token : queryTokens) {
+            int[] products = postings.getOrDefault(token, NO_PRODUCTS);
+            if (products.length > maxBlockSize) {
+                continue;
+            }
+            if (count + products.length > candidates.length) {
+                candidates = Arrays.copyOf(candidates, Math.max(count + products.length, candidates.length * 2));
+            }
+            System.arraycopy(products, 0, candidates, count, products.length);
+            count += products.length;
+        }
+        Arrays.sort(candidates, 0, count);
+
+        int best = -1;
+        double bestScore = 0;
+        boolean tied = false;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && candidates[i] == candidates[i - 1]) {
+                continue;
+            }
+            double score = jaccard(queryTokens, tokens[candidates[i]]);
+            if (score > bestScore) {
+                best = candidates[i];
+                bestScore = score;
+                tied = false;
+            } else if (score == bestScore) {
+                tied = true;
+            }
+        }
+        return best < 0 || tied ? null : new Match(internalIds[best], bestScore);
+    }
+
+    int size() {
+        return internalIds.length;
+    }
+
+    /**
+     * Similarity of two sorted word sets.
+     */
+    private static double jaccard(String[] a, String[] b) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            int order = a[i].compareTo(b[j]);
+            if (order == 0) {
+                shared++;
+                i++;
+                j++;
+            } else if (order < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    /**
+     * Collects products one at a time; not thread-safe.
+     */
+    static class Builder {
+
+        private final Map<String, Posting> postings = new HashMap<>();
+        private final List<String> internalIds = new ArrayList<>();
+        private final List<String[]> tokens = new ArrayList<>();
+
+        /**
+         * Add a product with the texts of its fuzzy attributes. Products without words are left out.
+         */
+        void add(String internalId, Iterable<String> texts) {
+            String[] words = tokenize(texts);
+            if (words.length == 0) {
+                return;
+            }
+            int product = internalIds.size();
+            for (int i = 0; i < words.length; i++) {
+                Posting posting = postings.computeIfAbsent(words[i], Posting::new);
+                posting.add(product);
+                // Products share the word instances of the index.
+                words[i] = posting.token;
+            }
+            internalIds.add(internalId);
+            tokens.add(words);
+        }
+
+        TokenIndex build() {
+            Map<String, int[]> built = new HashMap<>(postings.size() * 4 / 3 + 1);
+            for (Posting posting : postings.values()) {
+                built.put(posting.token, Arrays.copyOf(posting.products, posting.size));
+            }
+            return new TokenIndex(built, internalIds.toArray(String[]::new), tokens.toArray(String[][]::new));
+        }
+    }
+
+    private static class Posting {
+
+        private final String token;
+        private int[] products = new int[4];
+        private int size;
+
+        Posting(String token) {
+            this.token = token;
+        }
+
+        void add(int product) {
+            if (size == products.length) {
+                products = Arrays.copyOf(products, size * 2);
+            }
+            products[size++] = product;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.productmanagement.dataprovider;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a UTF-8 XML document before top-level record elements, such as the {@code PRODUCT}
+ * elements of a BMEcat catalog. Tags, comments, CDATA sections and processing instructions are
+ * recognized. Outside records the open elements are kept on a stack; inside a record only its depth
+ * is counted. A split starts at a record start tag with no record open; it is parsed after the XML
+ * declaration and copies of the enclosing start tags, and the previous split is closed with their
+ * end tags.
+ * <p>
+ * Malformed documents split the same way up to their first error, which the parser then reports in
+ * the split containing it, so the splits after it are never read. Splitting stops at an end tag
+ * outside records that does not match the open element, or at a DOCTYPE. Documents with a DOCTYPE
+ * before their root element or in an encoding other than UTF-8 or US-ASCII are not split.
+ */
+class XmlFeedSplitter implements FeedSplitter {
+
+    private static final int TEXT = 0;
+    private static final int TAG_OPEN = 1;
+    private static final int START_TAG = 2;
+    private static final int END_TAG = 3;
+    private static final int MARKUP = 4;
+    private static final int COMMENT = 5;
+    private static final int CDATA = 6;
+    private static final int PROCESSING_INSTRUCTION = 7;
+
+    private static final int BOM_LENGTH = 3;
+    private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+
+    private final String recordElement;
+    private final long splitSize;
+    private List<FeedSplit> splits = new ArrayList<>();
+
+    /**
+     * Open elements outside records, with their start tags.
+     */
+    private final List<String> openElements = new ArrayList<>();
+    private final List<byte[]> openTags = new ArrayList<>();
+
+    /**
+     * Depth inside the current record, 0 outside records.
+     */
+    private int recordDepth;
+
+    private int state = TEXT;
+    private long tagStart;
+    private byte quote;
+    private byte previous;
+    private int markers;
+    private final StringBuilder name = new StringBuilder();
+    private boolean nameComplete;
+    private final ByteArrayOutputStream tag = new ByteArrayOutputStream();
+
+    private byte[] declaration = new byte[0];
+    private byte[] prefix;
+    private long splitStart;
+    private long nextSplit;
+    private boolean unsplittable;
+
+    /**
+     * @param recordElement local name of the record elements
+     */
+    XmlFeedSplitter(String recordElement, long splitSize) {
+        this.recordElement = recordElement;
+        this.splitSize = splitSize;
+        this.nextSplit = splitSize;
+    }
+
+    @Override
+    public boolean scan(ByteBuffer window, long offset) {
+        int base = window.position();
+        int limit = window.limit();
+        if (offset == 0 && limit > base) {
+            byte first = window.get(base);
+            if (first == 0 || first == (byte) 0xfe || first == (byte) 0xff) {
+                // UTF-16 or UTF-32
+                unsplittable = true;
+                return false;
+            }
+        }
+        int i = base;
+        while (i < limit) {
+            if (state == TEXT) {
+                while (i < limit && window.get(i) != '<') {
+                    i++;
+                }
+                if (i == limit) {
+                    break;
+                }
+                tagStart = offset + i - base;
+                state = TAG_OPEN;
+                i++;
+                continue;
+            }
+            if (state == START_TAG && recordDepth > 0) {
+                i = skipStartTag(window, i, limit);
+                continue;
+            }
+
+            byte b = window.get(i++);
+            switch (state) {
+                case TAG_OPEN -> tagOpen(b);
+                case START_TAG -> startTag(b);
+                case END_TAG -> {
+                    if (b == '>') {
+                        state = TEXT;
+                        if (recordDepth > 0) {
+                            recordDepth--;
+                        } else if (!endElement()) {
+                            return false;
+                        }
+                    } else if (recordDepth == 0 && !isWhitespace(b)) {
+                        name.append((char) (b & 0xff));
+                    }
+                }
+                case MARKUP -> {
+                    markers = 0;
+                    if (b == '-') {
+                        state = COMMENT;
+                    } else if (b == '[') {
+                        state = CDATA;
+                    } else {
+                        // DOCTYPE: later splits could not see the declarations. Only malformed
+                        // documents have one after the first split, which stops splitting there.
+                        unsplittable = splitStart == 0;
+                        return false;
+                    }
+                }
+                case COMMENT -> state = endsWith(b, '-') ? TEXT : COMMENT;
+                case CDATA -> state = endsWith(b, ']') ? TEXT : CDATA;
+                case PROCESSING_INSTRUCTION -> {
+                    if (!processingInstruction(b)) {
+                        unsplittable = true;
+                        return false;
+                    }
+                }
+                default -> throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<FeedSplit> takeSplits() {
+        List<FeedSplit> taken = splits;
+        splits = new ArrayList<>();
+        return taken;
+    }
+
+    @Override
+    public FeedSplit finish(long size) {
+        return unsplittable ? null : new FeedSplit(splitStart, size, prefix, null);
+    }
+
+    private void tagOpen(byte b) {
+        quote = 0;
+        previous = b;
+        if (b == '/') {
+            name.setLength(0);
+            state = END_TAG;
+        } else if (b == '!') {
+            state = MARKUP;
+        } else if (b == '?') {
+            keepTag(b);
+            state = PROCESSING_INSTRUCTION;
+        } else {
+            if (recordDepth == 0) {
+                name.setLength(0);
+                name.append((char) (b & 0xff));
+                nameComplete = false;
+                keepTag(b);
+            }
+            state = START_TAG;
+        }
+    }
+
+    /**
+     * A start tag outside records: its name and bytes are kept.
+     */
+    private void startTag(byte b) {
+        tag.write(b);
+        if (quote != 0) {
+            if (b == quote) {
+                quote = 0;
+            }
+        } else if (b == '>') {
+            startElement(previous == '/');
+            state = TEXT;
+        } else if (b == '"' || b == '\'') {
+            nameComplete = true;
+            quote = b;
+        } else if (isWhitespace(b) || b == '/') {
+            nameComplete = true;
+        } else if (!nameComplete) {
+            name.append((char) (b & 0xff));
+        }
+        if (!isWhitespace(b)) {
+            previous = b;
+        }
+    }
+
+    /**
+     * Skip to the end of a start tag inside a record, where only the depth matters.
+     * @return index of the next byte to scan
+     */
+    private int skipStartTag(ByteBuffer window, int i, int limit) {
+        byte open = quote;
+        byte last = previous;
+        while (i < limit) {
+            byte b = window.get(i++);
+            if (open != 0) {
+                if (b == open) {
+                    open = 0;
+                }
+            } else if (b == '>') {
+                if (last != '/') {
+                    recordDepth++;
+                }
+                state = TEXT;
+                break;
+            } else if (b == '"' || b == '\'') {
+                open = b;
+            }
+            if (!isWhitespace(b)) {
+                last = b;
+            }
+        }
+        quote = open;
+        previous = last;
+        return i;
+    }
+
+    private void startElement(boolean empty) {
+        String element = name.toString();
+        if (isRecord(element)) {
+            if (!openElements.isEmpty() && tagStart >= nextSplit) {
+                split(tagStart);
+            }
+            recordDepth = empty ? 0 : 1;
+        } else if (!empty) {
+            openElements.add(element);
+            openTags.add(tag.toByteArray());
+        }
+    }
+
+    /**
+     * @return false if the end tag does not match the open element
+     */
+    private boolean endElement() {
+        int top = openElements.size() - 1;
+        if (top < 0 || !openElements.get(top).contentEquals(name)) {
+            return false;
+        }
+        openElements.remove(top);
+        openTags.remove(top);
+        return true;
+    }
+
+    /**
+     * @return false if the XML declaration names an encoding that cannot be split
+     */
+    private boolean processingInstruction(byte b) {
+        boolean declarationCandidate = tagStart <= BOM_LENGTH;
+        if (declarationCandidate) {
+            tag.write(b);
+        }
+        boolean end = b == '>' && previous == '?';
+        previous = b;
+        if (!end) {
+            return true;
+        }
+        state = TEXT;
+        if (!declarationCandidate) {
+            return true;
+        }
+        String text = new String(tag.toByteArray(), StandardCharsets.ISO_8859_1);
+        if (!text.startsWith("<?xml")) {
+            return true;
+        }
+        declaration = tag.toByteArray();
+        Matcher encoding = ENCODING.matcher(text);
+        return !encoding.find() || encoding.group(1).equalsIgnoreCase("UTF-8")
+                || encoding.group(1).equalsIgnoreCase("US-ASCII");
+    }
+
+    private void keepTag(byte b) {
+        tag.reset();
+        tag.write('<');
+        tag.write(b);
+    }
+
+    /**
+     * Whether a comment or CDATA section ends with this byte: a '>' after two markers.
+     */
+    private boolean endsWith(byte b, char marker) {
+        if (b == '>' && markers >= 2) {
+            return true;
+        }
+        markers = b == marker ? markers + 1 : 0;
+        return false;
+    }
+
+    /**
+     * Close the current split before a record start tag and start the next one there.
+     */
+    private void split(long position) {
+        ByteArrayOutputStream suffix = new ByteArrayOutputStream();
+        for (int i = openElements.size() - 1; i >= 0; i--) {
+            // Names hold the bytes of the document one per char
+            suffix.writeBytes(("</" + openElements.get(i) + ">").getBytes(StandardCharsets.ISO_8859_1));
+        }
+        splits.add(new FeedSplit(splitStart, position, prefix, suffix.toByteArray()));
+
+        ByteArrayOutputStream next = new ByteArrayOutputStream();
+        next.writeBytes(declaration);
+        openTags.forEach(next::writeBytes);
+        prefix = next.toByteArray();
+        splitStart = position;
+        nextSplit = position + splitSize;
+    }
+
+    private boolean isRecord(String element) {
+        return element.equals(recordElement)
+                || element.length() > recordElement.length() && element.endsWith(recordElement)
+                && element.charAt(element.length() - recordElement.length() - 1) == ':';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -1,5 +1,6 @@
 package com.productmanagement.domain;
 
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.neo4j.core.schema.*;
 import lombok.*;
 
@@ -25,7 +26,7 @@ public class DataProviderProduct {
     private Long id;
 
     /**
-     * Identifier of the data provider (e.g., "JsonDataProvider", "BmecatProvider")
+     * Identifier of the data provider (e.g., "JsonDataProvider", "BmecatDataProvider")
      */
     private String dataProviderId;
 
@@ -39,6 +40,16 @@ public class DataProviderProduct {
      */
     private String globalTradeIdentifier;
 
+    /**
+     * Manufacturer's part number (BMEcat MANUFACTURER_PID) if provided
+     */
+    private String manufacturerPid;
+
+    /**
+     * Hash of the imported identifiers and attributes, used to skip unchanged products on re-import
+     */
+    private String contentHash;
+
     /**
      * Timestamp when this product was imported
      */
@@ -50,10 +61,20 @@ public class DataProviderProduct {
     private LocalDateTime lastUpdatedAt;
 
     /**
-     * Strategy used for association (e.g., "GTIN", "INTERNAL_ID", "ATTRIBUTES")
+     * Strategy used for association (e.g., "GlobalTradeId", "InternalId", "ManufacturerPid", "Attributes")
      */
     private String associationStrategy;
 
+    /**
+     * Confidence of the association strategy in the match, from 0 to 1
+     */
+    private Double associationConfidence;
+
+    /**
+     * Timestamp when an import first stored this product without a match; null while it is associated
+     */
+    private LocalDateTime unassociatedSince;
+
     /**
      * Attributes from the data provider
      */
@@ -67,6 +88,12 @@ public class DataProviderProduct {
     @Relationship(type = "ASSOCIATED_WITH", direction = Relationship.Direction.OUTGOING)
     private InternalProduct associatedProduct;
 
+    /**
+     * Value of the Category attribute, found while normalizing an import; not stored
+     */
+    @Transient
+    private String category;
+
     public void addAttribute(DataProviderAttribute attribute) {
         this.attributes.add(attribute);
     }
@@ -0,0 +1,54 @@
+package com.productmanagement.domain;
+
+import org.springframework.data.neo4j.core.schema.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an import of one source by one data provider.
+ * Updated in the same transaction as every committed chunk, so an interrupted
+ * import can continue after the last committed record.
+ */
+@Node("ImportCheckpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"dataProviderId", "sourceHash"})
+public class ImportCheckpoint {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String dataProviderId;
+
+    /**
+     * Fingerprint of the imported content
+     */
+    private String sourceHash;
+
+    /**
+     * Number of records from the start of the source that are committed
+     */
+    private long recordOffset;
+
+    /**
+     * Byte position in the source after the last committed record
+     */
+    private long byteOffset;
+
+    private int chunksCommitted;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * Set once the whole source was imported; a completed checkpoint is not resumed
+     */
+    private LocalDateTime completedAt;
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
@@ -3,6 +3,11 @@ package com.productmanagement.domain;
 import org.springframework.data.neo4j.core.schema.*;
 import lombok.*;
 
+/**
+ * A name/value attribute of an InternalProduct.
+ * With {@code dataprovider.import.shared-attributes} enabled, each distinct name/value pair is a
+ * single node shared by all products that have it, so attribute nodes must not be modified in place.
+ */
 @Node("InternalProductAttribute")
 @Data
 @NoArgsConstructor
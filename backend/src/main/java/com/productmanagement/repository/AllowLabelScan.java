@@ -0,0 +1,22 @@
+package com.productmanagement.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository query whose plan scans a whole label by design, so that the startup
+ * plan check does not report it.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllowLabelScan {
+
+    /**
+     * Why no index can serve the query.
+     */
+    String value();
+}
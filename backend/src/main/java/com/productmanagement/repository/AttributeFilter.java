@@ -0,0 +1,34 @@
+package com.productmanagement.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Condition on one attribute of an InternalProduct.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeFilter {
+
+    private String attributeName;
+
+    /**
+     * Ignored by {@link Operator#EXISTS}.
+     */
+    private String attributeValue;
+
+    private Operator operator = Operator.EQ;
+
+    /**
+     * Attribute values are strings, so GT and LT compare lexicographically.
+     */
+    public enum Operator {
+        EQ,
+        CONTAINS,
+        GT,
+        LT,
+        EXISTS
+    }
+}
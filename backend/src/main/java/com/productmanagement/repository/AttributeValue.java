@@ -0,0 +1,12 @@
+package com.productmanagement.repository;
+
+import lombok.Value;
+
+/**
+ * Name and value of an attribute, without the node id.
+ */
+@Value
+public class AttributeValue {
+    String name;
+    String value;
+}
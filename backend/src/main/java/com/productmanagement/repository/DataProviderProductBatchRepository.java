@@ -0,0 +1,382 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.domain.DataProviderAttribute;
+import com.productmanagement.domain.DataProviderProduct;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched writes for imported DataProviderProducts.
+ * Writes a whole batch of rows with a single parameterized Cypher statement instead of
+ * one repository call per product.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("repository.queries")
+public class DataProviderProductBatchRepository {
+
+    /**
+     * Sets the Category of the InternalProduct {@code p} to {@code row.category}, unless that is null.
+     */
+    private static final String SET_CATEGORY =
+            "CALL { " +
+            "  WITH row, p " +
+            "  WITH row, p WHERE row.category IS NOT NULL " +
+            "  OPTIONAL MATCH (p)-[:HAS_ATTRIBUTE]->(c:InternalProductAttribute) " +
+            "  WHERE toLower(c.name) = 'category' " +
+            "  DETACH DELETE c " +
+            "  WITH DISTINCT row, p " +
+            "  CREATE (p)-[:HAS_ATTRIBUTE]->(:InternalProductAttribute {name: 'Category', value: row.category}) " +
+            "} ";
+
+    /**
+     * Shared-attribute variant of {@link #SET_CATEGORY}.
+     */
+    private static final String SET_CATEGORY_SHARED =
+            "CALL { " +
+            "  WITH row, p " +
+            "  WITH row, p WHERE row.category IS NOT NULL " +
+            "  CALL { " +
+            "    WITH p " +
+            "    OPTIONAL MATCH (p)-[old:HAS_ATTRIBUTE]->(c:InternalProductAttribute) " +
+            "    WHERE toLower(c.name) = 'category' " +
+            "    DELETE old " +
+            "    WITH c " +
+            "    WHERE c IS NOT NULL AND NOT ()-[:HAS_ATTRIBUTE]->(c) " +
+            "    DELETE c " +
+            "  } " +
+            "  MERGE (c:InternalProductAttribute {name: 'Category', value: row.category}) " +
+            "  MERGE (p)-[:HAS_ATTRIBUTE]->(c) " +
+            "} ";
+
+    /**
+     * Properties of an imported product. A row without internalId is stored as unassociated: it
+     * keeps the time it was first stored so in {@code unassociatedSince} and its normalized
+     * external ID and part number as the keys the {@code ReconciliationWorker} looks it up by.
+     * All three are removed once the product is associated, so their indexes hold only the backlog.
+     */
+    private static final String SET_PRODUCT =
+            "MERGE (dp:DataProviderProduct {dataProviderId: row.dataProviderId, externalId: row.externalId}) " +
+            "ON CREATE SET dp.importedAt = row.timestamp " +
+            "SET dp.globalTradeIdentifier = row.globalTradeIdentifier, " +
+            "    dp.manufacturerPid = row.manufacturerPid, " +
+            "    dp.contentHash = row.contentHash, " +
+            "    dp.lastUpdatedAt = row.timestamp, " +
+            "    dp.associationStrategy = row.associationStrategy, " +
+            "    dp.associationConfidence = row.associationConfidence, " +
+            "    dp.unassociatedSince = CASE WHEN p IS NULL THEN coalesce(dp.unassociatedSince, row.timestamp) END, " +
+            "    dp.unassociatedIdKey = CASE WHEN p IS NULL THEN row.idKey END, " +
+            "    dp.unassociatedPartNumberKey = CASE WHEN p IS NULL THEN row.partNumberKey END ";
+
+    /**
+     * Points ASSOCIATED_WITH at {@code p}, or removes it if the product is unassociated.
+     */
+    private static final String SET_ASSOCIATION =
+            "CALL { " +
+            "  WITH dp, p " +
+            "  OPTIONAL MATCH (dp)-[old:ASSOCIATED_WITH]->(other) " +
+            "  WHERE p IS NULL OR other <> p " +
+            "  DELETE old " +
+            "} " +
+            "FOREACH (_ IN CASE WHEN p IS NULL THEN [] ELSE [1] END | MERGE (dp)-[:ASSOCIATED_WITH]->(p)) ";
+
+    /**
+     * Upserts DataProviderProducts by (dataProviderId, externalId), points ASSOCIATED_WITH at the
+     * matched InternalProduct, records the strategy and confidence of the match and applies the
+     * Category mapping. Rows without internalId are stored as unassociated, see {@link #SET_PRODUCT}.
+     * Attributes are diffed: only
+     * attribute nodes that are no longer imported are deleted, and only new ones are created.
+     * Rows are applied in list order, so a later row for the same product wins.
+     */
+    private static final String UPSERT =
+            "UNWIND $rows AS row " +
+            "OPTIONAL MATCH (p:InternalProduct {internalId: row.internalId}) " +
+            "WITH row, p WHERE row.internalId IS NULL OR p IS NOT NULL " +
+            SET_PRODUCT +
+            "WITH row, p, dp " +
+            "CALL { " +
+            "  WITH dp, row " +
+            "  OPTIONAL MATCH (dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(old:DataproviderAttribute) " +
+            "  WHERE NOT {name: old.name, value: old.value} IN row.attributes " +
+            "  DETACH DELETE old " +
+            "} " +
+            "CALL { " +
+            "  WITH dp, row " +
+            "  UNWIND row.attributes AS attr " +
+            "  WITH dp, attr " +
+            "  WHERE NOT EXISTS { " +
+            "    MATCH (dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) " +
+            "    WHERE a.name = attr.name AND a.value = attr.value " +
+            "  } " +
+            "  CREATE (dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(:DataproviderAttribute {name: attr.name, value: attr.value}) " +
+            "} " +
+            SET_ASSOCIATION +
+            "WITH row, p " +
+            SET_CATEGORY +
+            "RETURN count(*) AS written";
+
+    /**
+     * Shared-attribute variant of {@link #UPSERT}: every distinct (name, value) pair is a
+     * single attribute node. The distinct attributes of the batch are MERGEd once up front and rows
+     * refer to them by index ({@code row.attributeRefs}), so a pair used by many rows costs one index
+     * seek per batch. Attribute nodes are deleted once no product refers to them any more.
+     */
+    private static final String UPSERT_SHARED =
+            "UNWIND $attributes AS attr " +
+            "MERGE (a:DataproviderAttribute {name: attr.name, value: attr.value}) " +
+            "WITH collect(a) AS attributeNodes " +
+            "UNWIND $rows AS row " +
+            "OPTIONAL MATCH (p:InternalProduct {internalId: row.internalId}) " +
+            "WITH attributeNodes, row, p WHERE row.internalId IS NULL OR p IS NOT NULL " +
+            SET_PRODUCT +
+            "WITH row, p, dp, attributeNodes, [i IN row.attributeRefs | attributeNodes[i]] AS attributes " +
+            "CALL { " +
+            "  WITH dp, attributes, attributeNodes " +
+            "  OPTIONAL MATCH (dp)-[old:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) " +
+            "  WHERE NOT a IN attributes " +
+            "  DELETE old " +
+            "  WITH a, attributeNodes " +
+            "  WHERE a IS NOT NULL AND NOT a IN attributeNodes AND NOT ()-[:HAS_DATAPROVIDERATTRIBUTE]->(a) " +
+            "  DELETE a " +
+            "} " +
+            "CALL { " +
+            "  WITH dp, attributes " +
+            "  WITH dp, attributes, [(dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(x) | x] AS existing " +
+            "  UNWIND attributes AS a " +
+            "  WITH dp, a, existing WHERE NOT a IN existing " +
+            "  CREATE (dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(a) " +
+            "} " +
+            SET_ASSOCIATION +
+            "WITH row, p " +
+            SET_CATEGORY_SHARED +
+            "RETURN count(*) AS written";
+
+    /**
+     * Associates stored unassociated products without touching their attributes. A row only
+     * applies while the product is still unassociated with the content it was matched on, so
+     * an import that wrote the product in the meantime wins.
+     */
+    private static final String ASSOCIATE_UNASSOCIATED_PRODUCTS =
+            "UNWIND $rows AS row " +
+            "MATCH (dp:DataProviderProduct {dataProviderId: row.dataProviderId, externalId: row.externalId}) " +
+            "WHERE dp.unassociatedSince IS NOT NULL AND dp.contentHash = row.contentHash " +
+            "MATCH (p:InternalProduct {internalId: row.internalId}) " +
+            "SET dp.lastUpdatedAt = row.timestamp, " +
+            "    dp.associationStrategy = row.associationStrategy, " +
+            "    dp.associationConfidence = row.associationConfidence " +
+            "REMOVE dp.unassociatedSince, dp.unassociatedIdKey, dp.unassociatedPartNumberKey " +
+            "MERGE (dp)-[:ASSOCIATED_WITH]->(p) " +
+            "WITH row, p ";
+
+    /**
+     * {@link #ASSOCIATE_UNASSOCIATED_PRODUCTS} with the Category mapping.
+     */
+    private static final String ASSOCIATE_UNASSOCIATED =
+            ASSOCIATE_UNASSOCIATED_PRODUCTS + SET_CATEGORY + "RETURN count(*) AS associated";
+
+    /**
+     * Shared-attribute variant of {@link #ASSOCIATE_UNASSOCIATED}.
+     */
+    private static final String ASSOCIATE_UNASSOCIATED_SHARED =
+            ASSOCIATE_UNASSOCIATED_PRODUCTS + SET_CATEGORY_SHARED + "RETURN count(*) AS associated";
+
+    /**
+     * Unassociated products sharing one of the given keys, each found through an index.
+     */
+    private static final String FIND_UNASSOCIATED_BY_KEYS =
+            "CALL { " +
+            "  MATCH (dp:DataProviderProduct) " +
+            "  WHERE dp.globalTradeIdentifier IN $gtins AND dp.unassociatedSince IS NOT NULL " +
+            "  RETURN dp " +
+            "  UNION " +
+            "  MATCH (dp:DataProviderProduct) " +
+            "  WHERE dp.unassociatedIdKey IN $idKeys " +
+            "  RETURN dp " +
+            "  UNION " +
+            "  MATCH (dp:DataProviderProduct) " +
+            "  WHERE dp.unassociatedPartNumberKey IN $partNumberKeys " +
+            "  RETURN dp " +
+            "} " +
+            "RETURN dp.dataProviderId AS dataProviderId, dp.externalId AS externalId, " +
+            "       dp.globalTradeIdentifier AS gtin, dp.manufacturerPid AS manufacturerPid, " +
+            "       dp.contentHash AS contentHash, " +
+            "       [(dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) | [a.name, a.value]] AS attributes " +
+            "LIMIT $limit";
+
+    private static final String COUNT_UNASSOCIATED =
+            "MATCH (dp:DataProviderProduct) " +
+            "WHERE dp.unassociatedSince IS NOT NULL " +
+            "RETURN count(dp)";
+
+    /**
+     * Stored content hash and association of the given products of one provider.
+     */
+    private static final String FIND_STORED =
+            "MATCH (dp:DataProviderProduct {dataProviderId: $dataProviderId}) " +
+            "WHERE dp.externalId IN $externalIds " +
+            "OPTIONAL MATCH (dp)-[:ASSOCIATED_WITH]->(p:InternalProduct) " +
+            "RETURN dp.externalId AS externalId, dp.contentHash AS contentHash, p.internalId AS internalId, " +
+            "       dp.unassociatedSince IS NOT NULL AS unassociated";
+
+    private final Neo4jClient neo4jClient;
+
+    /**
+     * What an earlier import stored for a DataProviderProduct.
+     */
+    @Value
+    public static class StoredProduct {
+        String contentHash;
+
+        /**
+         * The associated InternalProduct, or null.
+         */
+        String internalId;
+
+        /**
+         * Whether the product was stored as unassociated.
+         */
+        boolean unassociated;
+    }
+
+    /**
+     * Load the stored state of a batch of products with one query.
+     * @return stored state by external ID; products that were never imported are missing
+     */
+    public Map<String, StoredProduct> findStored(String dataProviderId, Collection<String> externalIds) {
+        Map<String, StoredProduct> stored = new HashMap<>();
+        if (externalIds.isEmpty()) {
+            return stored;
+        }
+        neo4jClient.query(FIND_STORED)
+                .bind(dataProviderId).to("dataProviderId")
+                .bind(externalIds).to("externalIds")
+                .fetch()
+                .all()
+                .forEach(record -> stored.put((String) record.get("externalId"), new StoredProduct(
+                        (String) record.get("contentHash"),
+                        (String) record.get("internalId"),
+                        Boolean.TRUE.equals(record.get("unassociated")))));
+        return stored;
+    }
+
+    /**
+     * Write a batch of imported DataProviderProducts, associated or not.
+     * @param rows one map per product, see {@link #UPSERT} for the expected keys
+     * @return number of rows written; rows whose InternalProduct no longer exists are skipped
+     */
+    public long upsert(List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return neo4jClient.query(UPSERT)
+                .bind(rows).to("rows")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    /**
+     * Write a batch of imported DataProviderProducts in shared-attribute mode.
+     * Takes the same rows as {@link #upsert(List)}; their attributes are interned
+     * into one list for the batch before the statement is sent.
+     * @return number of rows written; rows whose InternalProduct no longer exists are skipped
+     */
+    @SuppressWarnings("unchecked")
+    public long upsertShared(List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Map<String, Object>, Integer> attributeIndex = new LinkedHashMap<>();
+        List<Map<String, Object>> sharedRows = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            List<Map<String, Object>> attributes = (List<Map<String, Object>>) row.get("attributes");
+            List<Integer> refs = new ArrayList<>(attributes.size());
+            for (Map<String, Object> attribute : attributes) {
+                refs.add(attributeIndex.computeIfAbsent(attribute, key -> attributeIndex.size()));
+            }
+            Map<String, Object> sharedRow = new HashMap<>(row);
+            sharedRow.remove("attributes");
+            sharedRow.put("attributeRefs", refs);
+            sharedRows.add(sharedRow);
+        }
+
+        return neo4jClient.query(UPSERT_SHARED)
+                .bind(new ArrayList<>(attributeIndex.keySet())).to("attributes")
+                .bind(sharedRows).to("rows")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    /**
+     * Associate stored unassociated products, see {@link #ASSOCIATE_UNASSOCIATED_PRODUCTS}.
+     * @param rows rows as for {@link #upsert(List)}; attributes are ignored
+     * @param sharedAttributes whether Category attributes are shared nodes
+     * @return number of products associated; the others were written by an import meanwhile
+     */
+    public long associateUnassociated(List<Map<String, Object>> rows, boolean sharedAttributes) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return neo4jClient.query(sharedAttributes ? ASSOCIATE_UNASSOCIATED_SHARED : ASSOCIATE_UNASSOCIATED)
+                .bind(rows).to("rows")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    /**
+     * Load the unassociated products that share a GTIN, normalized external ID or normalized part
+     * number with the given keys, with their attributes.
+     * @param limit maximum number of products returned
+     */
+    @SuppressWarnings("unchecked")
+    public List<DataProviderProduct> findUnassociatedByKeys(Collection<String> gtins, Collection<String> idKeys,
+                                                            Collection<String> partNumberKeys, int limit) {
+        List<DataProviderProduct> products = new ArrayList<>();
+        neo4jClient.query(FIND_UNASSOCIATED_BY_KEYS)
+                .bind(gtins).to("gtins")
+                .bind(idKeys).to("idKeys")
+                .bind(partNumberKeys).to("partNumberKeys")
+                .bind(limit).to("limit")
+                .fetch()
+                .all()
+                .forEach(record -> {
+                    Set<DataProviderAttribute> attributes = new HashSet<>();
+                    for (List<String> attribute : (List<List<String>>) record.get("attributes")) {
+                        attributes.add(new DataProviderAttribute(null, attribute.get(0), attribute.get(1)));
+                    }
+                    products.add(DataProviderProduct.builder()
+                            .dataProviderId((String) record.get("dataProviderId"))
+                            .externalId((String) record.get("externalId"))
+                            .globalTradeIdentifier((String) record.get("gtin"))
+                            .manufacturerPid((String) record.get("manufacturerPid"))
+                            .contentHash((String) record.get("contentHash"))
+                            .attributes(attributes)
+                            .build());
+                });
+        return products;
+    }
+
+    /**
+     * Number of products stored as unassociated, counted through the index on the marker.
+     */
+    public long countUnassociated() {
+        return neo4jClient.query(COUNT_UNASSOCIATED)
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+}
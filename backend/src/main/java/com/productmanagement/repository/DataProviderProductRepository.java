@@ -26,23 +26,24 @@ public interface DataProviderProductRepository extends Neo4jRepository<DataProvi
      * Find all products from a specific data provider
      */
     @Query("MATCH (dp:DataProviderProduct) " +
-           "WHERE dp.dataProviderId = $providerId " +
+           "WHERE dp.dataProviderId = $providerId AND dp.externalId IS NOT NULL " +
            "RETURN dp")
     List<DataProviderProduct> findByDataProviderId(@Param("providerId") String dataProviderId);
 
     /**
-     * Find all associated data provider products for an internal product
+     * Find all associated data provider products for an internal product, with their attributes
      */
     @Query("MATCH (dp:DataProviderProduct)-[:ASSOCIATED_WITH]->(p:InternalProduct) " +
            "WHERE p.internalId = $internalId " +
-           "RETURN dp")
+           "OPTIONAL MATCH (dp)-[r:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) " +
+           "RETURN dp, collect(r), collect(a)")
     List<DataProviderProduct> findByAssociatedProductId(@Param("internalId") String internalId);
 
     /**
-     * Find unassociated data provider products
+     * Find data provider products that imports stored as unassociated, through the index on the marker
      */
     @Query("MATCH (dp:DataProviderProduct) " +
-           "WHERE NOT (dp)-[:ASSOCIATED_WITH]->(:InternalProduct) " +
+           "WHERE dp.unassociatedSince IS NOT NULL " +
            "RETURN dp")
     List<DataProviderProduct> findUnassociated();
 
@@ -53,5 +54,5 @@ public interface DataProviderProductRepository extends Neo4jRepository<DataProvi
            "WHERE dp.globalTradeIdentifier = $gtin " +
            "RETURN dp")
     List<DataProviderProduct> findByGlobalTradeIdentifier(@Param("gtin") String gtin);
-}
 
+}
@@ -0,0 +1,39 @@
+package com.productmanagement.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * List view of a DataProviderProduct: its own properties, the ID of the associated
+ * InternalProduct and the number of attributes.
+ */
+@Value
+@Builder
+public class DataProviderProductSummary {
+    String dataProviderId;
+    String externalId;
+    String globalTradeIdentifier;
+    String manufacturerPid;
+    String associationStrategy;
+    Double associationConfidence;
+    LocalDateTime importedAt;
+    LocalDateTime lastUpdatedAt;
+    String associatedProductId;
+    long attributeCount;
+
+    /**
+     * Only loaded with {@code expand=attributes}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<AttributeValue> attributes;
+
+    /**
+     * Only loaded with {@code expand=associatedProduct}, including its attributes.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    InternalProductSummary associatedProduct;
+}
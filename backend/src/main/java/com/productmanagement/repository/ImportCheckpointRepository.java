@@ -0,0 +1,49 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.domain.ImportCheckpoint;
+import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportCheckpointRepository extends Neo4jRepository<ImportCheckpoint, Long> {
+
+    /**
+     * Find the checkpoint of a data provider for a source
+     */
+    @Query("MATCH (c:ImportCheckpoint) " +
+           "WHERE c.dataProviderId = $providerId AND c.sourceHash = $sourceHash " +
+           "RETURN c")
+    Optional<ImportCheckpoint> findByDataProviderIdAndSourceHash(
+            @Param("providerId") String dataProviderId,
+            @Param("sourceHash") String sourceHash);
+
+    /**
+     * Create or advance the checkpoint of a data provider for a source
+     */
+    @Query("MERGE (c:ImportCheckpoint {dataProviderId: $providerId, sourceHash: $sourceHash}) " +
+           "SET c.recordOffset = $recordOffset, " +
+           "    c.byteOffset = $byteOffset, " +
+           "    c.chunksCommitted = $chunksCommitted, " +
+           "    c.updatedAt = localdatetime(), " +
+           "    c.completedAt = null " +
+           "RETURN c")
+    ImportCheckpoint saveProgress(@Param("providerId") String dataProviderId,
+                                  @Param("sourceHash") String sourceHash,
+                                  @Param("recordOffset") long recordOffset,
+                                  @Param("byteOffset") long byteOffset,
+                                  @Param("chunksCommitted") int chunksCommitted);
+
+    /**
+     * Mark the checkpoint of a data provider for a source as completed
+     */
+    @Query("MATCH (c:ImportCheckpoint) " +
+           "WHERE c.dataProviderId = $providerId AND c.sourceHash = $sourceHash " +
+           "SET c.completedAt = localdatetime() " +
+           "RETURN c")
+    Optional<ImportCheckpoint> markCompleted(@Param("providerId") String dataProviderId,
+                                             @Param("sourceHash") String sourceHash);
+}
@@ -0,0 +1,176 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.domain.InternalProductAttribute;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bulk reads over InternalProducts that would be too expensive as entity queries.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("repository.queries")
+public class InternalProductBatchRepository {
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private static final String RETURN_KEYS =
+            "RETURN p.internalId AS internalId, p.globalTradeId AS gtin, " +
+            "       [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) " +
+            "        WHERE toLower(a.name) = $partNumberAttribute | a.value] AS partNumbers, " +
+            "       [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) " +
+            "        WHERE toLower(a.name) IN $textAttributes | a.value] AS texts ";
+
+    private static final String KEYS_PAGE =
+            "MATCH (p:InternalProduct) " +
+            "WHERE p.internalId > $after " +
+            RETURN_KEYS +
+            "ORDER BY p.internalId " +
+            "LIMIT $limit";
+
+    private static final String PRODUCTS_PAGE =
+            "MATCH (p:InternalProduct) " +
+            "WHERE p.internalId > $after " +
+            "RETURN p.internalId AS internalId, p.globalTradeId AS gtin, " +
+            "       [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) | [a.name, a.value]] AS attributes " +
+            "ORDER BY p.internalId " +
+            "LIMIT $limit";
+
+    private static final String KEYS_BY_ID =
+            "MATCH (p:InternalProduct) " +
+            "WHERE p.internalId IN $internalIds " +
+            RETURN_KEYS;
+
+    private final Neo4jClient neo4jClient;
+
+    /**
+     * The identifiers and texts of an InternalProduct that imports associate by.
+     */
+    @Value
+    public static class ProductKeys {
+        String internalId;
+        String globalTradeIdentifier;
+
+        /**
+         * Values of the part number attribute.
+         */
+        List<String> partNumbers;
+
+        /**
+         * Values of the requested text attributes.
+         */
+        List<String> texts;
+    }
+
+    /**
+     * An InternalProduct with all of its attributes, in the order the database returned them.
+     */
+    @Value
+    public static class ProductRecord {
+        String internalId;
+        String globalTradeIdentifier;
+        List<InternalProductAttribute> attributes;
+    }
+
+    /**
+     * Pass the keys of every InternalProduct to the consumer.
+     * Pages through the products by internalId, so only one page is held in memory at a time.
+     * @param partNumberAttribute name of the attribute returned as part numbers, compared case-insensitively
+     * @param textAttributes names of the attributes returned as texts, compared case-insensitively
+     * @return number of products read
+     */
+    public long forEachProductKeys(String partNumberAttribute, Collection<String> textAttributes,
+                                   Consumer<ProductKeys> consumer) {
+        List<String> names = lowerCase(textAttributes);
+        long count = 0;
+        String after = "";
+        while (true) {
+            Collection<Map<String, Object>> page = neo4jClient.query(KEYS_PAGE)
+                    .bind(after).to("after")
+                    .bind(partNumberAttribute.toLowerCase(Locale.ROOT)).to("partNumberAttribute")
+                    .bind(names).to("textAttributes")
+                    .bind(PAGE_SIZE).to("limit")
+                    .fetch()
+                    .all();
+            for (Map<String, Object> row : page) {
+                ProductKeys keys = toProductKeys(row);
+                after = keys.getInternalId();
+                consumer.accept(keys);
+            }
+            count += page.size();
+            if (page.size() < PAGE_SIZE) {
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Pass every InternalProduct with its attributes to the consumer, paging like {@link #forEachProductKeys}.
+     * @return number of products read
+     */
+    @SuppressWarnings("unchecked")
+    public long forEachProduct(Consumer<ProductRecord> consumer) {
+        long count = 0;
+        String after = "";
+        while (true) {
+            Collection<Map<String, Object>> page = neo4jClient.query(PRODUCTS_PAGE)
+                    .bind(after).to("after")
+                    .bind(PAGE_SIZE).to("limit")
+                    .fetch()
+                    .all();
+            for (Map<String, Object> row : page) {
+                after = (String) row.get("internalId");
+                List<List<String>> attributes = (List<List<String>>) row.get("attributes");
+                List<InternalProductAttribute> productAttributes = new ArrayList<>(attributes.size());
+                for (List<String> attribute : attributes) {
+                    productAttributes.add(InternalProductAttribute.of(attribute.get(0), attribute.get(1)));
+                }
+                consumer.accept(new ProductRecord(after, (String) row.get("gtin"), productAttributes));
+            }
+            count += page.size();
+            if (page.size() < PAGE_SIZE) {
+                return count;
+            }
+        }
+    }
+
+    /**
+     * The keys of the given InternalProducts; IDs of products that do not exist are ignored.
+     * @see #forEachProductKeys
+     */
+    public List<ProductKeys> findProductKeys(Collection<String> internalIds, String partNumberAttribute,
+                                             Collection<String> textAttributes) {
+        if (internalIds.isEmpty()) {
+            return List.of();
+        }
+        return neo4jClient.query(KEYS_BY_ID)
+                .bind(internalIds).to("internalIds")
+                .bind(partNumberAttribute.toLowerCase(Locale.ROOT)).to("partNumberAttribute")
+                .bind(lowerCase(textAttributes)).to("textAttributes")
+                .fetch()
+                .all()
+                .stream()
+                .map(InternalProductBatchRepository::toProductKeys)
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ProductKeys toProductKeys(Map<String, Object> row) {
+        return new ProductKeys((String) row.get("internalId"), (String) row.get("gtin"),
+                (List<String>) row.get("partNumbers"), (List<String>) row.get("texts"));
+    }
+
+    private static List<String> lowerCase(Collection<String> names) {
+        return names.stream().map(name -> name.toLowerCase(Locale.ROOT)).toList();
+    }
+}
@@ -18,7 +18,7 @@ public interface InternalProductRepository extends Neo4jRepository<InternalProdu
            "RETURN p, collect(r), collect(a)")
     Optional<InternalProduct> findByGlobalTradeIdentifier(@Param("gtin") String gtin);
 
-    @Query("MATCH (p:InternalProduct)-[:HAS_ATTRIBUTE]->(a:Attribute) " +
+    @Query("MATCH (p:InternalProduct)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) " +
            "WHERE a.name = $attributeName AND a.value = $attributeValue " +
            "RETURN p")
     List<InternalProduct> findByAttributeNameAndValue(@Param("attributeName") String attributeName,
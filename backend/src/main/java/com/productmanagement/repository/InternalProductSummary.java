@@ -0,0 +1,24 @@
+package com.productmanagement.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * List view of an InternalProduct.
+ */
+@Value
+@Builder
+public class InternalProductSummary {
+    String internalId;
+    String globalTradeIdentifier;
+    long attributeCount;
+
+    /**
+     * Only loaded with {@code expand=attributes}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<AttributeValue> attributes;
+}
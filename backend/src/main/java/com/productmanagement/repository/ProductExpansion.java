@@ -0,0 +1,44 @@
+package com.productmanagement.repository;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Related data that a list query loads only on request, named as in the {@code expand}
+ * query parameter.
+ */
+public enum ProductExpansion {
+
+    ATTRIBUTES("attributes"),
+    ASSOCIATED_PRODUCT("associatedProduct");
+
+    private final String parameterValue;
+
+    ProductExpansion(String parameterValue) {
+        this.parameterValue = parameterValue;
+    }
+
+    public String getParameterValue() {
+        return parameterValue;
+    }
+
+    /**
+     * @param values parameter values; may be null
+     * @throws IllegalArgumentException if a value is unknown or not in {@code allowed}
+     */
+    public static Set<ProductExpansion> parse(Collection<String> values, Set<ProductExpansion> allowed) {
+        Set<ProductExpansion> expansions = EnumSet.noneOf(ProductExpansion.class);
+        if (values == null) {
+            return expansions;
+        }
+        for (String value : values) {
+            ProductExpansion expansion = allowed.stream()
+                    .filter(candidate -> candidate.parameterValue.equals(value.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown expand value: " + value));
+            expansions.add(expansion);
+        }
+        return expansions;
+    }
+}
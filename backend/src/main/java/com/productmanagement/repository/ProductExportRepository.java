@@ -0,0 +1,92 @@
+package com.productmanagement.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streaming reads for full exports.
+ * Runs on a driver session instead of the repositories, so that each record is handed on as
+ * the driver fetches it and the result set is never held in memory. Both queries read in the
+ * order of a range index, so the database does not sort either.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("repository.queries")
+public class ProductExportRepository {
+
+    static final String EXPORT_PRODUCTS =
+            "MATCH (p:InternalProduct) " +
+            "WHERE p.internalId IS NOT NULL " +
+            "RETURN p.internalId AS internalId, " +
+            "       p.globalTradeId AS globalTradeIdentifier, " +
+            "       [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) | {name: a.name, value: a.value}] AS attributes " +
+            "ORDER BY p.internalId";
+
+    static final String EXPORT_DATAPROVIDER_PRODUCTS =
+            "MATCH (dp:DataProviderProduct) " +
+            "WHERE dp.dataProviderId IS NOT NULL AND dp.externalId IS NOT NULL " +
+            "RETURN dp.dataProviderId AS dataProviderId, " +
+            "       dp.externalId AS externalId, " +
+            "       dp.globalTradeIdentifier AS globalTradeIdentifier, " +
+            "       dp.manufacturerPid AS manufacturerPid, " +
+            "       dp.associationStrategy AS associationStrategy, " +
+            "       dp.associationConfidence AS associationConfidence, " +
+            "       dp.importedAt AS importedAt, " +
+            "       dp.lastUpdatedAt AS lastUpdatedAt, " +
+            "       head([(dp)-[:ASSOCIATED_WITH]->(p:InternalProduct) | p.internalId]) AS associatedProductId, " +
+            "       [(dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) | {name: a.name, value: a.value}] AS attributes " +
+            "ORDER BY dp.dataProviderId, dp.externalId";
+
+    private final Driver driver;
+
+    /**
+     * Receives exported rows one at a time.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(Map<String, Object> row) throws IOException;
+    }
+
+    /**
+     * Export all InternalProducts with their attributes, ordered by internalId.
+     * @return number of rows exported
+     */
+    public long exportProducts(RowHandler handler) throws IOException {
+        return export(EXPORT_PRODUCTS, handler);
+    }
+
+    /**
+     * Export all DataProviderProducts with their attributes and the internalId of the
+     * associated product, ordered by (dataProviderId, externalId).
+     * @return number of rows exported
+     */
+    public long exportDataProviderProducts(RowHandler handler) throws IOException {
+        return export(EXPORT_DATAPROVIDER_PRODUCTS, handler);
+    }
+
+    /**
+     * Runs as an auto-commit query: a transaction function could be retried after rows have
+     * already been handed on.
+     */
+    private long export(String query, RowHandler handler) throws IOException {
+        SessionConfig config = SessionConfig.builder().withDefaultAccessMode(AccessMode.READ).build();
+        try (Session session = driver.session(config)) {
+            Result result = session.run(query);
+            long count = 0;
+            while (result.hasNext()) {
+                handler.accept(result.next().asMap());
+                count++;
+            }
+            return count;
+        }
+    }
+}
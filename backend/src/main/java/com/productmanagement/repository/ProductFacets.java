@@ -0,0 +1,40 @@
+package com.productmanagement.repository;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Attribute value counts over the products matching a {@link ProductFilter}.
+ */
+@Value
+public class ProductFacets {
+
+    /**
+     * Matching products the counts were taken from.
+     */
+    long matched;
+
+    /**
+     * True if more products match than were counted, so the counts come from a sample.
+     */
+    boolean approximate;
+
+    List<Facet> facets;
+
+    @Value
+    public static class Facet {
+        String name;
+
+        /**
+         * Most frequent values first.
+         */
+        List<FacetValue> values;
+    }
+
+    @Value
+    public static class FacetValue {
+        String value;
+        long count;
+    }
+}
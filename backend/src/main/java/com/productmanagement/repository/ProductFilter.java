@@ -0,0 +1,27 @@
+package com.productmanagement.repository;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search criteria for InternalProducts. All given criteria must match.
+ */
+@Data
+public class ProductFilter {
+
+    /**
+     * Substring of the internalId or GTIN, which also covers prefixes.
+     */
+    private String term;
+
+    private String globalTradeIdentifier;
+
+    private List<AttributeFilter> attributeFilters = new ArrayList<>();
+
+    /**
+     * Attribute names to count values for; all attributes if empty.
+     */
+    private List<String> facets = new ArrayList<>();
+}
@@ -0,0 +1,254 @@
+package com.productmanagement.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.neo4j.driver.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Attribute and ID search over InternalProducts.
+ * A {@link ProductFilter} becomes a single MATCH, with one attribute pattern in the MATCH itself
+ * and the other attribute filters as EXISTS subqueries, so that the planner can start from
+ * whichever index is most selective: the GTIN constraint, the internalId and GTIN text indexes
+ * for {@code CONTAINS}, or the composite (name, value) attribute index.
+ * <p>
+ * Both queries stop reading after a fixed number of matches, so their cost does not grow with
+ * the number of products a filter matches.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("repository.queries")
+public class ProductSearchRepository {
+
+    public static final int MAX_ATTRIBUTE_FILTERS = 10;
+
+    private static final String RESULTS =
+            "WITH DISTINCT p LIMIT $limit " +
+            "RETURN p.internalId AS internalId, " +
+            "       p.globalTradeId AS globalTradeIdentifier, " +
+            "       COUNT { (p)-[:HAS_ATTRIBUTE]->() } AS attributeCount, " +
+            "       [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) | {name: a.name, value: a.value}] AS attributes";
+
+    private static final String FACETS =
+            "WITH DISTINCT p LIMIT $sampleSize " +
+            "WITH collect(p) AS sample " +
+            "CALL { " +
+            "  WITH sample " +
+            "  UNWIND sample AS p " +
+            "  MATCH (p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) " +
+            "  WHERE $facetNames IS NULL OR a.name IN $facetNames " +
+            "  WITH a.name AS name, a.value AS value, count(*) AS products " +
+            "  ORDER BY products DESC, value " +
+            "  WITH name, collect({value: value, count: products})[..$facetValues] AS values " +
+            "  ORDER BY name " +
+            "  RETURN collect({name: name, values: values}) AS facets " +
+            "} " +
+            "RETURN size(sample) AS matched, facets";
+
+    /**
+     * Counts the attributes each (name, value) pair matches, up to $bound.
+     */
+    private static final String ATTRIBUTE_MATCHES =
+            "UNWIND $attributes AS attribute " +
+            "CALL { " +
+            "  WITH attribute " +
+            "  MATCH (a:InternalProductAttribute) " +
+            "  WHERE a.name = attribute.name AND a.value = attribute.value " +
+            "  WITH a LIMIT $bound " +
+            "  RETURN count(a) AS matches " +
+            "} " +
+            "RETURN attribute.name AS name, attribute.value AS value, matches";
+
+    private static final int ATTRIBUTE_MATCHES_BOUND = 10_000;
+
+    private final Neo4jClient neo4jClient;
+
+    /**
+     * Match counts by (name, value) pair. They only decide which filter a search starts from, so
+     * an outdated count makes a search slower, never wrong.
+     */
+    private final Cache<AttributeValue, Long> attributeMatches = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    /**
+     * Products matching the filter, in no particular order.
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    public List<InternalProductSummary> search(ProductFilter filter, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        String query = match(filter, parameters) + RESULTS;
+        parameters.put("limit", limit);
+        return new ArrayList<>(neo4jClient.query(query)
+                .bindAll(parameters)
+                .fetchAs(InternalProductSummary.class)
+                .mappedBy((typeSystem, record) -> ProductSummaryRepository.toProductSummary(record))
+                .all());
+    }
+
+    /**
+     * Attribute value counts over the first {@code sampleSize} products matching the filter.
+     * @param valuesPerFacet number of most frequent values returned per attribute
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    public ProductFacets findFacets(ProductFilter filter, int sampleSize, int valuesPerFacet) {
+        Map<String, Object> parameters = new HashMap<>();
+        String query = match(filter, parameters) + FACETS;
+        List<String> facetNames = filter.getFacets();
+        parameters.put("sampleSize", sampleSize);
+        parameters.put("facetValues", valuesPerFacet);
+        parameters.put("facetNames", facetNames == null || facetNames.isEmpty() ? null : facetNames);
+        return neo4jClient.query(query)
+                .bindAll(parameters)
+                .fetchAs(ProductFacets.class)
+                .mappedBy((typeSystem, record) -> {
+                    long matched = record.get("matched").asLong();
+                    List<ProductFacets.Facet> facets = record.get("facets").asList(ProductSearchRepository::toFacet);
+                    return new ProductFacets(matched, matched >= sampleSize, facets);
+                })
+                .one()
+                .orElseThrow();
+    }
+
+    /**
+     * MATCH clause binding {@code p} to the products the filter matches.
+     */
+    private String match(ProductFilter filter, Map<String, Object> parameters) {
+        List<AttributeFilter> attributeFilters = filter.getAttributeFilters() == null
+                ? List.of() : filter.getAttributeFilters();
+        if (attributeFilters.size() > MAX_ATTRIBUTE_FILTERS) {
+            throw new IllegalArgumentException("At most " + MAX_ATTRIBUTE_FILTERS + " attribute filters are supported");
+        }
+
+        StringBuilder match = new StringBuilder("MATCH (p:InternalProduct)");
+        List<String> predicates = new ArrayList<>();
+        if (hasText(filter.getGlobalTradeIdentifier())) {
+            predicates.add("p.globalTradeId = $gtin");
+            parameters.put("gtin", filter.getGlobalTradeIdentifier().trim());
+        }
+        if (hasText(filter.getTerm())) {
+            predicates.add("(p.internalId CONTAINS $term OR p.globalTradeId CONTAINS $term)");
+            parameters.put("term", filter.getTerm().trim());
+        }
+
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < attributeFilters.size(); i++) {
+            conditions.add(condition(attributeFilters.get(i), "a" + i, i, parameters));
+        }
+        int anchor = anchor(attributeFilters);
+        for (int i = 0; i < attributeFilters.size(); i++) {
+            String attribute = "a" + i;
+            String condition = conditions.get(i);
+            if (i == anchor) {
+                match.append(", (p)-[:HAS_ATTRIBUTE]->(").append(attribute).append(":InternalProductAttribute)");
+                predicates.add(condition);
+            } else {
+                predicates.add("EXISTS { (p)-[:HAS_ATTRIBUTE]->(" + attribute + ":InternalProductAttribute) WHERE "
+                        + condition + " }");
+            }
+        }
+
+        if (!predicates.isEmpty()) {
+            match.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        return match.append(' ').toString();
+    }
+
+    /**
+     * The attribute filter to start from: the EQ filter matching the fewest attributes, or the
+     * first filter if there is no EQ filter. The planner cannot tell EQ filters apart, as they use
+     * the same index, so with several of them their matches are counted, up to a bound.
+     */
+    private int anchor(List<AttributeFilter> attributeFilters) {
+        Map<Integer, AttributeValue> eqFilters = new LinkedHashMap<>();
+        for (int i = 0; i < attributeFilters.size(); i++) {
+            AttributeFilter filter = attributeFilters.get(i);
+            if (operator(filter) == AttributeFilter.Operator.EQ) {
+                eqFilters.put(i, new AttributeValue(filter.getAttributeName(), filter.getAttributeValue()));
+            }
+        }
+        if (eqFilters.size() < 2) {
+            return eqFilters.isEmpty() ? 0 : eqFilters.keySet().iterator().next();
+        }
+
+        Map<AttributeValue, Long> matches = attributeMatches.getAll(eqFilters.values(), this::countMatches);
+        int anchor = 0;
+        long fewest = Long.MAX_VALUE;
+        for (Map.Entry<Integer, AttributeValue> filter : eqFilters.entrySet()) {
+            long count = matches.get(filter.getValue());
+            if (count < fewest) {
+                anchor = filter.getKey();
+                fewest = count;
+            }
+        }
+        return anchor;
+    }
+
+    private Map<AttributeValue, Long> countMatches(Set<? extends AttributeValue> attributes) {
+        List<Map<String, Object>> parameters = new ArrayList<>();
+        for (AttributeValue attribute : attributes) {
+            parameters.add(Map.of("name", attribute.getName(), "value", attribute.getValue()));
+        }
+        Map<AttributeValue, Long> matches = new HashMap<>();
+        neo4jClient.query(ATTRIBUTE_MATCHES)
+                .bind(parameters).to("attributes")
+                .bind(ATTRIBUTE_MATCHES_BOUND).to("bound")
+                .fetch()
+                .all()
+                .forEach(record -> matches.put(
+                        new AttributeValue((String) record.get("name"), (String) record.get("value")),
+                        (Long) record.get("matches")));
+        return matches;
+    }
+
+    private static String condition(AttributeFilter filter, String attribute, int index, Map<String, Object> parameters) {
+        if (!hasText(filter.getAttributeName())) {
+            throw new IllegalArgumentException("Attribute filter without attribute name");
+        }
+        AttributeFilter.Operator operator = operator(filter);
+        if (operator != AttributeFilter.Operator.EXISTS && filter.getAttributeValue() == null) {
+            throw new IllegalArgumentException("Attribute filter on " + filter.getAttributeName() + " without value");
+        }
+
+        String name = "name" + index;
+        String value = "$value" + index;
+        parameters.put(name, filter.getAttributeName());
+        parameters.put("value" + index, filter.getAttributeValue());
+        String valueCondition = switch (operator) {
+            case EQ -> attribute + ".value = " + value;
+            case CONTAINS -> attribute + ".value CONTAINS " + value;
+            case GT -> attribute + ".value > " + value;
+            case LT -> attribute + ".value < " + value;
+            case EXISTS -> attribute + ".value IS NOT NULL";
+        };
+        return attribute + ".name = $" + name + " AND " + valueCondition;
+    }
+
+    private static AttributeFilter.Operator operator(AttributeFilter filter) {
+        return filter.getOperator() == null ? AttributeFilter.Operator.EQ : filter.getOperator();
+    }
+
+    private static ProductFacets.Facet toFacet(Value facet) {
+        return new ProductFacets.Facet(
+                facet.get("name", (String) null),
+                facet.get("values").asList(value -> new ProductFacets.FacetValue(
+                        value.get("value", (String) null),
+                        value.get("count").asLong())));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
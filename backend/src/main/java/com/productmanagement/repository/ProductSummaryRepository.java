@@ -0,0 +1,176 @@
+package com.productmanagement.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset-paginated list queries that return projections instead of SDN entities.
+ * A row holds the node's own properties plus an attribute count and the associated product ID,
+ * so listing products does not load their relationship graphs. Attributes and the associated
+ * product are added to the query only when requested through {@link ProductExpansion}.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("repository.queries")
+public class ProductSummaryRepository {
+
+    /**
+     * Products after $after in internalId order, read from the internal_product_id constraint index.
+     */
+    private static final String PRODUCT_PAGE =
+            "MATCH (p:InternalProduct) " +
+            "WHERE p.internalId > $after " +
+            "WITH p ORDER BY p.internalId LIMIT $limit " +
+            "RETURN p.internalId AS internalId, " +
+            "       p.globalTradeId AS globalTradeIdentifier, " +
+            "       COUNT { (p)-[:HAS_ATTRIBUTE]->() } AS attributeCount";
+
+    private static final String PRODUCT_ATTRIBUTES =
+            ", [(p)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) | {name: a.name, value: a.value}] AS attributes";
+
+    /**
+     * Products after ($providerId, $externalId) in key order. Internal node ids cannot be
+     * range-seeked, so the natural key is used; each UNION branch reads at most one page from
+     * the index of the dataprovider_product_unique constraint, which keeps the cost independent
+     * of the page position.
+     */
+    private static final String DATAPROVIDER_PRODUCT_PAGE =
+            "CALL { " +
+            "  MATCH (dp:DataProviderProduct) " +
+            "  WHERE dp.dataProviderId = $providerId AND dp.externalId > $externalId " +
+            "  RETURN dp ORDER BY dp.dataProviderId, dp.externalId LIMIT $limit " +
+            "  UNION " +
+            "  MATCH (dp:DataProviderProduct) " +
+            "  WHERE dp.dataProviderId > $providerId AND dp.externalId IS NOT NULL " +
+            "  RETURN dp ORDER BY dp.dataProviderId, dp.externalId LIMIT $limit " +
+            "} " +
+            "WITH dp ORDER BY dp.dataProviderId, dp.externalId LIMIT $limit " +
+            "RETURN dp.dataProviderId AS dataProviderId, " +
+            "       dp.externalId AS externalId, " +
+            "       dp.globalTradeIdentifier AS globalTradeIdentifier, " +
+            "       dp.manufacturerPid AS manufacturerPid, " +
+            "       dp.associationStrategy AS associationStrategy, " +
+            "       dp.associationConfidence AS associationConfidence, " +
+            "       dp.importedAt AS importedAt, " +
+            "       dp.lastUpdatedAt AS lastUpdatedAt, " +
+            "       head([(dp)-[:ASSOCIATED_WITH]->(p:InternalProduct) | p.internalId]) AS associatedProductId, " +
+            "       COUNT { (dp)-[:HAS_DATAPROVIDERATTRIBUTE]->() } AS attributeCount";
+
+    private static final String DATAPROVIDER_PRODUCT_ATTRIBUTES =
+            ", [(dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) | {name: a.name, value: a.value}] AS attributes";
+
+    private static final String DATAPROVIDER_PRODUCT_ASSOCIATED =
+            ", head([(dp)-[:ASSOCIATED_WITH]->(p:InternalProduct) | {" +
+            "    internalId: p.internalId, " +
+            "    globalTradeIdentifier: p.globalTradeId, " +
+            "    attributes: [(p)-[:HAS_ATTRIBUTE]->(pa:InternalProductAttribute) | {name: pa.name, value: pa.value}]" +
+            "  }]) AS associatedProduct";
+
+    private final Neo4jClient neo4jClient;
+
+    /**
+     * One page of products ordered by internalId.
+     * @param after internalId of the last product of the previous page; empty for the first page
+     */
+    public List<InternalProductSummary> findProductPage(String after, int limit, Set<ProductExpansion> expand) {
+        return new ArrayList<>(neo4jClient.query(productPageQuery(expand))
+                .bind(after).to("after")
+                .bind(limit).to("limit")
+                .fetchAs(InternalProductSummary.class)
+                .mappedBy((typeSystem, record) -> toProductSummary(record))
+                .all());
+    }
+
+    /**
+     * One page of data provider products ordered by (dataProviderId, externalId).
+     * @param dataProviderId key of the last product of the previous page; empty for the first page
+     * @param externalId key of the last product of the previous page; empty for the first page
+     */
+    public List<DataProviderProductSummary> findDataProviderProductPage(
+            String dataProviderId, String externalId, int limit, Set<ProductExpansion> expand) {
+        return new ArrayList<>(neo4jClient.query(dataProviderProductPageQuery(expand))
+                .bind(dataProviderId).to("providerId")
+                .bind(externalId).to("externalId")
+                .bind(limit).to("limit")
+                .fetchAs(DataProviderProductSummary.class)
+                .mappedBy((typeSystem, record) -> toDataProviderProductSummary(record))
+                .all());
+    }
+
+    /**
+     * Page query with parameters $after and $limit.
+     */
+    static String productPageQuery(Set<ProductExpansion> expand) {
+        return PRODUCT_PAGE
+                + (expand.contains(ProductExpansion.ATTRIBUTES) ? PRODUCT_ATTRIBUTES : "")
+                + " ORDER BY internalId";
+    }
+
+    /**
+     * Page query with parameters $providerId, $externalId and $limit.
+     */
+    static String dataProviderProductPageQuery(Set<ProductExpansion> expand) {
+        return DATAPROVIDER_PRODUCT_PAGE
+                + (expand.contains(ProductExpansion.ATTRIBUTES) ? DATAPROVIDER_PRODUCT_ATTRIBUTES : "")
+                + (expand.contains(ProductExpansion.ASSOCIATED_PRODUCT) ? DATAPROVIDER_PRODUCT_ASSOCIATED : "")
+                + " ORDER BY dataProviderId, externalId";
+    }
+
+    static InternalProductSummary toProductSummary(Record record) {
+        return InternalProductSummary.builder()
+                .internalId(record.get("internalId", (String) null))
+                .globalTradeIdentifier(record.get("globalTradeIdentifier", (String) null))
+                .attributeCount(record.get("attributeCount").asLong())
+                .attributes(toAttributes(record.get("attributes")))
+                .build();
+    }
+
+    static DataProviderProductSummary toDataProviderProductSummary(Record record) {
+        Value associated = record.get("associatedProduct");
+        InternalProductSummary associatedProduct = null;
+        if (!associated.isNull()) {
+            List<AttributeValue> attributes = toAttributes(associated.get("attributes"));
+            associatedProduct = InternalProductSummary.builder()
+                    .internalId(associated.get("internalId", (String) null))
+                    .globalTradeIdentifier(associated.get("globalTradeIdentifier", (String) null))
+                    .attributeCount(attributes.size())
+                    .attributes(attributes)
+                    .build();
+        }
+        return DataProviderProductSummary.builder()
+                .dataProviderId(record.get("dataProviderId", (String) null))
+                .externalId(record.get("externalId", (String) null))
+                .globalTradeIdentifier(record.get("globalTradeIdentifier", (String) null))
+                .manufacturerPid(record.get("manufacturerPid", (String) null))
+                .associationStrategy(record.get("associationStrategy", (String) null))
+                .associationConfidence(record.get("associationConfidence").isNull()
+                        ? null : record.get("associationConfidence").asDouble())
+                .importedAt(record.get("importedAt").asLocalDateTime(null))
+                .lastUpdatedAt(record.get("lastUpdatedAt").asLocalDateTime(null))
+                .associatedProductId(record.get("associatedProductId", (String) null))
+                .attributeCount(record.get("attributeCount").asLong())
+                .attributes(toAttributes(record.get("attributes")))
+                .associatedProduct(associatedProduct)
+                .build();
+    }
+
+    /**
+     * @return null if the attributes were not requested
+     */
+    private static List<AttributeValue> toAttributes(Value attributes) {
+        if (attributes.isNull()) {
+            return null;
+        }
+        return attributes.asList(attribute -> new AttributeValue(
+                attribute.get("name", (String) null),
+                attribute.get("value", (String) null)));
+    }
+}
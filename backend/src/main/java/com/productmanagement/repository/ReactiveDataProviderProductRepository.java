@@ -0,0 +1,52 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.domain.DataProviderProduct;
+import org.springframework.data.neo4j.repository.ReactiveNeo4jRepository;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link DataProviderProductRepository} for the reactive read path.
+ * Only created with {@code product.reactive.enabled}, see {@link ReactiveRepositoryConfiguration}.
+ */
+@Repository
+public interface ReactiveDataProviderProductRepository extends ReactiveNeo4jRepository<DataProviderProduct, Long> {
+
+    /**
+     * Find a data provider product by provider ID and external ID
+     */
+    @Query("MATCH (dp:DataProviderProduct) " +
+           "WHERE dp.dataProviderId = $providerId AND dp.externalId = $externalId " +
+           "RETURN dp")
+    Mono<DataProviderProduct> findByDataProviderIdAndExternalId(
+            @Param("providerId") String dataProviderId,
+            @Param("externalId") String externalId);
+
+    /**
+     * Find all products from a specific data provider
+     */
+    @Query("MATCH (dp:DataProviderProduct) " +
+           "WHERE dp.dataProviderId = $providerId AND dp.externalId IS NOT NULL " +
+           "RETURN dp")
+    Flux<DataProviderProduct> findByDataProviderId(@Param("providerId") String dataProviderId);
+
+    /**
+     * Find all associated data provider products for an internal product, with their attributes
+     */
+    @Query("MATCH (dp:DataProviderProduct)-[:ASSOCIATED_WITH]->(p:InternalProduct) " +
+           "WHERE p.internalId = $internalId " +
+           "OPTIONAL MATCH (dp)-[r:HAS_DATAPROVIDERATTRIBUTE]->(a:DataproviderAttribute) " +
+           "RETURN dp, collect(r), collect(a)")
+    Flux<DataProviderProduct> findByAssociatedProductId(@Param("internalId") String internalId);
+
+    /**
+     * Find data provider products by GTIN
+     */
+    @Query("MATCH (dp:DataProviderProduct) " +
+           "WHERE dp.globalTradeIdentifier = $gtin " +
+           "RETURN dp")
+    Flux<DataProviderProduct> findByGlobalTradeIdentifier(@Param("gtin") String gtin);
+}
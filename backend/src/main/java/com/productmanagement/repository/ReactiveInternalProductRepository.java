@@ -0,0 +1,34 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.domain.InternalProduct;
+import org.springframework.data.neo4j.repository.ReactiveNeo4jRepository;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link InternalProductRepository} for the reactive read path.
+ * Only created with {@code product.reactive.enabled}, see {@link ReactiveRepositoryConfiguration}.
+ */
+@Repository
+public interface ReactiveInternalProductRepository extends ReactiveNeo4jRepository<InternalProduct, String> {
+
+    @Query("MATCH (p:InternalProduct) " +
+           "WHERE p.globalTradeId = $gtin " +
+           "OPTIONAL MATCH (p)-[r:HAS_ATTRIBUTE]->(a:InternalProductAttribute) " +
+           "RETURN p, collect(r), collect(a)")
+    Mono<InternalProduct> findByGlobalTradeIdentifier(@Param("gtin") String gtin);
+
+    @Query("MATCH (p:InternalProduct)-[:HAS_ATTRIBUTE]->(a:InternalProductAttribute) " +
+           "WHERE a.name = $attributeName AND a.value = $attributeValue " +
+           "RETURN p")
+    Flux<InternalProduct> findByAttributeNameAndValue(@Param("attributeName") String attributeName,
+                                                      @Param("attributeValue") String attributeValue);
+
+    @Query("MATCH (p:InternalProduct) " +
+           "WHERE p.internalId CONTAINS $searchTerm OR p.globalTradeId CONTAINS $searchTerm " +
+           "RETURN p")
+    Flux<InternalProduct> searchProducts(@Param("searchTerm") String searchTerm);
+}
@@ -0,0 +1,37 @@
+package com.productmanagement.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * The exports of {@link ProductExportRepository} on the reactive driver. Rows are pulled from the
+ * database as they are requested downstream, so a slow reader holds back the query instead of
+ * buffering its result.
+ */
+@Repository
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveProductExportRepository {
+
+    private final ReactiveNeo4jClient neo4jClient;
+
+    /**
+     * All InternalProducts with their attributes, ordered by internalId.
+     */
+    public Flux<Map<String, Object>> exportProducts() {
+        return neo4jClient.query(ProductExportRepository.EXPORT_PRODUCTS).fetch().all();
+    }
+
+    /**
+     * All DataProviderProducts with their attributes and the internalId of the associated product,
+     * ordered by (dataProviderId, externalId).
+     */
+    public Flux<Map<String, Object>> exportDataProviderProducts() {
+        return neo4jClient.query(ProductExportRepository.EXPORT_DATAPROVIDER_PRODUCTS).fetch().all();
+    }
+}
@@ -0,0 +1,50 @@
+package com.productmanagement.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * The keyset pages of {@link ProductSummaryRepository} on the reactive driver: the same queries and
+ * projections, emitted as the driver receives the rows.
+ */
+@Repository
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveProductSummaryRepository {
+
+    private final ReactiveNeo4jClient neo4jClient;
+
+    /**
+     * One page of products ordered by internalId.
+     * @param after internalId of the last product of the previous page; empty for the first page
+     */
+    public Flux<InternalProductSummary> findProductPage(String after, int limit, Set<ProductExpansion> expand) {
+        return neo4jClient.query(ProductSummaryRepository.productPageQuery(expand))
+                .bind(after).to("after")
+                .bind(limit).to("limit")
+                .fetchAs(InternalProductSummary.class)
+                .mappedBy((typeSystem, record) -> ProductSummaryRepository.toProductSummary(record))
+                .all();
+    }
+
+    /**
+     * One page of data provider products ordered by (dataProviderId, externalId).
+     * @param dataProviderId key of the last product of the previous page; empty for the first page
+     * @param externalId key of the last product of the previous page; empty for the first page
+     */
+    public Flux<DataProviderProductSummary> findDataProviderProductPage(
+            String dataProviderId, String externalId, int limit, Set<ProductExpansion> expand) {
+        return neo4jClient.query(ProductSummaryRepository.dataProviderProductPageQuery(expand))
+                .bind(dataProviderId).to("providerId")
+                .bind(externalId).to("externalId")
+                .bind(limit).to("limit")
+                .fetchAs(DataProviderProductSummary.class)
+                .mappedBy((typeSystem, record) -> ProductSummaryRepository.toDataProviderProductSummary(record))
+                .all();
+    }
+}
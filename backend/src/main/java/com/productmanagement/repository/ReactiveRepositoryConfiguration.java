@@ -0,0 +1,50 @@
+package com.productmanagement.repository;
+
+import org.neo4j.driver.Driver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.neo4j.core.DatabaseSelectionProvider;
+import org.springframework.data.neo4j.core.ReactiveDatabaseSelectionProvider;
+import org.springframework.data.neo4j.core.transaction.Neo4jTransactionManager;
+import org.springframework.data.neo4j.core.transaction.ReactiveNeo4jTransactionManager;
+import org.springframework.data.neo4j.repository.config.EnableReactiveNeo4jRepositories;
+import org.springframework.transaction.TransactionManager;
+
+/**
+ * Reactive repositories for the opt-in reactive read path, enabled by {@code product.reactive.enabled}.
+ * <p>
+ * Their methods run in transactions of a {@link ReactiveNeo4jTransactionManager}. Declaring it makes
+ * Spring Boot back off from its imperative transaction manager, so that one is declared here as well,
+ * as the primary one that unqualified {@code @Transactional} methods and the TransactionTemplate use.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+@EnableReactiveNeo4jRepositories(basePackageClasses = ReactiveRepositoryConfiguration.class,
+        transactionManagerRef = ReactiveRepositoryConfiguration.REACTIVE_TRANSACTION_MANAGER)
+public class ReactiveRepositoryConfiguration {
+
+    static final String REACTIVE_TRANSACTION_MANAGER = "reactiveTransactionManager";
+
+    @Bean
+    @Primary
+    public Neo4jTransactionManager transactionManager(Driver driver, DatabaseSelectionProvider databaseSelectionProvider,
+                                                      ObjectProvider<TransactionManagerCustomizers> customizers) {
+        Neo4jTransactionManager transactionManager = Neo4jTransactionManager.with(driver)
+                .withDatabaseSelectionProvider(databaseSelectionProvider)
+                .build();
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Bean(REACTIVE_TRANSACTION_MANAGER)
+    public ReactiveNeo4jTransactionManager reactiveTransactionManager(
+            Driver driver, ReactiveDatabaseSelectionProvider databaseSelectionProvider) {
+        return ReactiveNeo4jTransactionManager.with(driver)
+                .withDatabaseSelectionProvider(databaseSelectionProvider)
+                .build();
+    }
+}
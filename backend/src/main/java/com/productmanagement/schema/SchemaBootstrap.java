@@ -0,0 +1,203 @@
+package com.productmanagement.schema;
+
+import com.productmanagement.repository.AllowLabelScan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.exceptions.Neo4jException;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the constraints and indexes the queries rely on at startup, then checks the plan of
+ * every {@code @Query} repository method for label scans.
+ * <p>
+ * The statements match {@code infrastructure/neo4j/init/01-constraints.cypher}, so a database
+ * created by the Docker setup is left as it is, and a database set up by other means gets the
+ * same schema.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaBootstrap implements ApplicationRunner {
+
+    /**
+     * Schema of earlier versions on property names no query uses.
+     */
+    private static final List<String> OBSOLETE = List.of(
+            "DROP CONSTRAINT dataprovider_product_id IF EXISTS",
+            "DROP INDEX dataprovider_key IF EXISTS",
+            "DROP INDEX dataprovider_gtin IF EXISTS");
+
+    private static final List<String> SCHEMA = List.of(
+            "CREATE CONSTRAINT internal_product_id IF NOT EXISTS " +
+            "FOR (p:InternalProduct) REQUIRE p.internalId IS UNIQUE",
+            "CREATE CONSTRAINT internal_product_gtin IF NOT EXISTS " +
+            "FOR (p:InternalProduct) REQUIRE p.globalTradeId IS UNIQUE",
+            "CREATE TEXT INDEX internal_product_id_text IF NOT EXISTS " +
+            "FOR (p:InternalProduct) ON (p.internalId)",
+            "CREATE TEXT INDEX internal_product_gtin_text IF NOT EXISTS " +
+            "FOR (p:InternalProduct) ON (p.globalTradeId)",
+            "CREATE INDEX dataprovider_product_gtin IF NOT EXISTS " +
+            "FOR (dp:DataProviderProduct) ON (dp.globalTradeIdentifier)",
+            "CREATE INDEX dataprovider_product_unassociated IF NOT EXISTS " +
+            "FOR (dp:DataProviderProduct) ON (dp.unassociatedSince)",
+            "CREATE INDEX dataprovider_product_unassociated_id IF NOT EXISTS " +
+            "FOR (dp:DataProviderProduct) ON (dp.unassociatedIdKey)",
+            "CREATE INDEX dataprovider_product_unassociated_part_number IF NOT EXISTS " +
+            "FOR (dp:DataProviderProduct) ON (dp.unassociatedPartNumberKey)",
+            "CREATE INDEX internal_product_attribute_name_value IF NOT EXISTS " +
+            "FOR (a:InternalProductAttribute) ON (a.name, a.value)",
+            "CREATE INDEX dataprovider_attribute_name_value IF NOT EXISTS " +
+            "FOR (a:DataproviderAttribute) ON (a.name, a.value)",
+            "CREATE INDEX import_checkpoint_source IF NOT EXISTS " +
+            "FOR (c:ImportCheckpoint) ON (c.dataProviderId, c.sourceHash)",
+            "CREATE INDEX cache_invalidation_created IF NOT EXISTS " +
+            "FOR (i:CacheInvalidation) ON (i.createdAt)");
+
+    private static final String DATAPROVIDER_PRODUCT_UNIQUE = "dataprovider_product_unique";
+
+    private static final String CREATE_DATAPROVIDER_PRODUCT_UNIQUE =
+            "CREATE CONSTRAINT " + DATAPROVIDER_PRODUCT_UNIQUE + " IF NOT EXISTS " +
+            "FOR (dp:DataProviderProduct) REQUIRE (dp.dataProviderId, dp.externalId) IS UNIQUE";
+
+    /**
+     * Non-unique index on the same key, kept while duplicates prevent the constraint.
+     * The constraint cannot be created while it exists.
+     */
+    private static final String CREATE_DATAPROVIDER_PRODUCT_KEY =
+            "CREATE INDEX dataprovider_product_key IF NOT EXISTS " +
+            "FOR (dp:DataProviderProduct) ON (dp.dataProviderId, dp.externalId)";
+
+    private static final String DROP_DATAPROVIDER_PRODUCT_KEY = "DROP INDEX dataprovider_product_key IF EXISTS";
+
+    private static final String CONSTRAINT_EXISTS =
+            "SHOW CONSTRAINTS YIELD name WHERE name = $name RETURN count(*) > 0 AS exists";
+
+    private static final String COUNT_DUPLICATE_KEYS =
+            "MATCH (dp:DataProviderProduct) " +
+            "WHERE dp.dataProviderId IS NOT NULL AND dp.externalId IS NOT NULL " +
+            "WITH dp.dataProviderId AS dataProviderId, dp.externalId AS externalId, count(*) AS products " +
+            "WHERE products > 1 " +
+            "RETURN count(*) AS duplicates";
+
+    private final Driver driver;
+    private final ApplicationContext applicationContext;
+    private final SchemaProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try (Session session = driver.session()) {
+            if (properties.isBootstrap()) {
+                createSchema(session);
+            }
+            if (properties.getOnLabelScan() != SchemaProperties.LabelScanPolicy.IGNORE) {
+                checkQueryPlans(session);
+            }
+        }
+    }
+
+    private void createSchema(Session session) {
+        int created = 0;
+        int dropped = 0;
+        for (String statement : OBSOLETE) {
+            SummaryCounters counters = run(session, statement);
+            dropped += counters.indexesRemoved() + counters.constraintsRemoved();
+        }
+        created += createDataProviderProductKey(session);
+        for (String statement : SCHEMA) {
+            SummaryCounters counters = run(session, statement);
+            created += counters.indexesAdded() + counters.constraintsAdded();
+        }
+        log.info("Schema bootstrap created {} and dropped {} indexes and constraints", created, dropped);
+
+        try {
+            session.run("CALL db.awaitIndexes($timeout)",
+                    Map.of("timeout", properties.getIndexTimeout().toSeconds())).consume();
+        } catch (Neo4jException e) {
+            log.warn("Indexes not online after {}: {}", properties.getIndexTimeout(), e.getMessage());
+        }
+    }
+
+    /**
+     * Ensure the unique constraint on (dataProviderId, externalId). Products imported twice by an
+     * older version prevent it; those databases keep a plain index until the duplicates are removed.
+     */
+    private int createDataProviderProductKey(Session session) {
+        if (session.run(CONSTRAINT_EXISTS, Map.of("name", DATAPROVIDER_PRODUCT_UNIQUE)).single().get("exists").asBoolean()) {
+            return 0;
+        }
+        long duplicates = session.run(COUNT_DUPLICATE_KEYS).single().get("duplicates").asLong();
+        if (duplicates > 0) {
+            log.error("{} (dataProviderId, externalId) pairs are used by more than one DataProviderProduct; " +
+                    "constraint {} is not created until they are removed", duplicates, DATAPROVIDER_PRODUCT_UNIQUE);
+            return run(session, CREATE_DATAPROVIDER_PRODUCT_KEY).indexesAdded();
+        }
+        run(session, DROP_DATAPROVIDER_PRODUCT_KEY);
+        return run(session, CREATE_DATAPROVIDER_PRODUCT_UNIQUE).constraintsAdded();
+    }
+
+    private static SummaryCounters run(Session session, String statement) {
+        return session.run(statement).consume().counters();
+    }
+
+    /**
+     * EXPLAIN every {@code @Query} repository method and report plans that scan a whole label.
+     * Parameters are left unbound, which EXPLAIN allows.
+     */
+    private void checkQueryPlans(Session session) {
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> scans = new ArrayList<>();
+        int checked = 0;
+        for (Class<?> domainType : repositories) {
+            var information = repositories.getRequiredRepositoryInformation(domainType);
+            for (Method method : information.getQueryMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null || method.isAnnotationPresent(AllowLabelScan.class)) {
+                    continue;
+                }
+                checked++;
+                List<String> operators = new ArrayList<>();
+                collectLabelScans(session.run("EXPLAIN " + query.value()).consume().plan(), operators);
+                if (!operators.isEmpty()) {
+                    scans.add(information.getRepositoryInterface().getSimpleName() + "." + method.getName() + " " + operators);
+                }
+            }
+        }
+
+        if (scans.isEmpty()) {
+            log.info("Checked the plans of {} repository queries, none scans a label", checked);
+        } else if (properties.getOnLabelScan() == SchemaProperties.LabelScanPolicy.FAIL) {
+            throw new IllegalStateException("Repository queries scan a whole label: " + scans);
+        } else {
+            scans.forEach(scan -> log.warn("Repository query scans a whole label: {}", scan));
+        }
+    }
+
+    private static void collectLabelScans(Plan plan, List<String> operators) {
+        String operator = plan.operatorType();
+        int at = operator.indexOf('@');
+        if (at >= 0) {
+            operator = operator.substring(0, at);
+        }
+        if (operator.equals("AllNodesScan") || operator.endsWith("LabelScan") || operator.endsWith("LabelsScan")) {
+            operators.add(operator);
+        }
+        plan.children().forEach(child -> collectLabelScans(child, operators));
+    }
+}
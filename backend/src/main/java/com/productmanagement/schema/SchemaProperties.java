@@ -0,0 +1,37 @@
+package com.productmanagement.schema;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the schema bootstrap, bound from {@code product.schema.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "product.schema")
+@Data
+public class SchemaProperties {
+
+    /**
+     * Create missing constraints and indexes at startup.
+     */
+    private boolean bootstrap = true;
+
+    /**
+     * How long to wait for new indexes to come online before the query plans are checked.
+     */
+    private Duration indexTimeout = Duration.ofMinutes(5);
+
+    /**
+     * What to do when the plan of a repository query contains a label scan.
+     */
+    private LabelScanPolicy onLabelScan = LabelScanPolicy.WARN;
+
+    public enum LabelScanPolicy {
+        IGNORE,
+        WARN,
+        FAIL
+    }
+}
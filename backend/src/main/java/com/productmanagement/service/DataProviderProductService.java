@@ -2,6 +2,9 @@ package com.productmanagement.service;
 
 import com.productmanagement.domain.DataProviderProduct;
 import com.productmanagement.repository.DataProviderProductRepository;
+import com.productmanagement.repository.DataProviderProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ProductSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -9,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -17,17 +21,36 @@ import java.util.Optional;
 public class DataProviderProductService {
 
     private final DataProviderProductRepository dataProviderProductRepository;
+    private final ProductSummaryRepository summaryRepository;
 
     public List<DataProviderProduct> findAll() {
         log.debug("Finding all DataProviderProducts");
         return dataProviderProductRepository.findAll();
     }
 
+    /**
+     * Keyset page of summaries ordered by (dataProviderId, externalId), starting after the given key.
+     */
+    public List<DataProviderProductSummary> findSummaryPage(String dataProviderId, String externalId, int limit,
+                                                            Set<ProductExpansion> expand) {
+        log.debug("Finding {} DataProviderProduct summaries after {}/{} expanding {}",
+                limit, dataProviderId, externalId, expand);
+        return summaryRepository.findDataProviderProductPage(dataProviderId, externalId, limit, expand);
+    }
+
     public Optional<DataProviderProduct> findByDataProviderIdAndExternalId(String dataProviderId, String externalId) {
         log.debug("Finding DataProviderProduct by providerId: {} and externalId: {}", dataProviderId, externalId);
         return dataProviderProductRepository.findByDataProviderIdAndExternalId(dataProviderId, externalId);
     }
 
+    /**
+     * The DataProviderProducts associated with a product, with their attributes.
+     */
+    public List<DataProviderProduct> findByAssociatedProductId(String internalId) {
+        log.debug("Finding DataProviderProducts associated with product ID: {}", internalId);
+        return dataProviderProductRepository.findByAssociatedProductId(internalId);
+    }
+
     public DataProviderProduct save(DataProviderProduct product) {
         log.debug("Saving DataProviderProduct: {}", product.getExternalId());
         return dataProviderProductRepository.save(product);
@@ -0,0 +1,14 @@
+package com.productmanagement.service;
+
+import lombok.Value;
+
+/**
+ * Published after an InternalProduct was saved, so in-memory structures
+ * keyed by its identifiers can be kept up to date.
+ */
+@Value
+public class InternalProductSavedEvent {
+
+    String internalId;
+    String globalTradeIdentifier;
+}
@@ -2,13 +2,23 @@ package com.productmanagement.service;
 
 import com.productmanagement.domain.InternalProduct;
 import com.productmanagement.repository.InternalProductRepository;
+import com.productmanagement.repository.InternalProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ProductFacets;
+import com.productmanagement.repository.ProductFilter;
+import com.productmanagement.repository.ProductSearchRepository;
+import com.productmanagement.repository.ProductSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -17,26 +27,84 @@ import java.util.Optional;
 public class InternalProductService {
     
     private final InternalProductRepository productRepository;
+    private final ProductSummaryRepository summaryRepository;
+    private final ProductSearchRepository searchRepository;
+    private final ProductSearchProperties searchProperties;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<InternalProduct> findAll() {
         log.debug("Finding all products");
         return productRepository.findAll();
     }
     
+    /**
+     * Keyset page of product summaries ordered by internalId, starting after the given ID.
+     */
+    public List<InternalProductSummary> findSummaryPage(String after, int limit, Set<ProductExpansion> expand) {
+        log.debug("Finding {} product summaries after ID: {} expanding {}", limit, after, expand);
+        return summaryRepository.findProductPage(after, limit, expand);
+    }
+
+    /**
+     * Up to {@code limit} products matching the filter, with their attributes.
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    @Transactional(readOnly = true)
+    public List<InternalProductSummary> search(ProductFilter filter, int limit) {
+        log.debug("Searching {} products matching {}", limit, filter);
+        return searchRepository.search(filter, limit);
+    }
+
+    /**
+     * Attribute value counts over the products matching the filter.
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    @Transactional(readOnly = true)
+    public ProductFacets findFacets(ProductFilter filter) {
+        log.debug("Counting facets of products matching {}", filter);
+        return searchRepository.findFacets(filter, searchProperties.getFacetSampleSize(), searchProperties.getFacetValues());
+    }
+
+    /**
+     * Served from the {@link ProductCache}; joins an existing transaction but does not start one,
+     * so cache hits do not cost a database round-trip.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<InternalProduct> findById(String internalId) {
         log.debug("Finding product by ID: {}", internalId);
-        return productRepository.findById(internalId);
+        return productCache.findById(internalId, productRepository::findById);
     }
 
 
+    public List<InternalProduct> findAllById(Collection<String> internalIds) {
+        log.debug("Finding {} products by ID", internalIds.size());
+        return productRepository.findAllById(internalIds);
+    }
+
     public InternalProduct save(InternalProduct product) {
         log.debug("Saving product: {}", product.getInternalId());
-        return productRepository.save(product);
+        InternalProduct saved = productRepository.save(product);
+        eventPublisher.publishEvent(new InternalProductSavedEvent(saved.getInternalId(), saved.getGlobalTradeIdentifier()));
+        return saved;
     }
 
+    /**
+     * Served from the {@link ProductCache}, like {@link #findById(String)}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<InternalProduct> findByGlobalTradeIdentifier(String gtin) {
         log.debug("Finding product by GTIN: {}", gtin);
-        return productRepository.findByGlobalTradeIdentifier(gtin);
+        return productCache.findByGlobalTradeIdentifier(gtin, productRepository::findByGlobalTradeIdentifier);
+    }
+
+    /**
+     * Drop products from the cache that were changed without {@link #save(InternalProduct)},
+     * such as by batched import statements. Call after the change has committed.
+     */
+    public void invalidateCached(Collection<String> internalIds) {
+        log.debug("Invalidating {} cached products", internalIds.size());
+        productCache.invalidate(internalIds, List.of());
     }
 
 }
\ No newline at end of file
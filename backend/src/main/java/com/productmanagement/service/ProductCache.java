@@ -0,0 +1,263 @@
+package com.productmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.productmanagement.cache.CacheInvalidation;
+import com.productmanagement.cache.CacheInvalidationChannel;
+import com.productmanagement.cache.ProductCacheProperties;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.domain.InternalProductAttribute;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of InternalProducts by internalId, with a secondary GTIN to internalId
+ * mapping. Eviction is size-aware W-TinyLFU (Caffeine): products are weighed by their estimated
+ * heap size, GTIN mappings are counted.
+ * <p>
+ * Entries are invalidated after a save commits and in bulk after each import chunk. With an
+ * {@link CacheInvalidationChannel} configured, invalidations are also sent to the other backend
+ * instances and theirs are applied here, so every instance keeps a consistent near cache.
+ * <p>
+ * Callers get copies, because InternalProducts are mutable and are changed before they are saved.
+ * The cache is bypassed inside read-write transactions, which may see uncommitted changes.
+ * Hit rates and sizes are exported as the Micrometer cache meters of {@code products} and {@code productGtins}.
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    /**
+     * Rough heap size of an InternalProduct, its attribute set and one attribute node, in bytes.
+     */
+    private static final int PRODUCT_OVERHEAD = 96;
+    private static final int ATTRIBUTE_OVERHEAD = 72;
+
+    private final ProductCacheProperties properties;
+    private final CacheInvalidationChannel channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Cache<String, InternalProduct> products;
+    private final Cache<String, String> internalIdsByGtin;
+
+    /**
+     * Incremented before entries are removed, so that a load that overlapped an invalidation
+     * does not store what it read before the change.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(ProductCacheProperties properties, ObjectProvider<CacheInvalidationChannel> channel,
+                        MeterRegistry registry) {
+        this.properties = properties;
+        this.channel = channel.getIfAvailable();
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((String internalId, InternalProduct product) -> weigh(product))
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.internalIdsByGtin = Caffeine.newBuilder()
+                .maximumSize(properties.getGtinMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, products, "products");
+        CaffeineCacheMetrics.monitor(registry, internalIdsByGtin, "productGtins");
+        if (this.channel != null) {
+            this.channel.subscribe(this::onInvalidation);
+            log.info("Product cache {} receives invalidations through {}", instanceId,
+                    this.channel.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Hit and miss counts of one of the caches.
+     */
+    @Value
+    public static class Statistics {
+        long hitCount;
+        long missCount;
+        double hitRate;
+        long evictionCount;
+        long evictionWeight;
+        long estimatedSize;
+
+        static Statistics of(Cache<?, ?> cache) {
+            CacheStats stats = cache.stats();
+            return new Statistics(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.evictionCount(), stats.evictionWeight(), cache.estimatedSize());
+        }
+    }
+
+    /**
+     * Look up a product by internalId, loading and caching it on a miss.
+     * Concurrent misses for the same ID share one load.
+     */
+    public Optional<InternalProduct> findById(String internalId,
+                                              Function<String, Optional<InternalProduct>> loader) {
+        if (!isUsable()) {
+            return loader.apply(internalId);
+        }
+        InternalProduct product = products.get(internalId, id -> loader.apply(id).map(ProductCache::copy).orElse(null));
+        if (product == null) {
+            return Optional.empty();
+        }
+        if (product.getGlobalTradeIdentifier() != null) {
+            internalIdsByGtin.put(product.getGlobalTradeIdentifier(), internalId);
+        }
+        return Optional.of(copy(product));
+    }
+
+    /**
+     * {@link #findById} for the reactive read path: a miss is loaded by subscribing to the loader.
+     * Concurrent misses for the same ID load separately. Reactive reads are not bound to a thread's
+     * transaction, so the cache is always usable when it is enabled.
+     */
+    public Mono<InternalProduct> findByIdReactive(String internalId,
+                                                  Function<String, Mono<InternalProduct>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(internalId);
+        }
+        return Mono.defer(() -> {
+            InternalProduct cached = products.getIfPresent(internalId);
+            if (cached != null) {
+                return Mono.just(copy(cached));
+            }
+            long invalidationsBefore = invalidations.get();
+            return loader.apply(internalId).doOnNext(product -> {
+                InternalProduct copy = copy(product);
+                products.asMap().compute(internalId,
+                        (id, current) -> invalidations.get() == invalidationsBefore ? copy : current);
+                if (product.getGlobalTradeIdentifier() != null) {
+                    internalIdsByGtin.put(product.getGlobalTradeIdentifier(), internalId);
+                }
+            });
+        });
+    }
+
+    /**
+     * Look up a product by GTIN, loading and caching it on a miss.
+     */
+    public Optional<InternalProduct> findByGlobalTradeIdentifier(String gtin,
+                                                                 Function<String, Optional<InternalProduct>> loader) {
+        if (!isUsable()) {
+            return loader.apply(gtin);
+        }
+        String internalId = internalIdsByGtin.getIfPresent(gtin);
+        if (internalId != null) {
+            InternalProduct product = products.getIfPresent(internalId);
+            // The mapping can outlive a GTIN change whose product was not cached at the time.
+            if (product != null && gtin.equals(product.getGlobalTradeIdentifier())) {
+                return Optional.of(copy(product));
+            }
+        }
+
+        long invalidationsBefore = invalidations.get();
+        Optional<InternalProduct> loaded = loader.apply(gtin);
+        loaded.ifPresent(product -> {
+            InternalProduct cached = copy(product);
+            products.asMap().compute(product.getInternalId(),
+                    (id, current) -> invalidations.get() == invalidationsBefore ? cached : current);
+            internalIdsByGtin.put(gtin, product.getInternalId());
+        });
+        return loaded;
+    }
+
+    /**
+     * Drop products whose stored state was changed, here and on the other instances.
+     * Must be called after the change has committed.
+     */
+    public void invalidate(Collection<String> internalIds, Collection<String> globalTradeIdentifiers) {
+        if (internalIds.isEmpty() && globalTradeIdentifiers.isEmpty()) {
+            return;
+        }
+        invalidateLocally(internalIds, globalTradeIdentifiers);
+        if (channel != null) {
+            try {
+                channel.publish(new CacheInvalidation(instanceId, Set.copyOf(internalIds), Set.copyOf(globalTradeIdentifiers)));
+            } catch (RuntimeException e) {
+                // The other instances fall back to expire-after-write.
+                log.warn("Could not publish invalidation of {} products: {}", internalIds.size(), e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInternalProductSaved(InternalProductSavedEvent event) {
+        Set<String> gtins = event.getGlobalTradeIdentifier() != null ? Set.of(event.getGlobalTradeIdentifier()) : Set.of();
+        invalidate(Set.of(event.getInternalId()), gtins);
+    }
+
+    public Statistics getProductStatistics() {
+        return Statistics.of(products);
+    }
+
+    public Statistics getGtinStatistics() {
+        return Statistics.of(internalIdsByGtin);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (!instanceId.equals(invalidation.getOrigin())) {
+            invalidateLocally(invalidation.getInternalIds(), invalidation.getGlobalTradeIdentifiers());
+        }
+    }
+
+    private void invalidateLocally(Collection<String> internalIds, Collection<String> globalTradeIdentifiers) {
+        invalidations.incrementAndGet();
+        for (String internalId : internalIds) {
+            InternalProduct removed = products.asMap().remove(internalId);
+            if (removed != null && removed.getGlobalTradeIdentifier() != null) {
+                internalIdsByGtin.invalidate(removed.getGlobalTradeIdentifier());
+            }
+        }
+        internalIdsByGtin.invalidateAll(globalTradeIdentifiers);
+    }
+
+    /**
+     * Whether the current thread may read and fill the cache: outside of transactions and in
+     * read-only ones, but not where uncommitted changes could be read or cached.
+     */
+    private boolean isUsable() {
+        return properties.isEnabled()
+                && (!TransactionSynchronizationManager.isActualTransactionActive()
+                    || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private static InternalProduct copy(InternalProduct product) {
+        return InternalProduct.builder()
+                .internalId(product.getInternalId())
+                .globalTradeIdentifier(product.getGlobalTradeIdentifier())
+                .attributes(new HashSet<>(product.getAttributes()))
+                .build();
+    }
+
+    private static int weigh(InternalProduct product) {
+        int weight = PRODUCT_OVERHEAD + length(product.getInternalId()) + length(product.getGlobalTradeIdentifier());
+        for (InternalProductAttribute attribute : product.getAttributes()) {
+            weight += ATTRIBUTE_OVERHEAD + length(attribute.getName()) + length(attribute.getValue());
+        }
+        return weight;
+    }
+
+    /**
+     * Approximate heap size of a string's characters: Latin-1 strings use one byte per character.
+     */
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,25 @@
+package com.productmanagement.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the product search, bound from {@code product.search.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "product.search")
+@Data
+public class ProductSearchProperties {
+
+    /**
+     * Matching products the facet counts are taken from. Filters matching more products get
+     * approximate counts; raising the sample makes them exact for more filters at the cost of latency.
+     */
+    private int facetSampleSize = 2_000;
+
+    /**
+     * Most frequent values returned per facet.
+     */
+    private int facetValues = 10;
+}
@@ -0,0 +1,69 @@
+package com.productmanagement.service;
+
+import com.productmanagement.domain.DataProviderProduct;
+import com.productmanagement.domain.InternalProduct;
+import com.productmanagement.repository.DataProviderProductSummary;
+import com.productmanagement.repository.InternalProductSummary;
+import com.productmanagement.repository.ProductExpansion;
+import com.productmanagement.repository.ReactiveDataProviderProductRepository;
+import com.productmanagement.repository.ReactiveInternalProductRepository;
+import com.productmanagement.repository.ReactiveProductSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Reads of {@link InternalProductService} and {@link DataProviderProductService} on the reactive
+ * repositories, for the opt-in reactive read path. Nothing is read until the result is subscribed to.
+ */
+@Service
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductService {
+
+    private final ReactiveInternalProductRepository productRepository;
+    private final ReactiveDataProviderProductRepository dataProviderProductRepository;
+    private final ReactiveProductSummaryRepository summaryRepository;
+    private final ProductCache productCache;
+
+    /**
+     * Keyset page of product summaries ordered by internalId, starting after the given ID.
+     */
+    public Flux<InternalProductSummary> findSummaryPage(String after, int limit, Set<ProductExpansion> expand) {
+        log.debug("Finding {} product summaries after ID: {} expanding {}", limit, after, expand);
+        return summaryRepository.findProductPage(after, limit, expand);
+    }
+
+    /**
+     * Keyset page of DataProviderProduct summaries ordered by (dataProviderId, externalId),
+     * starting after the given key.
+     */
+    public Flux<DataProviderProductSummary> findDataProviderSummaryPage(String dataProviderId, String externalId,
+                                                                       int limit, Set<ProductExpansion> expand) {
+        log.debug("Finding {} DataProviderProduct summaries after {}/{} expanding {}",
+                limit, dataProviderId, externalId, expand);
+        return summaryRepository.findDataProviderProductPage(dataProviderId, externalId, limit, expand);
+    }
+
+    /**
+     * Served from the {@link ProductCache} like {@link InternalProductService#findById}.
+     */
+    public Mono<InternalProduct> findById(String internalId) {
+        log.debug("Finding product by ID: {}", internalId);
+        return productCache.findByIdReactive(internalId, productRepository::findById);
+    }
+
+    /**
+     * The DataProviderProducts associated with a product, with their attributes.
+     */
+    public Flux<DataProviderProduct> findAssociatedDataProviderProducts(String internalId) {
+        log.debug("Finding DataProviderProducts associated with product ID: {}", internalId);
+        return dataProviderProductRepository.findByAssociatedProductId(internalId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.productmanagement.dataprovider;
+
+import com.productmanagement.repository.InternalProductBatchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AssociationIndexTest {
+
+    private final InternalProductBatchRepository batchRepository = mock(InternalProductBatchRepository.class);
+    private final AssociationIndex associationIndex = new AssociationIndex(batchRepository, new AssociationProperties());
+
+    @Test
+    void failedLoadIsRetriedByTheNextImport() {
+        when(batchRepository.forEachProductKeys(anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(invocation -> {
+                    Consumer<InternalProductBatchRepository.ProductKeys> consumer = invocation.getArgument(2);
+                    consumer.accept(new InternalProductBatchRepository.ProductKeys(
+                            "INT-001", "4006381333931", List.of("D-1"), List.of()));
+                    return 1L;
+                });
+
+        assertThatThrownBy(associationIndex::prepare).isInstanceOf(IllegalStateException.class);
+        assertThat(associationIndex.current()).isNull();
+
+        associationIndex.prepare();
+        assertThat(associationIndex.current()).isNotNull();
+        assertThat(associationIndex.current().findByGtin("4006381333931")).isEqualTo("INT-001");
+        assertThat(associationIndex.current().findByPartNumber("d-1")).isEqualTo("INT-001");
+
+        associationIndex.release();
+        assertThat(associationIndex.current()).isNull();
+    }
+}
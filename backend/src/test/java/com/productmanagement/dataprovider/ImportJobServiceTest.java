@@ -0,0 +1,88 @@
+package com.productmanagement.dataprovider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportJobServiceTest {
+
+    private final ImportProperties properties = new ImportProperties();
+    private ImportJobService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void cancelWhileQueuedCleansUpWithoutRunning() throws Exception {
+        properties.setMaxConcurrentJobs(1);
+        service = new ImportJobService(properties, new SimpleMeterRegistry());
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        service.submit("provider", "first", -1, result -> {
+            started.countDown();
+            blocking.await();
+        }, () -> { });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicInteger cleanups = new AtomicInteger();
+        ImportJob queued = service.submit("provider", "second", -1, result -> ran.set(true), cleanups::incrementAndGet);
+
+        assertThat(service.cancel(queued.getId())).isTrue();
+        assertThat(queued.getStatus()).isEqualTo(ImportJob.Status.CANCELLED);
+        assertThat(cleanups).hasValue(1);
+
+        blocking.countDown();
+        queued.awaitFinished();
+        assertThat(ran).isFalse();
+        assertThat(queued.getStartedAt()).isNull();
+        assertThat(cleanups).hasValue(1);
+    }
+
+    @Test
+    void cancelRacingTheStartEitherRunsOrCancelsTheJob() throws Exception {
+        properties.setMaxConcurrentJobs(4);
+        properties.setMaxQueuedJobs(1000);
+        service = new ImportJobService(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 500; i++) {
+            AtomicBoolean ran = new AtomicBoolean();
+            AtomicBoolean ranAfterCleanup = new AtomicBoolean();
+            AtomicInteger cleanups = new AtomicInteger();
+            CountDownLatch cleanedUp = new CountDownLatch(1);
+            ImportJob job = service.submit("provider", "source-" + i, -1, result -> {
+                ran.set(true);
+                if (cleanups.get() > 0) {
+                    ranAfterCleanup.set(true);
+                }
+            }, () -> {
+                cleanups.incrementAndGet();
+                cleanedUp.countDown();
+            });
+
+            service.cancel(job.getId());
+
+            job.awaitFinished();
+            assertThat(cleanedUp.await(5, TimeUnit.SECONDS)).isTrue();
+            // A job that ran may also have completed before it saw the cancellation
+            assertThat(job.getStatus()).isIn(ran.get()
+                    ? new ImportJob.Status[]{ImportJob.Status.CANCELLED, ImportJob.Status.COMPLETED}
+                    : new ImportJob.Status[]{ImportJob.Status.CANCELLED});
+            assertThat(ranAfterCleanup).isFalse();
+            assertThat(job.getStartedAt() != null).isEqualTo(ran.get());
+            assertThat(cleanups).hasValue(1);
+        }
+    }
+}
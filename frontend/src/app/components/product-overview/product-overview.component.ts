@@ -1,4 +1,5 @@
 import { Component, OnInit } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
 import { CommonModule } from '@angular/common';
 import { MatTabsModule } from '@angular/material/tabs';
 import { MatTableModule } from '@angular/material/table';
@@ -7,11 +8,14 @@ import { MatIconModule } from '@angular/material/icon';
 import { MatCardModule } from '@angular/material/card';
 import { MatSnackBar, MatSnackBarModule } from '@angular/material/snack-bar';
 import { MatProgressSpinnerModule } from '@angular/material/progress-spinner';
-import { MatSelectModule } from '@angular/material/select';
 import { MatFormFieldModule } from '@angular/material/form-field';
+import { MatInputModule } from '@angular/material/input';
+import { MatAutocompleteModule } from '@angular/material/autocomplete';
+import { Observable, Subject, catchError, debounceTime, distinctUntilChanged, of, switchMap } from 'rxjs';
 import { ProductService } from '../../services/product.service';
 import { DataProviderService } from '../../services/data-provider.service';
 import { Product, DataProviderProduct } from '../../models/product.model';
+import { CursorPager } from '../../services/paging';
 
 @Component({
   selector: 'app-product-overview',
@@ -25,31 +29,43 @@ import { Product, DataProviderProduct } from '../../models/product.model';
     MatCardModule,
     MatSnackBarModule,
     MatProgressSpinnerModule,
-    MatSelectModule,
-    MatFormFieldModule
+    MatFormFieldModule,
+    MatInputModule,
+    MatAutocompleteModule
   ],
   templateUrl: './product-overview.component.html',
   styleUrls: ['./product-overview.component.css']
 })
 export class ProductOverviewComponent implements OnInit {
-  internalProducts: Product[] = [];
-  dataProviderProducts: DataProviderProduct[] = [];
+  internalProducts: CursorPager<Product>;
+  dataProviderProducts: CursorPager<DataProviderProduct>;
 
   internalProductColumns = ['internalId', 'globalTradeIdentifier', 'attributes'];
   dataProviderProductColumns = ['dataProviderId', 'externalId', 'globalTradeIdentifier', 'associationStrategy', 'attributes', 'associatedProduct'];
 
-  loading = false;
   importing = false;
 
   // Product comparison tab
   selectedProduct: Product | null = null;
   associatedDataProviderProducts: DataProviderProduct[] = [];
+  productOptions: Product[] = [];
+  private productSearchTerms = new Subject<string>();
 
   constructor(
     private productService: ProductService,
     private dataProviderService: DataProviderService,
     private snackBar: MatSnackBar
-  ) {}
+  ) {
+    this.internalProducts = productService.getProductPager();
+    this.dataProviderProducts = dataProviderService.getDataProviderProductPager();
+
+    this.productSearchTerms.pipe(
+      debounceTime(300),
+      distinctUntilChanged(),
+      switchMap(term => this.findProductOptions(term.trim())),
+      takeUntilDestroyed()
+    ).subscribe(products => this.productOptions = products);
+  }
 
   ngOnInit() {
     this.loadInternalProducts();
@@ -57,29 +73,27 @@ export class ProductOverviewComponent implements OnInit {
   }
 
   loadInternalProducts() {
-    this.loading = true;
-    this.productService.getAllProducts().subscribe({
-      next: (products) => {
-        this.internalProducts = products;
-        this.loading = false;
-      },
+    this.internalProducts.reset();
+    this.loadMoreInternalProducts();
+  }
+
+  loadMoreInternalProducts() {
+    this.internalProducts.loadMore().subscribe({
       error: (error) => {
         this.snackBar.open('Error loading internal products: ' + error.message, 'Close', { duration: 5000 });
-        this.loading = false;
       }
     });
   }
 
   loadDataProviderProducts() {
-    this.loading = true;
-    this.dataProviderService.getAllDataProviderProducts().subscribe({
-      next: (products) => {
-        this.dataProviderProducts = products;
-        this.loading = false;
-      },
+    this.dataProviderProducts.reset();
+    this.loadMoreDataProviderProducts();
+  }
+
+  loadMoreDataProviderProducts() {
+    this.dataProviderProducts.loadMore().subscribe({
       error: (error) => {
         this.snackBar.open('Error loading data provider products: ' + error.message, 'Close', { duration: 5000 });
-        this.loading = false;
       }
     });
   }
@@ -89,12 +103,13 @@ export class ProductOverviewComponent implements OnInit {
     this.dataProviderService.importJsonProducts().subscribe({
       next: (result) => {
         this.importing = false;
-        const message = `Import completed! Total: ${result.totalProducts}, Associated: ${result.associatedProducts}, Not Associated: ${result.notAssociatedProducts}`;
+        const message = `Import completed! Total: ${result.totalProducts}, Associated: ${result.associatedProducts} (${result.unchangedProducts ?? 0} unchanged), Not Associated: ${result.notAssociatedProducts}`;
         this.snackBar.open(message, 'Close', { duration: 7000 });
         
-        // Reload both tables
+        // Reload both tables and the comparison
         this.loadInternalProducts();
         this.loadDataProviderProducts();
+        this.loadAssociatedDataProviderProducts();
       },
       error: (error) => {
         this.importing = false;
@@ -111,24 +126,62 @@ export class ProductOverviewComponent implements OnInit {
   }
 
   getAssociatedProductId(product: DataProviderProduct): string {
-    return product.associatedProduct?.internalId || 'Not Associated';
+    return product.associatedProductId || 'Not Associated';
+  }
+
+  searchProducts(term: string) {
+    this.productSearchTerms.next(term);
+  }
+
+  private findProductOptions(term: string): Observable<Product[]> {
+    if (!term) {
+      return of([]);
+    }
+    return this.productService.searchProducts(term).pipe(
+      catchError((error) => {
+        this.snackBar.open('Error searching products: ' + error.message, 'Close', { duration: 5000 });
+        return of([]);
+      })
+    );
+  }
+
+  formatProductOption(product: Product | null): string {
+    return product ? `${product.internalId} - ${product.globalTradeIdentifier || 'No GTIN'}` : '';
   }
 
   onProductSelected(product: Product) {
     this.selectedProduct = product;
+    this.associatedDataProviderProducts = [];
+    // Search results are summaries, so load the product with its attributes
+    this.productService.getProduct(product.internalId).subscribe({
+      next: (loaded) => {
+        if (this.selectedProduct?.internalId === loaded.internalId) {
+          this.selectedProduct = loaded;
+        }
+      },
+      error: (error) => {
+        this.snackBar.open('Error loading product: ' + error.message, 'Close', { duration: 5000 });
+      }
+    });
     this.loadAssociatedDataProviderProducts();
   }
 
   loadAssociatedDataProviderProducts() {
-    if (!this.selectedProduct) {
+    const product = this.selectedProduct;
+    if (!product) {
       this.associatedDataProviderProducts = [];
       return;
     }
 
-    // Filter data provider products that are associated with the selected internal product
-    this.associatedDataProviderProducts = this.dataProviderProducts.filter(
-      dp => dp.associatedProduct?.internalId === this.selectedProduct?.internalId
-    );
+    this.productService.getAssociatedDataProviderProducts(product.internalId).subscribe({
+      next: (products) => {
+        if (this.selectedProduct?.internalId === product.internalId) {
+          this.associatedDataProviderProducts = products;
+        }
+      },
+      error: (error) => {
+        this.snackBar.open('Error loading associated data provider products: ' + error.message, 'Close', { duration: 5000 });
+      }
+    });
   }
 }
-
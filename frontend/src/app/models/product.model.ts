@@ -1,6 +1,7 @@
 export interface Product {
   internalId: string;
   globalTradeIdentifier?: string;
+  attributeCount?: number;
   attributes?: ProductAttribute[];
 }
 
@@ -11,8 +12,27 @@ export interface ProductAttribute {
 }
 
 export interface ProductFilter {
+  /** Substring of the internalId or GTIN. */
+  term?: string;
   globalTradeIdentifier?: string;
   attributeFilters?: AttributeFilter[];
+  /** Attribute names to count values for; all attributes if empty. */
+  facets?: string[];
+}
+
+/**
+ * Attribute value counts over the products matching a filter. When approximate is set, more
+ * products matched than were counted.
+ */
+export interface ProductFacets {
+  matched: number;
+  approximate: boolean;
+  facets: Facet[];
+}
+
+export interface Facet {
+  name: string;
+  values: { value: string; count: number }[];
 }
 
 export interface AttributeFilter {
@@ -29,14 +49,26 @@ export enum FilterOperator {
   EXISTS = 'EXISTS'
 }
 
+/**
+ * One page of a keyset-paginated list; nextCursor is null on the last page.
+ */
+export interface Page<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
 export interface DataProviderProduct {
   id?: number;
   dataProviderId: string;
   externalId: string;
   globalTradeIdentifier?: string;
+  manufacturerPid?: string;
   importedAt?: string;
   lastUpdatedAt?: string;
   associationStrategy?: string;
+  associationConfidence?: number;
+  associatedProductId?: string;
+  attributeCount?: number;
   attributes?: DataProviderAttribute[];
   associatedProduct?: Product;
 }
@@ -51,7 +83,32 @@ export interface ImportResult {
   totalProducts: number;
   associatedProducts: number;
   notAssociatedProducts: number;
+  unchangedProducts?: number;
   errors: string[];
   startTime: string;
   endTime: string;
+  bytesRead?: number;
+  productsPerSecond?: number;
+  bytesPerSecond?: number;
+  failed?: boolean;
+}
+
+export type ImportJobState = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+
+export interface ImportJobStatus {
+  id: string;
+  dataProviderId: string;
+  source: string;
+  status: ImportJobState;
+  submittedAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+  processed: number;
+  associated: number;
+  unchanged?: number;
+  unassociated: number;
+  errors: number;
+  productsPerSecond: number;
+  etaSeconds?: number;
+  result?: ImportResult;
 }
\ No newline at end of file
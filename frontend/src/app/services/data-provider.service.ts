@@ -1,7 +1,8 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
-import { DataProviderProduct, ImportResult } from '../models/product.model';
+import { Observable, filter, map, switchMap, take, timer } from 'rxjs';
+import { DataProviderProduct, ImportJobStatus, ImportResult, Page } from '../models/product.model';
+import { CursorPager, DEFAULT_PAGE_SIZE, getPage } from './paging';
 
 @Injectable({
   providedIn: 'root'
@@ -12,11 +13,42 @@ export class DataProviderService {
 
   constructor(private http: HttpClient) {}
 
-  getAllDataProviderProducts(): Observable<DataProviderProduct[]> {
-    return this.http.get<DataProviderProduct[]>(this.productsApiUrl);
+  /**
+   * Pages through all data provider products for the overview table.
+   */
+  getDataProviderProductPager(): CursorPager<DataProviderProduct> {
+    // The overview table shows attributes, but not the associated product's graph.
+    return new CursorPager<DataProviderProduct>(
+      cursor => this.getDataProviderProductsPage(cursor, DEFAULT_PAGE_SIZE, ['attributes']));
   }
 
+  getDataProviderProductsPage(cursor?: string, limit?: number, expand: string[] = []): Observable<Page<DataProviderProduct>> {
+    return getPage<DataProviderProduct>(this.http, this.productsApiUrl, cursor, limit, expand);
+  }
+
+  /**
+   * Starts a JSON import job and emits its result once the job has finished.
+   */
   importJsonProducts(): Observable<ImportResult> {
-    return this.http.post<ImportResult>(`${this.apiUrl}/import/json`, {});
+    return this.http.post<ImportJobStatus>(`${this.apiUrl}/import/json`, {}).pipe(
+      switchMap(job => this.pollImportJob(job.id))
+    );
+  }
+
+  getImportJob(id: string): Observable<ImportJobStatus> {
+    return this.http.get<ImportJobStatus>(`${this.apiUrl}/import/jobs/${id}`);
+  }
+
+  cancelImportJob(id: string): Observable<ImportJobStatus> {
+    return this.http.delete<ImportJobStatus>(`${this.apiUrl}/import/jobs/${id}`);
+  }
+
+  private pollImportJob(id: string): Observable<ImportResult> {
+    return timer(0, 1000).pipe(
+      switchMap(() => this.getImportJob(id)),
+      filter(job => job.result != null),
+      take(1),
+      map(job => job.result as ImportResult)
+    );
   }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable, finalize, map, tap } from 'rxjs';
+import { Page } from '../models/product.model';
+
+export const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
+export const MAX_PAGE_SIZE = 1000;
+export const DEFAULT_PAGE_SIZE = 100;
+
+/**
+ * Fetches one page of a keyset-paginated list endpoint.
+ * @param expandParts related data to include, such as 'attributes'; list rows are summaries without it
+ */
+export function getPage<T>(http: HttpClient, url: string, cursor?: string, limit = MAX_PAGE_SIZE,
+                           expandParts: string[] = []): Observable<Page<T>> {
+  let params = new HttpParams().set('limit', limit);
+  if (cursor) {
+    params = params.set('cursor', cursor);
+  }
+  if (expandParts.length > 0) {
+    params = params.set('expand', expandParts.join(','));
+  }
+  return http.get<T[]>(url, { params, observe: 'response' }).pipe(
+    map(response => ({
+      items: response.body ?? [],
+      nextCursor: response.headers.get(NEXT_CURSOR_HEADER)
+    }))
+  );
+}
+
+/**
+ * Items of a keyset-paginated list endpoint, loaded one page at a time as the view asks for more.
+ */
+export class CursorPager<T> {
+  items: T[] = [];
+  loading = false;
+  private nextCursor: string | null = null;
+  private started = false;
+  private generation = 0;
+
+  constructor(private fetchPage: (cursor?: string) => Observable<Page<T>>) {}
+
+  get hasMore(): boolean {
+    return !this.started || this.nextCursor != null;
+  }
+
+  /**
+   * Drops the loaded items, so that the next call of {@link loadMore} loads the first page again.
+   */
+  reset(): void {
+    this.items = [];
+    this.nextCursor = null;
+    this.started = false;
+    this.loading = false;
+    this.generation++;
+  }
+
+  /**
+   * Loads the next page and appends it to the items. A page arriving after a reset is dropped.
+   * @returns the items of the loaded page
+   */
+  loadMore(): Observable<T[]> {
+    const generation = this.generation;
+    this.loading = true;
+    return this.fetchPage(this.nextCursor ?? undefined).pipe(
+      tap(page => {
+        if (generation === this.generation) {
+          this.items = this.items.concat(page.items);
+          this.nextCursor = page.nextCursor;
+          this.started = true;
+        }
+      }),
+      map(page => page.items),
+      finalize(() => {
+        if (generation === this.generation) {
+          this.loading = false;
+        }
+      })
+    );
+  }
+}
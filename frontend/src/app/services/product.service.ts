@@ -1,7 +1,8 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Product, ProductFilter } from '../models/product.model';
+import { DataProviderProduct, Page, Product, ProductFacets, ProductFilter } from '../models/product.model';
+import { CursorPager, DEFAULT_PAGE_SIZE, getPage } from './paging';
 
 @Injectable({
   providedIn: 'root'
@@ -11,14 +12,26 @@ export class ProductService {
 
   constructor(private http: HttpClient) {}
 
-  getAllProducts(): Observable<Product[]> {
-    return this.http.get<Product[]>(this.apiUrl);
+  /**
+   * Pages through all products for the overview table.
+   */
+  getProductPager(): CursorPager<Product> {
+    // The overview table shows each product's attributes, so they are requested with expand=attributes.
+    return new CursorPager<Product>(cursor => this.getProductsPage(cursor, DEFAULT_PAGE_SIZE, ['attributes']));
+  }
+
+  getProductsPage(cursor?: string, limit?: number, expand: string[] = []): Observable<Page<Product>> {
+    return getPage<Product>(this.http, this.apiUrl, cursor, limit, expand);
   }
 
   getProduct(id: string): Observable<Product> {
     return this.http.get<Product>(`${this.apiUrl}/${id}`);
   }
 
+  getAssociatedDataProviderProducts(id: string): Observable<DataProviderProduct[]> {
+    return this.http.get<DataProviderProduct[]>(`${this.apiUrl}/${id}/dataprovider-products`);
+  }
+
   createProduct(product: Product): Observable<Product> {
     return this.http.post<Product>(this.apiUrl, product);
   }
@@ -32,10 +45,14 @@ export class ProductService {
   }
 
   searchProducts(term: string): Observable<Product[]> {
-    return this.http.get<Product[]>(`${this.apiUrl}/search?term=${term}`);
+    return this.http.get<Product[]>(`${this.apiUrl}/search`, { params: { term } });
   }
 
   filterProducts(filter: ProductFilter): Observable<Product[]> {
     return this.http.post<Product[]>(`${this.apiUrl}/filter`, filter);
   }
+
+  getFacets(filter: ProductFilter): Observable<ProductFacets> {
+    return this.http.post<ProductFacets>(`${this.apiUrl}/facets`, filter);
+  }
 }
\ No newline at end of file
@@ -1,14 +1,28 @@
+// Keep in sync with SchemaBootstrap in the backend, which creates the same schema at startup.
+
 // InternalProduct constraints and indexes
 CREATE CONSTRAINT internal_product_id IF NOT EXISTS FOR (p:InternalProduct) REQUIRE p.internalId IS UNIQUE;
 CREATE CONSTRAINT internal_product_gtin IF NOT EXISTS FOR (p:InternalProduct) REQUIRE p.globalTradeId IS UNIQUE;
+CREATE TEXT INDEX internal_product_id_text IF NOT EXISTS FOR (p:InternalProduct) ON (p.internalId);
+CREATE TEXT INDEX internal_product_gtin_text IF NOT EXISTS FOR (p:InternalProduct) ON (p.globalTradeId);
 
 // DataProviderProduct constraints and indexes
-CREATE CONSTRAINT dataprovider_product_id IF NOT EXISTS FOR (dp:DataProviderProduct) REQUIRE dp.dataproviderId IS UNIQUE;
-CREATE INDEX dataprovider_key IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.dataproviderKey);
-CREATE INDEX dataprovider_gtin IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.globalTradeId);
+CREATE CONSTRAINT dataprovider_product_unique IF NOT EXISTS FOR (dp:DataProviderProduct) REQUIRE (dp.dataProviderId, dp.externalId) IS UNIQUE;
+CREATE INDEX dataprovider_product_gtin IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.globalTradeIdentifier);
+CREATE INDEX dataprovider_product_unassociated IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.unassociatedSince);
+CREATE INDEX dataprovider_product_unassociated_id IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.unassociatedIdKey);
+CREATE INDEX dataprovider_product_unassociated_part_number IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.unassociatedPartNumberKey);
 
 // InternalProductAttribute indexes
 CREATE INDEX attribute_name IF NOT EXISTS FOR (ipa:InternalProductAttribute) ON (ipa.name);
+CREATE INDEX internal_product_attribute_name_value IF NOT EXISTS FOR (ipa:InternalProductAttribute) ON (ipa.name, ipa.value);
 
 // DataproviderAttribute indexes
 CREATE INDEX dataprovider_attribute_name IF NOT EXISTS FOR (dpa:DataproviderAttribute) ON (dpa.name);
+CREATE INDEX dataprovider_attribute_name_value IF NOT EXISTS FOR (dpa:DataproviderAttribute) ON (dpa.name, dpa.value);
+
+// ImportCheckpoint indexes
+CREATE INDEX import_checkpoint_source IF NOT EXISTS FOR (c:ImportCheckpoint) ON (c.dataProviderId, c.sourceHash);
+
+// CacheInvalidation indexes
+CREATE INDEX cache_invalidation_created IF NOT EXISTS FOR (i:CacheInvalidation) ON (i.createdAt);
@@ -0,0 +1,53 @@
+// ========================================
+// Migration: shared attribute nodes
+// ========================================
+// Collapses DataproviderAttribute and InternalProductAttribute nodes with the same
+// (name, value) into a single node and adds unique constraints on (name, value).
+// Relationships of the duplicates are moved to the surviving node; a product linked
+// to several duplicates of the same pair keeps a single relationship.
+//
+// Run before enabling dataprovider.import.shared-attributes. Afterwards, imports with
+// shared-attributes disabled fail on the constraint, as they create one node per product.
+//
+// Usage:
+//   docker exec -i product-neo4j cypher-shell -u neo4j -p password123 < 001-shared-attributes.cypher
+// ========================================
+
+MATCH (a:DataproviderAttribute)
+WHERE a.name IS NOT NULL AND a.value IS NOT NULL
+WITH a.name AS name, a.value AS value, collect(a) AS nodes
+WHERE size(nodes) > 1
+CALL {
+  WITH nodes
+  WITH head(nodes) AS keep, tail(nodes) AS duplicates
+  UNWIND duplicates AS duplicate
+  CALL {
+    WITH keep, duplicate
+    MATCH (dp)-[r:HAS_DATAPROVIDERATTRIBUTE]->(duplicate)
+    MERGE (dp)-[:HAS_DATAPROVIDERATTRIBUTE]->(keep)
+    DELETE r
+  }
+  DETACH DELETE duplicate
+} IN TRANSACTIONS OF 100 ROWS;
+
+MATCH (a:InternalProductAttribute)
+WHERE a.name IS NOT NULL AND a.value IS NOT NULL
+WITH a.name AS name, a.value AS value, collect(a) AS nodes
+WHERE size(nodes) > 1
+CALL {
+  WITH nodes
+  WITH head(nodes) AS keep, tail(nodes) AS duplicates
+  UNWIND duplicates AS duplicate
+  CALL {
+    WITH keep, duplicate
+    MATCH (p)-[r:HAS_ATTRIBUTE]->(duplicate)
+    MERGE (p)-[:HAS_ATTRIBUTE]->(keep)
+    DELETE r
+  }
+  DETACH DELETE duplicate
+} IN TRANSACTIONS OF 100 ROWS;
+
+CREATE CONSTRAINT dataprovider_attribute_unique IF NOT EXISTS
+FOR (a:DataproviderAttribute) REQUIRE (a.name, a.value) IS UNIQUE;
+CREATE CONSTRAINT internal_product_attribute_unique IF NOT EXISTS
+FOR (a:InternalProductAttribute) REQUIRE (a.name, a.value) IS UNIQUE;
@@ -12,23 +12,46 @@ DETACH DELETE n;
 DROP CONSTRAINT internal_product_id IF EXISTS;
 DROP CONSTRAINT internal_product_gtin IF EXISTS;
 DROP CONSTRAINT dataprovider_product_id IF EXISTS;
+DROP CONSTRAINT dataprovider_product_unique IF EXISTS;
+DROP CONSTRAINT dataprovider_attribute_unique IF EXISTS;
+DROP CONSTRAINT internal_product_attribute_unique IF EXISTS;
 
+DROP INDEX internal_product_id_text IF EXISTS;
+DROP INDEX internal_product_gtin_text IF EXISTS;
 DROP INDEX dataprovider_key IF EXISTS;
+DROP INDEX dataprovider_product_key IF EXISTS;
 DROP INDEX dataprovider_gtin IF EXISTS;
+DROP INDEX dataprovider_product_gtin IF EXISTS;
+DROP INDEX dataprovider_product_unassociated IF EXISTS;
+DROP INDEX dataprovider_product_unassociated_id IF EXISTS;
+DROP INDEX dataprovider_product_unassociated_part_number IF EXISTS;
 DROP INDEX attribute_name IF EXISTS;
+DROP INDEX internal_product_attribute_name_value IF EXISTS;
 DROP INDEX dataprovider_attribute_name IF EXISTS;
+DROP INDEX dataprovider_attribute_name_value IF EXISTS;
+DROP INDEX import_checkpoint_source IF EXISTS;
+DROP INDEX cache_invalidation_created IF EXISTS;
 
 
 CREATE CONSTRAINT internal_product_id IF NOT EXISTS FOR (p:InternalProduct) REQUIRE p.internalId IS UNIQUE;
 CREATE CONSTRAINT internal_product_gtin IF NOT EXISTS FOR (p:InternalProduct) REQUIRE p.globalTradeId IS UNIQUE;
+CREATE TEXT INDEX internal_product_id_text IF NOT EXISTS FOR (p:InternalProduct) ON (p.internalId);
+CREATE TEXT INDEX internal_product_gtin_text IF NOT EXISTS FOR (p:InternalProduct) ON (p.globalTradeId);
 
-CREATE CONSTRAINT dataprovider_product_id IF NOT EXISTS FOR (dp:DataProviderProduct) REQUIRE dp.dataproviderId IS UNIQUE;
-CREATE INDEX dataprovider_key IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.dataproviderKey);
-CREATE INDEX dataprovider_gtin IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.globalTradeId);
+CREATE CONSTRAINT dataprovider_product_unique IF NOT EXISTS FOR (dp:DataProviderProduct) REQUIRE (dp.dataProviderId, dp.externalId) IS UNIQUE;
+CREATE INDEX dataprovider_product_gtin IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.globalTradeIdentifier);
+CREATE INDEX dataprovider_product_unassociated IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.unassociatedSince);
+CREATE INDEX dataprovider_product_unassociated_id IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.unassociatedIdKey);
+CREATE INDEX dataprovider_product_unassociated_part_number IF NOT EXISTS FOR (dp:DataProviderProduct) ON (dp.unassociatedPartNumberKey);
 
 CREATE INDEX attribute_name IF NOT EXISTS FOR (ipa:InternalProductAttribute) ON (ipa.name);
+CREATE INDEX internal_product_attribute_name_value IF NOT EXISTS FOR (ipa:InternalProductAttribute) ON (ipa.name, ipa.value);
 
 CREATE INDEX dataprovider_attribute_name IF NOT EXISTS FOR (dpa:DataproviderAttribute) ON (dpa.name);
+CREATE INDEX dataprovider_attribute_name_value IF NOT EXISTS FOR (dpa:DataproviderAttribute) ON (dpa.name, dpa.value);
+
+CREATE INDEX import_checkpoint_source IF NOT EXISTS FOR (c:ImportCheckpoint) ON (c.dataProviderId, c.sourceHash);
+CREATE INDEX cache_invalidation_created IF NOT EXISTS FOR (i:CacheInvalidation) ON (i.createdAt);
 
 
 CREATE (ip002:InternalProduct {internalId: "INT_002", globalTradeId: "0123456789013"})-[:HAS_ATTRIBUTE]->(attr002:InternalProductAttribute {name: "Brand", value: "Samsung"});